@@ -0,0 +1,202 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+import benchmarks.Workload;
+
+// Workloads of ListBenchmark, one nested class per operation.
+// Operations that take a target cycle through a fixed table of random targets, so every run
+// costs the same and picking the target is not part of the measurement.
+public class ListWorkloads {
+	// Number of precomputed random targets
+	private static final int TARGETS = 1024;
+
+	// List of boxed numbers 0 to size - 1 with a table of random targets
+	private abstract static class NumberList implements Workload {
+		CircularDoublyLinkedList<Integer> list;
+		Integer[] targets;
+		int next;
+
+		@Override
+		public void setUp(int size, long seed) {
+			list = new CircularDoublyLinkedList<>();
+			if (indexed()) {
+				list.enableIndex();
+			}
+			Integer[] values = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = i;
+				list.insertLast(values[i]);
+			}
+			SplittableRandom random = new SplittableRandom(seed);
+			targets = new Integer[TARGETS];
+			for (int i = 0; i < TARGETS; i++) {
+				targets[i] = values[random.nextInt(size)];
+			}
+		}
+
+		// whether the list keeps its element index
+		boolean indexed() {
+			return false;
+		}
+
+		// returns the next random target
+		Integer target() {
+			Integer target = targets[next];
+			next = (next + 1) & (TARGETS - 1);
+			return target;
+		}
+	}
+
+	// Appends an element and unlinks it again through its node
+	public static class InsertLast extends NumberList {
+		@Override
+		public Object run() {
+			CircularDoublyLinkedList.Node<Integer> node = list.insertLast(target());
+			list.remove(node);
+			return node;
+		}
+	}
+
+	// Prepends an element and unlinks it again through its node
+	public static class InsertFirst extends NumberList {
+		@Override
+		public Object run() {
+			CircularDoublyLinkedList.Node<Integer> node = list.insertFirst(target());
+			list.remove(node);
+			return node;
+		}
+	}
+
+	// Deletes a random element by value and appends it again
+	public static class Delete extends NumberList {
+		@Override
+		public Object run() {
+			Integer target = target();
+			list.delete(target);
+			return list.insertLast(target);
+		}
+	}
+
+	// Delete on a list that keeps its element index
+	public static class IndexedDelete extends Delete {
+		@Override
+		boolean indexed() {
+			return true;
+		}
+	}
+
+	// Looks up a random element
+	public static class Contains extends NumberList {
+		@Override
+		public Object run() {
+			return list.contains(target());
+		}
+	}
+
+	// Contains on a list that keeps its element index
+	public static class IndexedContains extends Contains {
+		@Override
+		boolean indexed() {
+			return true;
+		}
+	}
+
+	// Walks the whole list
+	public static class Iterate extends NumberList {
+		@Override
+		public Object run() {
+			long sum = 0;
+			Iterator<Integer> iterator = list.iterator();
+			while (iterator.hasNext()) {
+				sum += iterator.next();
+			}
+			return sum;
+		}
+	}
+
+	// Finds a random user by ID in the given user list
+	private abstract static class UserSearch implements Workload {
+		CircularDoublyLinkedList<UserManager> users;
+		String[] targets;
+		int next;
+
+		@Override
+		public void setUp(int size, long seed) {
+			users = userList(size);
+			SplittableRandom random = new SplittableRandom(seed);
+			targets = new String[TARGETS];
+			for (int i = 0; i < TARGETS; i++) {
+				targets[i] = SyntheticData.userID(random.nextInt(size));
+			}
+		}
+
+		// builds the searched user list
+		abstract CircularDoublyLinkedList<UserManager> userList(int size);
+
+		@Override
+		public Object run() {
+			String target = targets[next];
+			next = (next + 1) & (TARGETS - 1);
+			return UserManager.searchByID(users, target);
+		}
+	}
+
+	// searchByID on the user registry
+	public static class SearchByID extends UserSearch {
+		@Override
+		CircularDoublyLinkedList<UserManager> userList(int size) {
+			return SyntheticData.users(size);
+		}
+	}
+
+	// searchByID on a plain list, which scans
+	public static class SearchByIDPlainList extends UserSearch {
+		@Override
+		CircularDoublyLinkedList<UserManager> userList(int size) {
+			CircularDoublyLinkedList<UserManager> users = new CircularDoublyLinkedList<>();
+			for (int i = 0; i < size; i++) {
+				users.insertLast(new UserManager(SyntheticData.userID(i), "User " + i, 18 + i % 60));
+			}
+			return users;
+		}
+	}
+
+	// Befriends two random users of a network and removes the friendship again,
+	// pairs that are already friends are unfriended first and befriended again
+	public static class AddRemoveFriendship implements Workload {
+		private UserManager[] first;
+		private UserManager[] second;
+		private int next;
+
+		@Override
+		public void setUp(int size, long seed) {
+			UserManager[] users = SyntheticData.byNumber(SyntheticData.network(Math.max(2, size), seed));
+			SplittableRandom random = new SplittableRandom(seed + 1);
+			first = new UserManager[TARGETS];
+			second = new UserManager[TARGETS];
+			for (int i = 0; i < TARGETS; i++) {
+				int a = random.nextInt(users.length);
+				int b = random.nextInt(users.length - 1);
+				first[i] = users[a];
+				second[i] = users[b >= a ? b + 1 : b];
+			}
+		}
+
+		@Override
+		public Object run() {
+			UserManager user1 = first[next];
+			UserManager user2 = second[next];
+			next = (next + 1) & (TARGETS - 1);
+			if (UserManager.addFriendship(user1, user2)) {
+				return UserManager.removeFriendship(user1, user2);
+			}
+			UserManager.removeFriendship(user1, user2);
+			return UserManager.addFriendship(user1, user2);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import benchmarks.Workload;
+
+// Workloads of LoaderBenchmark, one nested class per data file.
+// setUp writes the file once, beforeRun loads whatever the file depends on into fresh lists,
+// and run loads the file itself.
+public class LoaderWorkloads {
+	// Loads a users file with rows users
+	public static class Users implements Workload {
+		private final FileManager fileManager = new FileManager();
+		private Path usersFile;
+
+		@Override
+		public void setUp(int rows, long seed) throws Exception {
+			usersFile = Files.createTempFile("bench-users", ".txt");
+			SyntheticData.writeUsers(usersFile, rows);
+		}
+
+		@Override
+		public Object run() throws IOException {
+			return fileManager.loadUsers(usersFile.toString());
+		}
+
+		@Override
+		public void tearDown() throws Exception {
+			SyntheticData.delete(usersFile);
+		}
+	}
+
+	// Loads a friendships file with rows lines, two per friendship, FRIENDS_PER_USER friends per user on average
+	public static class Friendships implements Workload {
+		private final FileManager fileManager = new FileManager();
+		private Path usersFile;
+		private Path friendshipsFile;
+		private CircularDoublyLinkedList<UserManager> users;
+
+		@Override
+		public void setUp(int rows, long seed) throws Exception {
+			int userCount = Math.max(2, rows / SyntheticData.FRIENDS_PER_USER);
+			usersFile = Files.createTempFile("bench-users", ".txt");
+			friendshipsFile = Files.createTempFile("bench-friendships", ".txt");
+			SyntheticData.writeUsers(usersFile, userCount);
+			SyntheticData.writeFriendships(friendshipsFile, userCount, rows / 2, seed);
+		}
+
+		@Override
+		public void beforeRun() throws IOException {
+			users = null;
+			users = fileManager.loadUsers(usersFile.toString());
+		}
+
+		@Override
+		public Object run() throws IOException {
+			FileManager.loadFriendships(friendshipsFile.toString(), users);
+			return users;
+		}
+
+		@Override
+		public void tearDown() throws Exception {
+			SyntheticData.delete(usersFile);
+			SyntheticData.delete(friendshipsFile);
+		}
+	}
+
+	// Loads a posts file with rows posts, POSTS_PER_USER posts per user on average
+	public static class Posts implements Workload {
+		private final FileManager fileManager = new FileManager();
+		private Path usersFile;
+		private Path friendshipsFile;
+		private Path postsFile;
+		private CircularDoublyLinkedList<UserManager> users;
+
+		@Override
+		public void setUp(int rows, long seed) throws Exception {
+			int userCount = Math.max(2, rows / SyntheticData.POSTS_PER_USER);
+			usersFile = Files.createTempFile("bench-users", ".txt");
+			friendshipsFile = Files.createTempFile("bench-friendships", ".txt");
+			postsFile = Files.createTempFile("bench-posts", ".txt");
+			SyntheticData.writeUsers(usersFile, userCount);
+			SyntheticData.writeFriendships(friendshipsFile, userCount, (long) userCount * SyntheticData.FRIENDS_PER_USER / 2, seed);
+			SyntheticData.writePosts(postsFile, userCount, rows, seed);
+		}
+
+		@Override
+		public void beforeRun() throws IOException {
+			// posts are filed on their users' timelines, so every load needs fresh users
+			users = null;
+			users = fileManager.loadUsers(usersFile.toString());
+			FileManager.loadFriendships(friendshipsFile.toString(), users);
+		}
+
+		@Override
+		public Object run() throws IOException {
+			return fileManager.loadPosts(postsFile.toString(), users);
+		}
+
+		@Override
+		public void tearDown() throws Exception {
+			SyntheticData.delete(usersFile);
+			SyntheticData.delete(friendshipsFile);
+			SyntheticData.delete(postsFile);
+		}
+	}
+
+	// Loads a binary snapshot of a network with rows users, their friendships and posts
+	public static class Snapshot implements Workload {
+		private final FileManager fileManager = new FileManager();
+		private Path snapshotFile;
+
+		@Override
+		public void setUp(int rows, long seed) throws Exception {
+			UserRegistry users = SyntheticData.network(rows, seed);
+			PostRegistry posts = SyntheticData.posts(users, seed);
+			snapshotFile = Files.createTempFile("bench-snapshot", ".bin");
+			fileManager.saveSnapshot(snapshotFile.toString(), users, posts);
+		}
+
+		@Override
+		public Object run() throws IOException {
+			UserRegistry users = new UserRegistry();
+			PostRegistry posts = new PostRegistry();
+			fileManager.loadSnapshot(snapshotFile.toString(), users, posts);
+			return posts;
+		}
+
+		@Override
+		public void tearDown() throws Exception {
+			SyntheticData.delete(snapshotFile);
+		}
+	}
+}
@@ -0,0 +1,175 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import benchmarks.Workload;
+
+// Workloads of ReportBenchmark, one nested class per report of ReportEngine.
+// Every report runs on the same seeded network of users with friendships and posts.
+public class ReportWorkloads {
+	// Number of users shown by the reports that take a limit
+	private static final int LIMIT = 10;
+
+	// Report engine over a synthetic network
+	private abstract static class Report implements Workload {
+		ReportEngine engine;
+		UserManager[] users;
+		int next;
+
+		@Override
+		public void setUp(int size, long seed) {
+			UserRegistry network = SyntheticData.network(size, seed);
+			engine = new ReportEngine(network, SyntheticData.posts(network, seed));
+			users = SyntheticData.byNumber(network);
+		}
+
+		// returns the next user for the per-user reports, cycling through everyone
+		UserManager user() {
+			UserManager user = users[next];
+			next = next + 1 == users.length ? 0 : next + 1;
+			return user;
+		}
+	}
+
+	public static class MostActiveUsersReport extends Report {
+		@Override
+		public Object run() {
+			return engine.generateMostActiveUsersReport(LIMIT);
+		}
+	}
+
+	public static class RecentActivityReport extends Report {
+		@Override
+		public Object run() {
+			return engine.generateRecentActivityReport(LIMIT);
+		}
+	}
+
+	public static class ActiveInLastThreeWeeksReport extends Report {
+		@Override
+		public Object run() {
+			return engine.generateActiveInLastThreeWeeksReport(LIMIT);
+		}
+	}
+
+	public static class EngagementStatsReport extends Report {
+		@Override
+		public Object run() {
+			return engine.generateEngagementStatsReport();
+		}
+	}
+
+	public static class EngagementStatsLimitReport extends Report {
+		@Override
+		public Object run() {
+			return engine.generateEngagementStatsReport(LIMIT);
+		}
+	}
+
+	public static class UserActivityReport extends Report {
+		@Override
+		public Object run() {
+			return engine.generateUserActivityReport(user());
+		}
+	}
+
+	public static class CreatedPostsReport extends Report {
+		@Override
+		public Object run() {
+			return engine.createdPostsReport(user());
+		}
+	}
+
+	public static class SharedPostsReport extends Report {
+		@Override
+		public Object run() {
+			return engine.sharedPostsReport(user());
+		}
+	}
+
+	public static class EngagementSummary extends Report {
+		@Override
+		public Object run() {
+			return engine.engagementSummary(user());
+		}
+	}
+
+	public static class UserEngagementMetrics extends Report {
+		@Override
+		public Object run() {
+			return engine.getUserEngagementMetrics(user());
+		}
+	}
+
+	public static class MostActiveUsers extends Report {
+		@Override
+		public Object run() {
+			return engine.getMostActiveUsers();
+		}
+	}
+
+	public static class MostConnectedUsers extends Report {
+		@Override
+		public Object run() {
+			return engine.getMostConnectedUsers();
+		}
+	}
+
+	public static class MostEngagedUsers extends Report {
+		@Override
+		public Object run() {
+			return engine.getMostEngagedUsers();
+		}
+	}
+
+	public static class IsolatedUsers extends Report {
+		@Override
+		public Object run() {
+			return engine.getIsolatedUsers();
+		}
+	}
+
+	public static class InactiveUsers extends Report {
+		@Override
+		public Object run() {
+			return engine.getInactiveUsers();
+		}
+	}
+
+	public static class UnengagedUsers extends Report {
+		@Override
+		public Object run() {
+			return engine.getUnengagedUsers();
+		}
+	}
+
+	public static class MutualFriendCounts extends Report {
+		@Override
+		public Object run() {
+			return engine.getMutualFriendCounts(user());
+		}
+	}
+
+	// Writes the export to a writer that drops the text, so only building it is measured
+	public static class CreatedPostsExport extends Report {
+		@Override
+		public Object run() {
+			PrintWriter writer = new PrintWriter(Writer.nullWriter());
+			engine.writeCreatedPostsReport(writer, engine.capture());
+			return writer;
+		}
+	}
+
+	public static class SharedPostsExport extends Report {
+		@Override
+		public Object run() {
+			PrintWriter writer = new PrintWriter(Writer.nullWriter());
+			engine.writeSharedPostsReport(writer, engine.capture());
+			return writer;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.SplittableRandom;
+
+// Seeded synthetic networks for the benchmarks, the same size and seed always give the same data.
+// Networks are built either in memory or straight into data files in the formats FileManager reads.
+public class SyntheticData {
+	// Average number of friends per user
+	static final int FRIENDS_PER_USER = 8;
+	// Average number of posts per user
+	static final int POSTS_PER_USER = 4;
+	// Posts are dated within this many days before today
+	static final int POST_DAYS = 60;
+	// One post in this many is shared with all of its creator's friends
+	static final int SHARE_EVERY = 2;
+
+	// ID of the user with the given number
+	static String userID(int number) {
+		return "U" + number;
+	}
+
+	// Builds a registry of users with no friends or posts
+	static UserRegistry users(int count) {
+		UserRegistry users = new UserRegistry();
+		for (int i = 0; i < count; i++) {
+			users.add(new UserManager(userID(i), "User " + i, 18 + i % 60));
+		}
+		return users;
+	}
+
+	// Builds a registry of users with random friendships, FRIENDS_PER_USER on average
+	static UserRegistry network(int count, long seed) {
+		UserRegistry users = users(count);
+		if (count < 2) {
+			return users;
+		}
+		SplittableRandom random = new SplittableRandom(seed);
+		UserManager[] byNumber = byNumber(users);
+		long edges = (long) count * FRIENDS_PER_USER / 2;
+		for (long i = 0; i < edges; i++) {
+			int a = random.nextInt(count);
+			int b = random.nextInt(count);
+			if (a != b) {
+				UserManager.addFriendship(byNumber[a], byNumber[b]);
+			}
+		}
+		return users;
+	}
+
+	// Creates POSTS_PER_USER posts per user on average, dated within the last POST_DAYS days
+	static PostRegistry posts(UserRegistry users, long seed) {
+		SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+		UserManager[] byNumber = byNumber(users);
+		PostRegistry posts = new PostRegistry();
+		int count = byNumber.length * POSTS_PER_USER;
+		for (int i = 0; i < count; i++) {
+			UserManager creator = byNumber[random.nextInt(byNumber.length)];
+			posts.add(PostManager.createPost("P" + i, creator, "Post " + i, randomDate(random),
+				random.nextInt(SHARE_EVERY) == 0));
+		}
+		return posts;
+	}
+
+	// Writes a users file with the given number of lines
+	static void writeUsers(Path file, int rows) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < rows; i++) {
+				writer.write(userID(i) + ",User " + i + "," + (18 + i % 60));
+				writer.newLine();
+			}
+		}
+	}
+
+	// Writes a friendships file with the given number of friendships between count users
+	static void writeFriendships(Path file, int count, long rows, long seed) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (long i = 0; i < rows; i++) {
+				int a = random.nextInt(count);
+				int b = random.nextInt(count - 1);
+				// skip a so nobody befriends themselves
+				if (b >= a) {
+					b++;
+				}
+				// a line only befriends its first user, so write the pair both ways
+				writer.write(userID(a) + "," + userID(b));
+				writer.newLine();
+				writer.write(userID(b) + "," + userID(a));
+				writer.newLine();
+			}
+		}
+	}
+
+	// Writes a posts file with the given number of posts by count users
+	static void writePosts(Path file, int count, int rows, long seed) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < rows; i++) {
+				Calendar date = randomDate(random);
+				writer.write("P" + i + "," + userID(random.nextInt(count)) + ",Post " + i + ","
+					+ String.format("%02d.%02d.%d", date.get(Calendar.DAY_OF_MONTH), date.get(Calendar.MONTH) + 1, date.get(Calendar.YEAR))
+					+ "," + (random.nextInt(SHARE_EVERY) == 0));
+				writer.newLine();
+			}
+		}
+	}
+
+	// Returns the users in the order they were numbered
+	static UserManager[] byNumber(UserRegistry users) {
+		UserManager[] byNumber = new UserManager[users.size()];
+		int i = 0;
+		for (UserManager user : users) {
+			byNumber[i++] = user;
+		}
+		return byNumber;
+	}
+
+	// a day within the last POST_DAYS days
+	private static Calendar randomDate(SplittableRandom random) {
+		Calendar date = Calendar.getInstance();
+		date.add(Calendar.DAY_OF_YEAR, -random.nextInt(POST_DAYS));
+		return date;
+	}
+
+	// Deletes a file left by a workload, ignoring one that is already gone
+	static void delete(Path file) throws IOException {
+		if (file != null) {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Single operations on the linked and unrolled lists, the user registry and the friendship graph
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+	// nested classes of ListWorkloads
+	@Param({"InsertLast", "InsertFirst", "Delete", "IndexedDelete", "Contains", "IndexedContains",
+		"Iterate",
+		"SearchByID", "SearchByIDPlainList", "AddRemoveFriendship"})
+	public String operation;
+
+	// elements in the list, or users in the registry
+	@Param({"1000", "100000"})
+	public int size;
+
+	@Param({"42"})
+	public long seed;
+
+	private Workload workload;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		workload = Workload.create("ListWorkloads$" + operation);
+		workload.setUp(size, seed);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		workload.tearDown();
+	}
+
+	@Benchmark
+	public Object run() throws Exception {
+		return workload.run();
+	}
+}
@@ -0,0 +1,67 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Loading each kind of data file with FileManager.
+// Every load starts from empty lists, so each measurement is a single cold-ish load.
+// The 10M row runs need a few GB of heap, pick sizes with -p rows=10000,1000000 to skip them.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class LoaderBenchmark {
+	// nested classes of LoaderWorkloads
+	@Param({"Users", "Friendships", "Posts", "Snapshot"})
+	public String file;
+
+	// lines in the loaded file, or records in the snapshot
+	@Param({"10000", "1000000", "10000000"})
+	public int rows;
+
+	@Param({"42"})
+	public long seed;
+
+	private Workload workload;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		workload = Workload.create("LoaderWorkloads$" + file);
+		workload.setUp(rows, seed);
+	}
+
+	@Setup(Level.Invocation)
+	public void beforeRun() throws Exception {
+		workload.beforeRun();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		workload.tearDown();
+	}
+
+	@Benchmark
+	public Object load() throws Exception {
+		return workload.run();
+	}
+}
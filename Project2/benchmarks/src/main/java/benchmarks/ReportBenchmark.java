@@ -0,0 +1,65 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Every report of the report engine on a synthetic network
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ReportBenchmark {
+	// nested classes of ReportWorkloads
+	@Param({"MostActiveUsersReport", "RecentActivityReport", "ActiveInLastThreeWeeksReport",
+		"EngagementStatsReport", "EngagementStatsLimitReport", "UserActivityReport",
+		"CreatedPostsReport", "SharedPostsReport", "EngagementSummary", "UserEngagementMetrics",
+		"MostActiveUsers", "MostConnectedUsers", "MostEngagedUsers", "IsolatedUsers",
+		"InactiveUsers", "UnengagedUsers", "MutualFriendCounts", "CreatedPostsExport",
+		"SharedPostsExport"})
+	public String report;
+
+	// users in the network, with their friendships and posts
+	@Param({"1000", "100000"})
+	public int users;
+
+	@Param({"42"})
+	public long seed;
+
+	private Workload workload;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		workload = Workload.create("ReportWorkloads$" + report);
+		workload.setUp(users, seed);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		workload.tearDown();
+	}
+
+	@Benchmark
+	public Object run() throws Exception {
+		return workload.run();
+	}
+}
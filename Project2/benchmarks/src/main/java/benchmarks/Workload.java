@@ -0,0 +1,33 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+package benchmarks;
+
+// One measured operation on the core classes.
+// JMH refuses benchmark classes in the default package, and classes in a named package cannot
+// see the core, which lives in the default package. So the benchmarks in this package only
+// time workloads, and the workloads are default package classes that implement this interface
+// and are created by name. Each benchmark calls a single workload class, so the interface call
+// is inlined and costs nothing measurable.
+public interface Workload {
+	// Builds the data the operation runs on, size and seed come from the benchmark parameters
+	void setUp(int size, long seed) throws Exception;
+
+	// Resets state that run changes, called before every run by single shot benchmarks
+	default void beforeRun() throws Exception {
+	}
+
+	// Runs the operation once and returns its result, so the JIT cannot drop the work
+	Object run() throws Exception;
+
+	// Releases what setUp created
+	default void tearDown() throws Exception {
+	}
+
+	// Creates the workload class with the given name
+	static Workload create(String className) throws ReflectiveOperationException {
+		return (Workload) Class.forName(className).getDeclaredConstructor().newInstance();
+	}
+}
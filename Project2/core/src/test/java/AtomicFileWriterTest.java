@@ -0,0 +1,114 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Checks that committed files verify, damaged ones are caught at the right block, and an
+// abandoned write leaves the old file alone
+class AtomicFileWriterTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void verifiesACommittedFile() throws IOException {
+		Path file = directory.resolve("data.bin");
+		byte[] bytes = randomBytes(AtomicFileWriter.BLOCK_SIZE * 2 + 100);
+		write(file, bytes);
+
+		assertArrayEquals(bytes, Files.readAllBytes(file));
+		assertTrue(AtomicFileWriter.verify(file.toString()));
+		assertFalse(Files.exists(directory.resolve("data.bin.tmp")));
+	}
+
+	@Test
+	void reportsTheCorruptBlock() throws IOException {
+		Path file = directory.resolve("data.bin");
+		write(file, randomBytes(AtomicFileWriter.BLOCK_SIZE * 3));
+		// flip one byte in the middle block
+		long position = AtomicFileWriter.BLOCK_SIZE + 17;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer one = ByteBuffer.allocate(1);
+			channel.read(one, position);
+			one.put(0, (byte) ~one.get(0));
+			one.rewind();
+			channel.write(one, position);
+		}
+
+		IOException error = assertThrows(IOException.class, () -> AtomicFileWriter.verify(file.toString()));
+		assertTrue(error.getMessage().contains("corrupt at bytes " + AtomicFileWriter.BLOCK_SIZE + "-"), error.getMessage());
+	}
+
+	@Test
+	void reportsATruncatedFile() throws IOException {
+		Path file = directory.resolve("data.bin");
+		write(file, randomBytes(1000));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(999);
+		}
+
+		assertThrows(IOException.class, () -> AtomicFileWriter.verify(file.toString()));
+	}
+
+	@Test
+	void reportsADamagedSidecar() throws IOException {
+		Path file = directory.resolve("data.bin");
+		write(file, randomBytes(1000));
+		Path sidecar = directory.resolve("data.bin.crc");
+		byte[] sums = Files.readAllBytes(sidecar);
+		sums[sums.length - 6] ^= 1;
+		Files.write(sidecar, sums);
+
+		assertThrows(IOException.class, () -> AtomicFileWriter.verify(file.toString()));
+	}
+
+	@Test
+	void keepsTheOldFileWhenNotCommitted() throws IOException {
+		Path file = directory.resolve("data.bin");
+		byte[] old = randomBytes(500);
+		write(file, old);
+
+		try (AtomicFileWriter writer = new AtomicFileWriter(file.toString())) {
+			writer.write(randomBytes(700));
+		}
+
+		assertArrayEquals(old, Files.readAllBytes(file));
+		assertTrue(AtomicFileWriter.verify(file.toString()));
+		assertFalse(Files.exists(directory.resolve("data.bin.tmp")));
+	}
+
+	@Test
+	void reportsNoSidecarAsUnverified() throws IOException {
+		Path file = directory.resolve("plain.bin");
+		Files.write(file, randomBytes(10));
+
+		assertFalse(AtomicFileWriter.verify(file.toString()));
+	}
+
+	private static void write(Path file, byte[] bytes) throws IOException {
+		try (AtomicFileWriter writer = new AtomicFileWriter(file.toString())) {
+			writer.write(bytes);
+			writer.commit();
+		}
+	}
+
+	private static byte[] randomBytes(int count) {
+		byte[] bytes = new byte[count];
+		new Random(count).nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,243 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+// Checks the list's node handles, its node index (including elements held more than once), its
+// iterator and its spliterator
+class CircularDoublyLinkedListTest {
+
+	@Test
+	void editsThroughNodeHandles() {
+		CircularDoublyLinkedList<String> list = new CircularDoublyLinkedList<>();
+		CircularDoublyLinkedList.Node<String> b = list.insertLast("b");
+		CircularDoublyLinkedList.Node<String> d = list.insertLast("d");
+		list.insertBefore(b, "a");
+		list.insertAfter(b, "c");
+		assertEquals(List.of("a", "b", "c", "d"), toList(list));
+
+		list.moveToFront(d);
+		list.moveToBack(b);
+		assertEquals(List.of("d", "a", "c", "b"), toList(list));
+		list.moveBefore(b, d);
+		assertEquals(List.of("b", "d", "a", "c"), toList(list));
+
+		list.remove(d);
+		assertFalse(d.isLinked());
+		assertEquals(List.of("b", "a", "c"), toList(list));
+		assertSame(b, list.firstNode());
+		assertEquals("a", list.nextNode(b).getData());
+		assertNull(list.previousNode(b));
+	}
+
+	@Test
+	void rejectsHandlesOfOtherLists() {
+		CircularDoublyLinkedList<String> list = new CircularDoublyLinkedList<>();
+		CircularDoublyLinkedList<String> other = new CircularDoublyLinkedList<>();
+		CircularDoublyLinkedList.Node<String> node = other.insertLast("x");
+
+		assertThrows(IllegalArgumentException.class, () -> list.remove(node));
+		assertThrows(IllegalArgumentException.class, () -> list.insertAfter(node, "y"));
+		other.remove(node);
+		assertThrows(IllegalArgumentException.class, () -> other.remove(node));
+		assertThrows(IllegalArgumentException.class, () -> other.moveToFront(node));
+	}
+
+	@Test
+	void indexesEveryCopyOfAnElement() {
+		CircularDoublyLinkedList<String> list = new CircularDoublyLinkedList<>();
+		list.enableIndex();
+		CircularDoublyLinkedList.Node<String> first = list.insertLast("x");
+		list.insertLast("y");
+		CircularDoublyLinkedList.Node<String> second = list.insertLast("x");
+		CircularDoublyLinkedList.Node<String> third = list.insertLast("x");
+
+		assertSame(first, list.findNode("x"));
+		list.remove(second);
+		assertSame(first, list.findNode("x"));
+		list.delete("x");
+		assertSame(third, list.findNode("x"));
+		list.delete("x");
+		assertFalse(list.contains("x"));
+		assertEquals(List.of("y"), toList(list));
+	}
+
+	@Test
+	void indexMatchesAScanUnderRandomEdits() {
+		Random random = new Random(5);
+		CircularDoublyLinkedList<Integer> indexed = new CircularDoublyLinkedList<>();
+		indexed.enableIndex();
+		List<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			Integer value = random.nextInt(20);
+			switch (random.nextInt(4)) {
+				case 0:
+					indexed.insertFirst(value);
+					expected.add(0, value);
+					break;
+				case 1:
+					indexed.insertLast(value);
+					expected.add(value);
+					break;
+				case 2:
+					// an indexed list deletes the copy added first, which need not be the first in order
+					int position = positionOf(indexed, indexed.findNode(value));
+					indexed.delete(value);
+					if (position >= 0) {
+						expected.remove(position);
+					}
+					break;
+				default:
+					if (!expected.isEmpty()) {
+						int at = random.nextInt(expected.size());
+						indexed.remove(indexed.nodeAt(at));
+						expected.remove(at);
+					}
+			}
+			if (step % 5000 == 0) {
+				indexed.sort();
+				expected.sort(null);
+			}
+			assertEquals(expected.contains(value), indexed.contains(value));
+		}
+		assertEquals(expected, toList(indexed));
+	}
+
+	@Test
+	void removesThroughTheIterator() {
+		CircularDoublyLinkedList<Integer> list = numbers(10);
+		list.enableIndex();
+		Iterator<Integer> iterator = list.iterator();
+		assertThrows(IllegalStateException.class, iterator::remove);
+		iterator.next();
+		iterator.remove();
+		assertThrows(IllegalStateException.class, iterator::remove);
+		while (iterator.hasNext()) {
+			if (iterator.next() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+
+		assertEquals(List.of(1, 3, 5, 7, 9), toList(list));
+		assertFalse(list.contains(4));
+		assertEquals(5, list.size());
+	}
+
+	@Test
+	void removesMatchesInOnePass() {
+		CircularDoublyLinkedList<Integer> list = numbers(10);
+		list.enableIndex();
+
+		assertTrue(list.removeIf(value -> value % 3 == 0));
+		assertFalse(list.removeIf(value -> value > 100));
+		assertEquals(List.of(1, 2, 4, 5, 7, 8), toList(list));
+		assertFalse(list.contains(9));
+		assertThrows(ConcurrentModificationException.class, () -> list.removeIf(value -> {
+			list.insertLast(20);
+			return false;
+		}));
+	}
+
+	@Test
+	void iteratorFailsFastWhenTheListChanges() {
+		CircularDoublyLinkedList<Integer> list = numbers(5);
+		Iterator<Integer> iterator = list.iterator();
+		iterator.next();
+		list.insertFirst(-1);
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+
+		Iterator<Integer> second = list.iterator();
+		Iterator<Integer> third = list.iterator();
+		second.next();
+		third.next();
+		second.remove();
+		assertThrows(ConcurrentModificationException.class, third::remove);
+		assertThrows(ConcurrentModificationException.class, third::next);
+		// removing through an iterator keeps that iterator going
+		assertEquals(0, second.next());
+	}
+
+	@Test
+	void streamsInOrderSequentiallyAndInParallel() {
+		CircularDoublyLinkedList<Integer> list = numbers(10000);
+		List<Integer> expected = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+
+		assertEquals(expected, list.stream().collect(Collectors.toList()));
+		assertEquals(expected, list.parallelStream().collect(Collectors.toList()));
+		assertEquals(49995000L, list.parallelStream().mapToLong(Integer::longValue).sum());
+		assertEquals(0, new CircularDoublyLinkedList<Integer>().parallelStream().count());
+	}
+
+	@Test
+	void splitsIntoExactHalves() {
+		Spliterator<Integer> spliterator = numbers(101).spliterator();
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+		assertEquals(101, spliterator.getExactSizeIfKnown());
+		assertTrue(spliterator.tryAdvance(value -> assertEquals(0, value)));
+
+		Spliterator<Integer> prefix = spliterator.trySplit();
+		assertNotNull(prefix);
+		assertEquals(100, prefix.estimateSize() + spliterator.estimateSize());
+		List<Integer> seen = new ArrayList<>();
+		prefix.forEachRemaining(seen::add);
+		spliterator.forEachRemaining(seen::add);
+		assertEquals(IntStream.range(1, 101).boxed().collect(Collectors.toList()), seen);
+	}
+
+	@Test
+	void spliteratorFailsFastWhenTheListChanges() {
+		CircularDoublyLinkedList<Integer> list = numbers(10);
+		Spliterator<Integer> spliterator = list.spliterator();
+		spliterator.tryAdvance(value -> { });
+		list.insertLast(10);
+
+		assertThrows(ConcurrentModificationException.class, () -> spliterator.tryAdvance(value -> { }));
+	}
+
+	// list of the numbers 0 to count - 1
+	private static CircularDoublyLinkedList<Integer> numbers(int count) {
+		CircularDoublyLinkedList<Integer> list = new CircularDoublyLinkedList<>();
+		for (int i = 0; i < count; i++) {
+			list.insertLast(i);
+		}
+		return list;
+	}
+
+	// position of a node in the list, or -1 for null
+	private static <T> int positionOf(CircularDoublyLinkedList<T> list, CircularDoublyLinkedList.Node<T> node) {
+		int position = 0;
+		for (CircularDoublyLinkedList.Node<T> current = list.firstNode(); current != null; current = list.nextNode(current)) {
+			if (current == node) {
+				return position;
+			}
+			position++;
+		}
+		return -1;
+	}
+
+	private static <T> List<T> toList(Iterable<T> items) {
+		List<T> list = new ArrayList<>();
+		for (T item : items) {
+			list.add(item);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,87 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+// Checks the bitmap against a sorted set across sparse and dense containers
+class CompressedBitmapTest {
+
+	@Test
+	void addsAndRemovesAcrossContainers() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		assertTrue(bitmap.add(70000));
+		assertTrue(bitmap.add(5));
+		assertTrue(bitmap.add(Integer.MAX_VALUE));
+		assertFalse(bitmap.add(5));
+
+		assertArrayEquals(new int[] {5, 70000, Integer.MAX_VALUE}, bitmap.toArray());
+		assertTrue(bitmap.remove(70000));
+		assertFalse(bitmap.remove(70000));
+		assertFalse(bitmap.contains(70000));
+		assertFalse(bitmap.remove(65536 * 9));
+		assertEquals(2, bitmap.cardinality());
+
+		bitmap.clear();
+		assertTrue(bitmap.isEmpty());
+		assertEquals(0, bitmap.toArray().length);
+		assertTrue(bitmap.add(1));
+		assertArrayEquals(new int[] {1}, bitmap.toArray());
+	}
+
+	@Test
+	void switchesADenseGroupToABitmapAndBack() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		// every other value of group 1, past the array limit
+		for (int low = 0; low < 10000; low += 2) {
+			bitmap.add(65536 + low);
+			expected.add(65536 + low);
+		}
+		bitmap.add(3);
+		expected.add(3);
+		assertContents(expected, bitmap);
+
+		// back under the limit
+		for (int low = 0; low < 6000; low += 2) {
+			assertTrue(bitmap.remove(65536 + low));
+			expected.remove(65536 + low);
+		}
+		assertContents(expected, bitmap);
+		assertTrue(bitmap.contains(65536 + 9998));
+		assertFalse(bitmap.contains(65536 + 9999));
+	}
+
+	@Test
+	void matchesASortedSetUnderRandomEdits() {
+		Random random = new Random(11);
+		CompressedBitmap bitmap = new CompressedBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		for (int step = 0; step < 100000; step++) {
+			// mostly a few crowded groups, some values spread wide
+			int value = random.nextInt(8) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(3 * 65536);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(value), bitmap.remove(value));
+			} else {
+				assertEquals(expected.add(value), bitmap.add(value));
+			}
+		}
+		assertContents(expected, bitmap);
+	}
+
+	private static void assertContents(TreeSet<Integer> expected, CompressedBitmap bitmap) {
+		assertEquals(expected.size(), bitmap.cardinality());
+		assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+		for (int value : expected) {
+			assertTrue(bitmap.contains(value));
+		}
+	}
+}
@@ -0,0 +1,85 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Checks friend list membership and that a registry's friend lists and graph agree
+class FriendListTest {
+
+	@Test
+	void answersMembershipAndKeepsOrder() {
+		FriendList friends = new FriendList();
+		UserManager first = new UserManager("1", "a", 20);
+		UserManager second = new UserManager("2", "b", 20);
+		UserManager third = new UserManager("3", "c", 20);
+		friends.insertLast(first);
+		friends.insertLast(second);
+		friends.insertLast(third);
+
+		assertTrue(friends.contains(second));
+		friends.delete(second);
+		assertFalse(friends.contains(second));
+		assertFalse(friends.contains(null));
+		assertEquals(List.of(first, third), toList(friends));
+	}
+
+	@Test
+	void findsFriendsByIdentityAfterIDChanges() {
+		FriendList friends = new FriendList();
+		UserManager user = new UserManager("1", "a", 20);
+		friends.insertLast(user);
+		user.setUserID("5");
+
+		assertTrue(friends.contains(user));
+		friends.delete(user);
+		assertTrue(friends.isEmpty());
+	}
+
+	@Test
+	void writesChangesThroughToTheGraph() {
+		UserRegistry users = new UserRegistry();
+		UserManager ali = new UserManager("1", "ali", 20);
+		UserManager sara = new UserManager("2", "sara", 20);
+		UserManager omar = new UserManager("3", "omar", 20);
+		users.insertLast(ali);
+		users.insertLast(sara);
+		users.insertLast(omar);
+		FriendshipGraph graph = users.getGraph();
+
+		// one side's list is built before the friendship, the other's only after
+		ali.getFriends();
+		assertTrue(UserManager.addFriendship(ali, sara));
+		assertTrue(UserManager.addFriendship(ali, omar));
+		assertEquals(List.of(sara, omar), toList(ali.getFriends()));
+		assertTrue(sara.getFriends().contains(ali));
+		assertEquals(2, graph.degree(ali));
+		assertEquals(1, graph.degree(sara));
+
+		assertTrue(UserManager.removeFriendship(ali, sara));
+		assertFalse(ali.getFriends().contains(sara));
+		assertFalse(sara.getFriends().contains(ali));
+		assertEquals(1, graph.degree(ali));
+		assertEquals(0, graph.degree(sara));
+
+		// a removed user leaves the friend lists of the users who had them
+		users.delete(omar);
+		assertFalse(ali.getFriends().contains(omar));
+		assertEquals(0, graph.degree(ali));
+	}
+
+	private static List<UserManager> toList(Iterable<UserManager> users) {
+		List<UserManager> list = new ArrayList<>();
+		for (UserManager user : users) {
+			list.add(user);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,172 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Checks the graph's edges through adds, removals, compaction and freezing against plain sets
+class FriendshipGraphTest {
+
+	@Test
+	void addsAndRemovesEdges() {
+		FriendshipGraph graph = new FriendshipGraph();
+		UserManager[] users = users(graph, 3);
+
+		assertTrue(graph.addEdge(users[0], users[1]));
+		assertFalse(graph.addEdge(users[0], users[1]));
+		assertTrue(graph.addEdge(users[0], users[2]));
+		assertEquals(2, graph.edgeCount());
+		assertEquals(2, graph.degree(users[0]));
+		assertEquals(0, graph.degree(users[1]));
+
+		assertTrue(graph.removeEdge(users[0], users[1]));
+		assertFalse(graph.removeEdge(users[0], users[1]));
+		assertFalse(graph.hasEdge(graph.indexOf(users[0]), graph.indexOf(users[1])));
+		assertEquals(1, graph.edgeCount());
+	}
+
+	@Test
+	void keepsEdgesAndOrderThroughCompaction() {
+		FriendshipGraph graph = new FriendshipGraph();
+		UserManager[] users = users(graph, 4);
+		graph.addEdge(users[0], users[3]);
+		graph.addEdge(users[0], users[1]);
+		graph.compact();
+		graph.removeEdge(users[0], users[3]);
+		graph.addEdge(users[0], users[2]);
+		graph.addEdge(users[0], users[3]);
+
+		assertArrayEquals(new int[] {1, 2, 3}, neighbors(graph, users[0]));
+		graph.compact();
+		assertArrayEquals(new int[] {1, 2, 3}, neighbors(graph, users[0]));
+		assertEquals(3, graph.edgeCount());
+	}
+
+	@Test
+	void removesVertexWithEdgesPointingAtIt() {
+		FriendshipGraph graph = new FriendshipGraph();
+		UserManager[] users = users(graph, 3);
+		graph.addEdge(users[0], users[1]);
+		graph.addEdge(users[1], users[0]);
+		graph.addEdge(users[2], users[1]);
+		int vertex = graph.indexOf(users[1]);
+
+		int[] sources = graph.removeVertex(users[1]);
+		assertEquals(2, sources.length);
+		assertEquals(0, graph.edgeCount());
+		assertEquals(0, graph.degree(users[0]));
+		// the freed number goes to the next new user
+		UserManager next = new UserManager("9", "next", 20);
+		assertEquals(vertex, graph.intern(next));
+		assertEquals(0, graph.degree(next));
+	}
+
+	@Test
+	void frozenCopyKeepsItsEdges() {
+		FriendshipGraph graph = new FriendshipGraph();
+		UserManager[] users = users(graph, 3);
+		graph.addEdge(users[0], users[1]);
+		graph.compact();
+		graph.addEdge(users[0], users[2]);
+		FriendshipGraph frozen = graph.freeze();
+
+		graph.removeEdge(users[0], users[1]);
+		graph.addEdge(users[1], users[2]);
+		graph.compact();
+
+		assertArrayEquals(new int[] {1, 2}, neighbors(frozen, 0));
+		assertEquals(0, frozen.degree(1));
+		assertEquals(2, frozen.edgeCount());
+		assertArrayEquals(new int[] {2}, neighbors(graph, users[0]));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.indexOf(users[0]));
+		assertThrows(UnsupportedOperationException.class, () -> frozen.intern(users[0]));
+	}
+
+	@Test
+	void matchesSetsUnderRandomEdits() {
+		Random random = new Random(3);
+		int count = 60;
+		FriendshipGraph graph = new FriendshipGraph();
+		UserManager[] users = users(graph, count);
+		List<LinkedHashSet<Integer>> expected = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			expected.add(new LinkedHashSet<>());
+		}
+		List<FriendshipGraph> frozen = new ArrayList<>();
+		List<int[][]> frozenRows = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			int from = random.nextInt(count);
+			int to = random.nextInt(count);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.get(from).remove(to), graph.removeEdge(users[from], users[to]));
+			} else {
+				assertEquals(expected.get(from).add(to), graph.addEdge(users[from], users[to]));
+			}
+			if (step % 997 == 0) {
+				graph.compact();
+			}
+			if (step % 2500 == 0) {
+				frozen.add(graph.freeze());
+				frozenRows.add(rows(expected));
+			}
+		}
+		for (int vertex = 0; vertex < count; vertex++) {
+			assertArrayEquals(sorted(expected.get(vertex)), sorted(neighbors(graph, vertex)));
+		}
+		for (int i = 0; i < frozen.size(); i++) {
+			for (int vertex = 0; vertex < count; vertex++) {
+				assertArrayEquals(frozenRows.get(i)[vertex], sorted(neighbors(frozen.get(i), vertex)));
+			}
+		}
+	}
+
+	// makes users numbered 0 to count - 1 in the graph
+	private static UserManager[] users(FriendshipGraph graph, int count) {
+		UserManager[] users = new UserManager[count];
+		for (int i = 0; i < count; i++) {
+			users[i] = new UserManager(String.valueOf(i), "user" + i, 20);
+			assertEquals(i, graph.intern(users[i]));
+		}
+		return users;
+	}
+
+	private static int[] neighbors(FriendshipGraph graph, UserManager user) {
+		return neighbors(graph, graph.indexOf(user));
+	}
+
+	private static int[] neighbors(FriendshipGraph graph, int vertex) {
+		IntCircularList row = new IntCircularList();
+		graph.forEachNeighbor(vertex, row::add);
+		return row.toArray();
+	}
+
+	private static int[][] rows(List<LinkedHashSet<Integer>> expected) {
+		int[][] rows = new int[expected.size()][];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = sorted(expected.get(i));
+		}
+		return rows;
+	}
+
+	private static int[] sorted(LinkedHashSet<Integer> row) {
+		return row.stream().mapToInt(Integer::intValue).sorted().toArray();
+	}
+
+	private static int[] sorted(int[] row) {
+		int[] copy = row.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+}
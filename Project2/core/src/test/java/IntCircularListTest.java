@@ -0,0 +1,79 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Checks the circular int list against an ArrayList as it wraps, grows and removes from the middle
+class IntCircularListTest {
+
+	@Test
+	void addsAndRemovesAtBothEnds() {
+		IntCircularList list = new IntCircularList(2);
+		ArrayDeque<Integer> expected = new ArrayDeque<>();
+		for (int i = 0; i < 100; i++) {
+			if (i % 3 == 0) {
+				list.insertFirst(i);
+				expected.addFirst(i);
+			} else {
+				list.insertLast(i);
+				expected.addLast(i);
+			}
+		}
+		assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray());
+		assertEquals((int) expected.removeFirst(), list.removeFirst());
+		assertEquals((int) expected.removeLast(), list.removeLast());
+		assertEquals(expected.size(), list.size());
+
+		list.clear();
+		assertThrows(NoSuchElementException.class, list::removeFirst);
+		assertThrows(NoSuchElementException.class, list::removeLast);
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+	}
+
+	@Test
+	void matchesAnArrayListUnderRandomEdits() {
+		Random random = new Random(17);
+		IntCircularList list = new IntCircularList();
+		ArrayList<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			int value = random.nextInt(50);
+			switch (random.nextInt(5)) {
+				case 0:
+					list.insertFirst(value);
+					expected.add(0, value);
+					break;
+				case 1:
+					list.insertLast(value);
+					expected.add(value);
+					break;
+				case 2:
+					assertEquals(expected.remove((Integer) value), list.delete(value));
+					break;
+				case 3:
+					if (!expected.isEmpty()) {
+						int position = random.nextInt(expected.size());
+						assertEquals((int) expected.remove(position), list.removeAt(position));
+					}
+					break;
+				default:
+					if (!expected.isEmpty()) {
+						int position = random.nextInt(expected.size());
+						list.set(position, value);
+						expected.set(position, value);
+					}
+			}
+			assertEquals(expected.indexOf(value), list.indexOf(value));
+		}
+		assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray());
+	}
+}
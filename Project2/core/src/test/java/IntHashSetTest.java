@@ -0,0 +1,64 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Checks the int set against a HashSet, including the zero key and removals inside probe runs
+class IntHashSetTest {
+
+	@Test
+	void holdsZeroAndNegativeKeys() {
+		IntHashSet set = new IntHashSet();
+		assertTrue(set.add(0));
+		assertFalse(set.add(0));
+		assertTrue(set.add(-1));
+		assertTrue(set.add(Integer.MIN_VALUE));
+
+		assertTrue(set.contains(0));
+		assertEquals(3, set.size());
+		assertTrue(set.remove(0));
+		assertFalse(set.contains(0));
+		assertFalse(set.remove(0));
+		assertArrayEquals(new int[] {Integer.MIN_VALUE, -1}, sorted(set.toArray()));
+
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertFalse(set.contains(-1));
+	}
+
+	@Test
+	void matchesAHashSetUnderRandomEdits() {
+		Random random = new Random(23);
+		IntHashSet set = new IntHashSet(4);
+		HashSet<Integer> expected = new HashSet<>();
+		for (int step = 0; step < 50000; step++) {
+			// multiples of a power of two crowd the same slots
+			int key = random.nextInt(2000) * 1024 - 1024;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), set.remove(key));
+			} else {
+				assertEquals(expected.add(key), set.add(key));
+			}
+			assertEquals(expected.size(), set.size());
+		}
+		for (int key = -1024; key < 2000 * 1024; key += 1024) {
+			assertEquals(expected.contains(key), set.contains(key));
+		}
+		assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), sorted(set.toArray()));
+	}
+
+	private static int[] sorted(int[] keys) {
+		Arrays.sort(keys);
+		return keys;
+	}
+}
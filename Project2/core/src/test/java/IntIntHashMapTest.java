@@ -0,0 +1,65 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Checks the int map against a HashMap, including the zero key and counters
+class IntIntHashMapTest {
+
+	@Test
+	void readsMissingKeysAsZeroOrTheDefault() {
+		IntIntHashMap map = new IntIntHashMap();
+		assertEquals(0, map.get(5));
+		assertEquals(-1, map.getOrDefault(5, -1));
+		assertEquals(-1, map.getOrDefault(0, -1));
+
+		map.put(0, 7);
+		assertTrue(map.containsKey(0));
+		assertEquals(7, map.get(0));
+		assertEquals(3, map.addTo(5, 3));
+		assertEquals(5, map.addTo(5, 2));
+		assertEquals(2, map.size());
+
+		assertEquals(7, map.remove(0));
+		assertFalse(map.containsKey(0));
+		assertEquals(0, map.remove(0));
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.get(5));
+	}
+
+	@Test
+	void matchesAHashMapUnderRandomEdits() {
+		Random random = new Random(29);
+		IntIntHashMap map = new IntIntHashMap(2);
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		for (int step = 0; step < 50000; step++) {
+			int key = random.nextInt(3000) * 512 - 512;
+			int value = random.nextInt(100) + 1;
+			switch (random.nextInt(3)) {
+				case 0:
+					Integer old = expected.remove(key);
+					assertEquals(old == null ? 0 : old, map.remove(key));
+					break;
+				case 1:
+					map.put(key, value);
+					expected.put(key, value);
+					break;
+				default:
+					assertEquals((int) expected.merge(key, value, Integer::sum), map.addTo(key, value));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		HashMap<Integer, Integer> visited = new HashMap<>();
+		map.forEach(visited::put);
+		assertEquals(expected, visited);
+	}
+}
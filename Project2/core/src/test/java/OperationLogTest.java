@@ -0,0 +1,174 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Checks that reopening a log restores the registries, also after a crash left a torn record
+// or a compaction half done
+class OperationLogTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void restoresChangesOnReopen() throws IOException {
+		String base = base();
+		Session session = Session.open(base);
+		UserManager ali = session.addUser("1", "ali");
+		UserManager sara = session.addUser("2", "sara");
+		UserManager.addFriendship(ali, sara);
+		Calendar date = Calendar.getInstance();
+		date.set(2024, Calendar.MARCH, 5);
+		PostManager post = new PostManager("p1", ali, "hello", date);
+		post.shareWith(sara);
+		session.posts.insertLast(post);
+		sara.setName("sarah");
+		session.close();
+
+		Session reopened = Session.open(base);
+		UserManager restored = reopened.users.findByID("2");
+		assertEquals("sarah", restored.getName());
+		assertTrue(restored.isFriend(reopened.users.findByID("1")));
+		assertEquals(1, restored.getReceivedPostCount());
+		assertEquals(1, reopened.posts.size());
+		reopened.close();
+	}
+
+	@Test
+	void dropsATornTail() throws IOException {
+		String base = base();
+		Session session = Session.open(base);
+		session.addUser("1", "ali");
+		session.addUser("2", "sara");
+		session.addUser("3", "omar");
+		session.close();
+		// a crash in the middle of writing the last record
+		Path log = Paths.get(base + ".log");
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		Session reopened = Session.open(base);
+		assertEquals(2, reopened.users.size());
+		assertNull(reopened.users.findByID("3"));
+		// new records follow the last good one
+		reopened.addUser("4", "lina");
+		reopened.close();
+
+		Session last = Session.open(base);
+		assertEquals(3, last.users.size());
+		assertNotNull(last.users.findByID("4"));
+		last.close();
+	}
+
+	@Test
+	void ignoresGarbageAfterTheLastRecord() throws IOException {
+		String base = base();
+		Session session = Session.open(base);
+		session.addUser("1", "ali");
+		session.close();
+		Files.write(Paths.get(base + ".log"), new byte[] {9, 0, 0, 0, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+		Session reopened = Session.open(base);
+		assertEquals(1, reopened.users.size());
+		reopened.close();
+	}
+
+	@Test
+	void finishesACompactionThatStoppedBeforeItsSnapshot() throws IOException {
+		String base = base();
+		Session session = Session.open(base);
+		session.addUser("1", "ali");
+		session.addUser("2", "sara");
+		session.close();
+		// the log was set aside and the next one started, then the snapshot was never written
+		Path log = Paths.get(base + ".log");
+		Path oldLog = Paths.get(base + ".log.old");
+		Files.move(log, oldLog);
+		Files.write(log, header(oldLog, 1));
+
+		Session reopened = Session.open(base);
+		assertEquals(2, reopened.users.size());
+		assertFalse(Files.exists(oldLog));
+		assertTrue(Files.exists(Paths.get(base + ".snap")));
+		reopened.addUser("3", "omar");
+		reopened.close();
+
+		Session last = Session.open(base);
+		assertEquals(3, last.users.size());
+		last.close();
+	}
+
+	@Test
+	void dropsASetAsideLogTheSnapshotAlreadyHolds() throws IOException {
+		String base = base();
+		Session session = Session.open(base);
+		session.addUser("1", "ali");
+		session.log.sync();
+		Path log = Paths.get(base + ".log");
+		Path oldLog = Paths.get(base + ".log.old");
+		Path beforeCompaction = directory.resolve("before.log");
+		Files.copy(log, beforeCompaction);
+		session.log.compact();
+		session.close();
+		// the snapshot was renamed into place but the set-aside log was not deleted yet
+		Files.copy(beforeCompaction, oldLog, StandardCopyOption.REPLACE_EXISTING);
+
+		Session reopened = Session.open(base);
+		assertEquals(1, reopened.users.size());
+		assertFalse(Files.exists(oldLog));
+		reopened.close();
+	}
+
+	private String base() {
+		return directory.resolve("network").toString();
+	}
+
+	// returns a log header with the magic of the given log and the given generation
+	private static byte[] header(Path log, long generation) throws IOException {
+		ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(log), 0, 12);
+		int magic = header.getInt();
+		return ByteBuffer.allocate(12).putInt(magic).putLong(generation).array();
+	}
+
+	// registries with a log attached, as the application keeps them
+	private static final class Session {
+		final UserRegistry users = new UserRegistry();
+		final PostRegistry posts = new PostRegistry();
+		OperationLog log;
+
+		static Session open(String base) throws IOException {
+			Session session = new Session();
+			session.log = OperationLog.open(base, session.users, session.posts);
+			return session;
+		}
+
+		UserManager addUser(String userID, String name) {
+			UserManager user = new UserManager(userID, name, 20);
+			users.insertLast(user);
+			return user;
+		}
+
+		void close() throws IOException {
+			log.close();
+			assertNull(log.getFailure());
+		}
+	}
+}
@@ -0,0 +1,76 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+// Checks that the ID and name indexes of a registry follow adds, edits and removals
+class UserRegistryTest {
+
+	@Test
+	void findsUsersByIDAndName() {
+		UserRegistry users = new UserRegistry();
+		UserManager ali = new UserManager("1", "ali", 20);
+		UserManager sara = new UserManager("2", "sara", 21);
+		users.insertLast(ali);
+		users.insertLast(sara);
+
+		assertSame(ali, users.findByID("1"));
+		assertSame(sara, users.findByName("sara"));
+		assertSame(sara, users.search("2"));
+		assertSame(ali, users.search("ali"));
+		assertNull(users.findByID("3"));
+		assertNull(users.findByName(null));
+	}
+
+	@Test
+	void followsRenames() {
+		UserRegistry users = new UserRegistry();
+		UserManager ali = new UserManager("1", "ali", 20);
+		users.insertLast(ali);
+
+		ali.setUserID("10");
+		ali.setName("alia");
+
+		assertNull(users.findByID("1"));
+		assertNull(users.findByName("ali"));
+		assertSame(ali, users.findByID("10"));
+		assertSame(ali, users.findByName("alia"));
+	}
+
+	@Test
+	void keepsUsersSharingANameUntilTheLastLeaves() {
+		UserRegistry users = new UserRegistry();
+		UserManager first = new UserManager("1", "sam", 20);
+		UserManager second = new UserManager("2", "sam", 30);
+		users.insertLast(first);
+		users.insertLast(second);
+
+		assertSame(first, users.findByName("sam"));
+		users.delete(first);
+		assertSame(second, users.findByName("sam"));
+		users.delete(second);
+		assertNull(users.findByName("sam"));
+		assertFalse(users.containsID("2"));
+	}
+
+	@Test
+	void forgetsEveryUserOnClear() {
+		UserRegistry users = new UserRegistry();
+		for (int i = 0; i < 100; i++) {
+			users.insertLast(new UserManager(String.valueOf(i), "user" + i, 20));
+		}
+		assertTrue(users.containsID("99"));
+		users.clear();
+		assertEquals(0, users.size());
+		assertNull(users.findByID("0"));
+		assertNull(users.findByName("user99"));
+	}
+}
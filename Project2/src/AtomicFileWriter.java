@@ -0,0 +1,202 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+// Writes a file so that a crash never leaves a half written copy behind.
+// Bytes go to <path>.tmp while a CRC32C is computed for every block; commit() syncs the
+// temp file and renames it over the target in one step, then stores the block checksums
+// in a <path>.crc sidecar. Closing without commit() deletes the temp file and leaves the
+// old file untouched. verify() checks a file against its sidecar before it is loaded.
+//
+// The old sidecar is removed before the rename and the new one added after it, so a crash in
+// between leaves a complete file without checksums rather than a file with the wrong ones.
+public class AtomicFileWriter extends OutputStream {
+	// Bytes covered by each checksum
+	public static final int BLOCK_SIZE = 64 << 10;
+	private static final int MAGIC = 0x43524353; // "CRCS"
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final String CHECKSUM_SUFFIX = ".crc";
+
+	private final Path target;
+	private final Path temp;
+	private final FileChannel channel;
+	private final CRC32C checksum = new CRC32C();
+	// Current block, written out and checksummed once full
+	private final byte[] block = new byte[BLOCK_SIZE];
+	private int blockSize;
+	private int[] checksums = new int[16];
+	private int blockCount;
+	private long length;
+	private boolean finished;
+
+	// Starts writing a new version of the file
+	public AtomicFileWriter(String filePath) throws IOException {
+		this.target = Paths.get(filePath);
+		this.temp = Paths.get(filePath + TEMP_SUFFIX);
+		this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		block[blockSize++] = (byte) b;
+		if (blockSize == BLOCK_SIZE) {
+			flushBlock();
+		}
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int count) throws IOException {
+		while (count > 0) {
+			int chunk = Math.min(count, BLOCK_SIZE - blockSize);
+			System.arraycopy(bytes, offset, block, blockSize, chunk);
+			blockSize += chunk;
+			offset += chunk;
+			count -= chunk;
+			if (blockSize == BLOCK_SIZE) {
+				flushBlock();
+			}
+		}
+	}
+
+	// Syncs the written bytes and replaces the target file with them. If it throws before the
+	// rename, closing still deletes the temp file and the old file stays as it was.
+	public void commit() throws IOException {
+		if (finished) {
+			throw new IOException("File was already committed or closed: " + target);
+		}
+		if (blockSize > 0) {
+			flushBlock();
+		}
+		channel.force(true);
+		channel.close();
+		Path sidecar = Paths.get(target + CHECKSUM_SUFFIX);
+		Files.deleteIfExists(sidecar);
+		Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		// the temp file is gone now, there is nothing left for close to throw away
+		finished = true;
+		writeChecksums(sidecar);
+		syncDirectory(target);
+	}
+
+	// Throws away the written bytes unless commit() was called
+	@Override
+	public void close() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		try {
+			channel.close();
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	// Checks a file against its checksum sidecar, returns false if it has none.
+	// Throws an IOException naming the first block that does not match.
+	public static boolean verify(String filePath) throws IOException {
+		Path sidecar = Paths.get(filePath + CHECKSUM_SUFFIX);
+		if (!Files.exists(sidecar)) {
+			return false;
+		}
+		ByteBuffer sums = ByteBuffer.wrap(Files.readAllBytes(sidecar));
+		CRC32C checksum = new CRC32C();
+		if (sums.remaining() < 24 || sums.getInt() != MAGIC) {
+			throw new IOException("Checksum file is damaged: " + sidecar);
+		}
+		checksum.update(sums.array(), 0, sums.limit() - 4);
+		if ((int) checksum.getValue() != sums.getInt(sums.limit() - 4)) {
+			throw new IOException("Checksum file is damaged: " + sidecar);
+		}
+		int blockSize = sums.getInt();
+		long expectedLength = sums.getLong();
+		int blockCount = sums.getInt();
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			if (channel.size() != expectedLength) {
+				throw new IOException(filePath + " is " + channel.size() + " bytes but was saved with " + expectedLength);
+			}
+			ByteBuffer block = ByteBuffer.allocate(blockSize);
+			for (int i = 0; i < blockCount; i++) {
+				block.clear();
+				long position = (long) i * blockSize;
+				while (block.hasRemaining() && channel.read(block, position + block.position()) > 0) {
+				}
+				checksum.reset();
+				checksum.update(block.array(), 0, block.position());
+				if ((int) checksum.getValue() != sums.getInt()) {
+					throw new IOException(filePath + " is corrupt at bytes " + position + "-" + (position + block.position()));
+				}
+			}
+		}
+		return true;
+	}
+
+	// checksums the current block and appends it to the temp file
+	private void flushBlock() throws IOException {
+		checksum.reset();
+		checksum.update(block, 0, blockSize);
+		if (blockCount == checksums.length) {
+			checksums = Arrays.copyOf(checksums, blockCount * 2);
+		}
+		checksums[blockCount++] = (int) checksum.getValue();
+		ByteBuffer buffer = ByteBuffer.wrap(block, 0, blockSize);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		length += blockSize;
+		blockSize = 0;
+	}
+
+	// writes the sidecar the same way: temp file, sync, rename
+	private void writeChecksums(Path sidecar) throws IOException {
+		ByteBuffer sums = ByteBuffer.allocate(24 + 4 * blockCount);
+		sums.putInt(MAGIC).putInt(BLOCK_SIZE).putLong(length).putInt(blockCount);
+		for (int i = 0; i < blockCount; i++) {
+			sums.putInt(checksums[i]);
+		}
+		checksum.reset();
+		checksum.update(sums.array(), 0, sums.position());
+		sums.putInt((int) checksum.getValue());
+		sums.flip();
+		Path sidecarTemp = Paths.get(sidecar + TEMP_SUFFIX);
+		try {
+			try (FileChannel out = FileChannel.open(sidecarTemp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (sums.hasRemaining()) {
+					out.write(sums);
+				}
+				out.force(true);
+			}
+			Files.move(sidecarTemp, sidecar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// the file stays without checksums, like after a crash at this point
+			Files.deleteIfExists(sidecarTemp);
+			throw e;
+		}
+	}
+
+	// makes the renames durable, on systems that allow opening a directory
+	private static void syncDirectory(Path file) {
+		Path directory = file.toAbsolutePath().getParent();
+		if (directory == null) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// not supported here (for example on Windows), the renames are still atomic
+		}
+	}
+}
@@ -0,0 +1,166 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+// Runs a file import while a dialog shows how far it got.
+// The file is parsed on background threads, which only build new rows, and the rows are added to
+// the lists on the FX thread a batch per frame as soon as they are parsed, so the lists are only
+// ever changed by the FX thread and the screen keeps redrawing the whole time. The dialog shows
+// the megabytes read, the rows added, the rows per second and a Cancel button that stops the
+// import at any point, keeping the rows added so far.
+public class BackgroundImport {
+	// Rows added to the lists per frame
+	private static final int APPLY_BATCH = 20000;
+
+	// Starts parsing a file into rows for the lists, reporting to the progress, runs on a background thread
+	public interface Loader {
+		StagedImport<?> load(String filePath, ImportProgress progress) throws Exception;
+	}
+
+	// Starts importing the file, onLoaded runs on the FX thread once every row is in.
+	// A cancelled or failed import shows a message instead.
+	public static void start(String title, File file, Loader loader, Runnable onLoaded) {
+		start(title, file, loader, null, onLoaded);
+	}
+
+	// Same as start, with onBatch run on the FX thread after every frame that added rows, so the
+	// tables can show the rows as they land. It also runs once more for the last rows before
+	// onLoaded, or before the message of a cancelled or failed import. It may be null.
+	public static void start(String title, File file, Loader loader, Runnable onBatch, Runnable onLoaded) {
+		ImportProgress progress = new ImportProgress();
+		ImportTask task = new ImportTask(file.getAbsolutePath(), loader, progress);
+
+		ProgressBar progressBar = new ProgressBar(0);
+		progressBar.setPrefWidth(360);
+		Label statusLabel = new Label("Starting...");
+		Button cancelButton = new Button("Cancel");
+		cancelButton.setOnAction(e -> {
+			cancelButton.setDisable(true);
+			progress.cancel();
+		});
+
+		VBox layout = new VBox(10, new Label("Reading " + file.getName()), progressBar, statusLabel, cancelButton);
+		layout.setPadding(new Insets(15));
+		Stage dialog = new Stage();
+		dialog.initModality(Modality.APPLICATION_MODAL);
+		dialog.setTitle(title);
+		dialog.setScene(new Scene(layout));
+		// closing the window asks the import to stop, the window goes away once it has
+		dialog.setOnCloseRequest(e -> {
+			e.consume();
+			cancelButton.setDisable(true);
+			progress.cancel();
+		});
+
+		// shows the progress every frame, and once the workers are started adds the rows they parsed
+		AnimationTimer frames = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				StagedImport<?> rows = task.getValue();
+				boolean done = false;
+				if (rows != null) {
+					long before = rows.applied();
+					try {
+						done = rows.applyBatch(APPLY_BATCH);
+					} catch (CancellationException cancelled) {
+						stop();
+						dialog.close();
+						batchAdded(onBatch);
+						// alerts wait for the user, which is not allowed inside an animation frame
+						Platform.runLater(() -> showCancelled(title, rows.applied()));
+						return;
+					} catch (Exception error) {
+						stop();
+						dialog.close();
+						batchAdded(onBatch);
+						Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, title, "Failed to load " + file.getName() + ": " + error.getMessage()));
+						return;
+					}
+					if (rows.applied() > before) {
+						batchAdded(onBatch);
+					}
+				}
+				progressBar.setProgress(progress.fraction());
+				statusLabel.setText(String.format("%,.1f of %,.1f MB read, %,d rows added, %,.0f rows/s",
+						progress.bytesRead() / 1e6, progress.totalBytes() / 1e6, rows == null ? 0 : rows.applied(), progress.recordsPerSecond()));
+				if (done) {
+					stop();
+					dialog.close();
+					Platform.runLater(onLoaded);
+				}
+			}
+		};
+		task.setOnFailed(e -> {
+			frames.stop();
+			dialog.close();
+			Throwable error = task.getException();
+			if (error instanceof CancellationException) {
+				showCancelled(title, 0);
+			} else {
+				showAlert(Alert.AlertType.ERROR, title, "Failed to load " + file.getName() + ": " + error.getMessage());
+			}
+		});
+
+		Thread thread = new Thread(task, "import");
+		thread.setDaemon(true);
+		thread.start();
+		frames.start();
+		dialog.show();
+	}
+
+	// lets the tables show the rows added so far
+	private static void batchAdded(Runnable onBatch) {
+		if (onBatch != null) {
+			onBatch.run();
+		}
+	}
+
+	private static void showCancelled(String title, long applied) {
+		showAlert(Alert.AlertType.INFORMATION, title, applied == 0
+				? "Import cancelled, nothing was loaded."
+				: String.format("Import cancelled, the first %,d rows were loaded.", applied));
+	}
+
+	private static void showAlert(Alert.AlertType type, String title, String message) {
+		Alert alert = new Alert(type);
+		alert.setTitle(title);
+		alert.setHeaderText(null);
+		alert.setContentText(message);
+		alert.showAndWait();
+	}
+
+	// Checks the file and starts its workers off the FX thread, then hands back the rows to add
+	private static class ImportTask extends Task<StagedImport<?>> {
+		private final String filePath;
+		private final Loader loader;
+		private final ImportProgress progress;
+
+		ImportTask(String filePath, Loader loader, ImportProgress progress) {
+			this.filePath = filePath;
+			this.loader = loader;
+			this.progress = progress;
+		}
+
+		@Override
+		protected StagedImport<?> call() throws Exception {
+			return loader.load(filePath, progress);
+		}
+	}
+}
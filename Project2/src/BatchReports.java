@@ -0,0 +1,49 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Command line entry point that loads the data files and prints the reports without starting
+// JavaFX, for running imports and reports in batch jobs.
+//
+// usage: BatchReports <users file> <friendships file> <posts file> [limit] [snapshot file]
+public class BatchReports {
+	// Loads the files, prints every summary report and optionally saves a binary snapshot
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("usage: BatchReports <users file> <friendships file> <posts file> [limit] [snapshot file]");
+			System.exit(2);
+		}
+		int limit = 5;
+		if (args.length > 3) {
+			try {
+				limit = Math.max(1, Integer.parseInt(args[3]));
+			} catch (NumberFormatException e) {
+				System.err.println("Invalid limit: " + args[3]);
+				System.exit(2);
+			}
+		}
+
+		// users first, friendships and posts look their users up by ID
+		FileManager fileManager = new FileManager();
+		CircularDoublyLinkedList<UserManager> users = fileManager.loadUsers(args[0]);
+		FileManager.loadFriendships(args[1], users);
+		CircularDoublyLinkedList<PostManager> posts = fileManager.loadPosts(args[2], users);
+
+		ReportEngine engine = new ReportEngine(users, posts);
+		PrintWriter out = new PrintWriter(System.out);
+		out.println(engine.generateMostActiveUsersReport(limit));
+		out.println();
+		out.println(engine.generateRecentActivityReport(limit));
+		out.println();
+		out.println(engine.generateEngagementStatsReport(limit));
+		out.flush();
+
+		if (args.length > 4) {
+			fileManager.saveSnapshot(args[4], users, posts);
+		}
+	}
+}
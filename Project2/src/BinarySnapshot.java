@@ -0,0 +1,579 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.IdentityHashMap;
+
+// Compact binary snapshot of users, friendships and posts.
+// Users and posts are numbered by their position, every string lives once in a string table,
+// friendships are stored as CSR arrays of user numbers, posts as columns, and dates as epoch
+// days. Opening a snapshot reads each section into one buffer and answers lookups straight from
+// the buffers, so a cold start does not parse anything until objects are actually needed.
+// The sections are read rather than memory mapped: a mapping keeps the file open until it is
+// garbage collected, and on Windows a snapshot that is still mapped cannot be replaced.
+//
+// Layout: a 256 byte header (magic, version, counts, operation log generation and the offset
+// and length of each section), followed by the sections below, each a block of big endian ints
+// except the string bytes.
+// Each section must stay under 2 GB because it is read into one buffer.
+public class BinarySnapshot {
+	private static final int MAGIC = 0x534E4150; // "SNAP"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 256;
+	// Epoch day stored for posts without a date
+	public static final int NO_DATE = Integer.MIN_VALUE;
+
+	// Sections in file order
+	private static final int STRING_OFFSETS = 0;
+	private static final int STRING_BYTES = 1;
+	private static final int USER_IDS = 2;
+	private static final int USER_NAMES = 3;
+	private static final int USER_AGES = 4;
+	private static final int USER_HASH = 5;
+	private static final int FRIEND_OFFSETS = 6;
+	private static final int FRIEND_TARGETS = 7;
+	private static final int POST_IDS = 8;
+	private static final int POST_CREATORS = 9;
+	private static final int POST_CONTENTS = 10;
+	private static final int POST_DAYS = 11;
+	private static final int AUDIENCE_OFFSETS = 12;
+	private static final int AUDIENCE_TARGETS = 13;
+	private static final int SECTION_COUNT = 14;
+
+	private final int userCount;
+	private final int postCount;
+	private final int edgeCount;
+	// Operation log generation the snapshot was compacted from, 0 for a plain save
+	private final long generation;
+	private final ByteBuffer stringBytes;
+	private final IntBuffer[] sections;
+
+	private BinarySnapshot(int userCount, int postCount, int edgeCount, long generation, ByteBuffer stringBytes, IntBuffer[] sections) {
+		this.userCount = userCount;
+		this.postCount = postCount;
+		this.edgeCount = edgeCount;
+		this.generation = generation;
+		this.stringBytes = stringBytes;
+		this.sections = sections;
+	}
+
+	// Opens a snapshot file, reading its sections into memory and closing it again
+	public static BinarySnapshot open(String filePath) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+			}
+			header.flip();
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+				throw new IOException("Not a snapshot file: " + filePath);
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported snapshot version " + version);
+			}
+			int userCount = header.getInt();
+			int postCount = header.getInt();
+			int edgeCount = header.getInt();
+			long generation = header.getLong();
+			header.position(32);
+			ByteBuffer stringBytes = null;
+			IntBuffer[] sections = new IntBuffer[SECTION_COUNT];
+			for (int section = 0; section < SECTION_COUNT; section++) {
+				long offset = header.getLong();
+				long length = header.getLong();
+				if (offset < HEADER_SIZE || length < 0 || offset + length > channel.size() || length > Integer.MAX_VALUE) {
+					throw new IOException("Snapshot section " + section + " is out of bounds");
+				}
+				ByteBuffer bytes = ByteBuffer.allocate((int) length);
+				while (bytes.hasRemaining() && channel.read(bytes, offset + bytes.position()) > 0) {
+				}
+				if (bytes.hasRemaining()) {
+					throw new IOException("Snapshot section " + section + " is cut short");
+				}
+				bytes.flip();
+				if (section == STRING_BYTES) {
+					stringBytes = bytes;
+				} else {
+					sections[section] = bytes.asIntBuffer();
+				}
+			}
+			return new BinarySnapshot(userCount, postCount, edgeCount, generation, stringBytes, sections);
+		}
+	}
+
+	// Returns the number of users
+	public int userCount() {
+		return userCount;
+	}
+
+	// Returns the number of posts
+	public int postCount() {
+		return postCount;
+	}
+
+	// Returns the number of directed friend edges
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	// Returns the operation log generation this snapshot was written for
+	public long generation() {
+		return generation;
+	}
+
+	// Basic getters for user columns
+	public String userID(int user) { return string(sections[USER_IDS].get(user)); }
+	public String userName(int user) { return string(sections[USER_NAMES].get(user)); }
+	public int userAge(int user) { return sections[USER_AGES].get(user); }
+
+	// Finds the number of the user with the given ID through the stored hash table, or -1
+	public int findUser(String userID) {
+		return findUser(userID, null);
+	}
+
+	// Finds the first user with the given ID that is not in skipped, or -1
+	int findUser(String userID, BitSet skipped) {
+		IntBuffer table = sections[USER_HASH];
+		int mask = table.limit() - 1;
+		if (userID == null || mask < 0) {
+			return -1;
+		}
+		byte[] key = userID.getBytes(StandardCharsets.UTF_8);
+		for (int slot = mix(userID.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+			int user = table.get(slot);
+			if (user < 0) {
+				return -1;
+			}
+			if ((skipped == null || !skipped.get(user)) && stringEquals(sections[USER_IDS].get(user), key)) {
+				return user;
+			}
+		}
+	}
+
+	// Returns how many friends a user has
+	public int friendCount(int user) {
+		IntBuffer offsets = sections[FRIEND_OFFSETS];
+		return offsets.get(user + 1) - offsets.get(user);
+	}
+
+	// Returns the number of the k-th friend of a user
+	public int friend(int user, int k) {
+		return sections[FRIEND_TARGETS].get(sections[FRIEND_OFFSETS].get(user) + k);
+	}
+
+	// Basic getters for post columns
+	public String postID(int post) { return string(sections[POST_IDS].get(post)); }
+	public int postCreator(int post) { return sections[POST_CREATORS].get(post); }
+	public String postContent(int post) { return string(sections[POST_CONTENTS].get(post)); }
+	public int postEpochDay(int post) { return sections[POST_DAYS].get(post); }
+
+	// Returns the creation date of a post as a Calendar, or null if it has none
+	public Calendar postDate(int post) {
+		return toCalendar(postEpochDay(post));
+	}
+
+	// Returns how many users a post is shared with
+	public int audienceSize(int post) {
+		IntBuffer offsets = sections[AUDIENCE_OFFSETS];
+		return offsets.get(post + 1) - offsets.get(post);
+	}
+
+	// Returns the number of the k-th user a post is shared with
+	public int audienceMember(int post, int k) {
+		return sections[AUDIENCE_TARGETS].get(sections[AUDIENCE_OFFSETS].get(post) + k);
+	}
+
+	// Builds user and post objects from the snapshot and adds them to the given lists
+	public void loadInto(CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts) {
+		UserManager[] loaded = new UserManager[userCount];
+		for (int user = 0; user < userCount; user++) {
+			loaded[user] = new UserManager(userID(user), userName(user), userAge(user));
+			users.add(loaded[user]);
+		}
+		UserRegistry registry = UserRegistry.indexOf(users);
+		for (int user = 0; user < userCount; user++) {
+			for (int k = 0; k < friendCount(user); k++) {
+				registry.addFriendEdge(loaded[user], loaded[friend(user, k)]);
+			}
+		}
+		registry.finishBulkLoad();
+		if (posts == null) {
+			return;
+		}
+		for (int post = 0; post < postCount; post++) {
+			int creator = postCreator(post);
+			PostManager loadedPost = new PostManager(postID(post), creator < 0 ? null : loaded[creator], postContent(post), postDate(post));
+			for (int k = 0; k < audienceSize(post); k++) {
+				loadedPost.shareWith(loaded[audienceMember(post, k)]);
+			}
+			posts.add(loadedPost);
+		}
+	}
+
+	// Writes users, their friendships and posts to a snapshot file
+	public static void write(String filePath, CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts) throws IOException {
+		write(filePath, users, posts, 0);
+	}
+
+	// Writes a snapshot that replaces the given operation log generation
+	public static void write(String filePath, CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts, long generation) throws IOException {
+		// number the users in list order
+		ArrayList<UserManager> userList = new ArrayList<>();
+		IdentityHashMap<UserManager, Integer> numbers = new IdentityHashMap<>();
+		for (UserManager user : users) {
+			// lists may hold null entries, skip them
+			if (user != null && !numbers.containsKey(user)) {
+				numbers.put(user, userList.size());
+				userList.add(user);
+			}
+		}
+		Builder builder = new Builder();
+		for (UserManager user : userList) {
+			builder.addUser(user.getUserID(), user.getName(), user.getAge());
+			if (user.getFriendCount() > 0) {
+				for (UserManager friend : user.friends()) {
+					Integer target = friend == null ? null : numbers.get(friend);
+					if (target != null) {
+						builder.addFriend(target);
+					}
+				}
+			}
+		}
+
+		// skipping audience members that are not in the user list
+		for (PostManager post : posts == null ? new ArrayList<PostManager>() : posts) {
+			if (post == null) {
+				continue;
+			}
+			Integer creator = post.getCreator() == null ? null : numbers.get(post.getCreator());
+			builder.addPost(post.getPostID(), creator == null ? -1 : creator, post.getContent(), epochDay(post.getCreationDate()));
+			for (UserManager member : post.getSharedUsers()) {
+				Integer target = numbers.get(member);
+				if (target != null) {
+					builder.addAudienceMember(target);
+				}
+			}
+		}
+		builder.write(filePath, generation);
+	}
+
+	// Collects the columns of a snapshot and writes them out. Users and posts are numbered in
+	// the order they are added, and the friends and audience members added go to the user or
+	// post added last.
+	static final class Builder {
+		private final StringTable strings = new StringTable();
+		private final IntList userIDs = new IntList();
+		private final IntList userNames = new IntList();
+		private final IntList userAges = new IntList();
+		// hash code of each user's ID, for the lookup table
+		private final IntList userHashes = new IntList();
+		private final IntList friendOffsets = new IntList();
+		private final IntList friendTargets = new IntList();
+		private final IntList postIDs = new IntList();
+		private final IntList postCreators = new IntList();
+		private final IntList postContents = new IntList();
+		private final IntList postDays = new IntList();
+		private final IntList audienceOffsets = new IntList();
+		private final IntList audienceTargets = new IntList();
+
+		Builder() {
+			friendOffsets.add(0);
+			audienceOffsets.add(0);
+		}
+
+		// Adds a user, returns its number
+		int addUser(String userID, String name, int age) {
+			if (userIDs.size() > 0) {
+				friendOffsets.add(friendTargets.size());
+			}
+			userIDs.add(strings.add(userID));
+			userNames.add(strings.add(name));
+			userAges.add(age);
+			userHashes.add(userID == null ? 0 : userID.hashCode());
+			return userIDs.size() - 1;
+		}
+
+		// Adds a friend to the user added last
+		void addFriend(int user) {
+			friendTargets.add(user);
+		}
+
+		// Adds a post, creator is a user number or -1
+		void addPost(String postID, int creator, String content, int epochDay) {
+			if (postIDs.size() > 0) {
+				audienceOffsets.add(audienceTargets.size());
+			}
+			postIDs.add(strings.add(postID));
+			postCreators.add(creator);
+			postContents.add(strings.add(content));
+			postDays.add(epochDay);
+		}
+
+		// Shares the post added last with a user
+		void addAudienceMember(int user) {
+			audienceTargets.add(user);
+		}
+
+		// Writes the snapshot, for the given operation log generation
+		void write(String filePath, long generation) throws IOException {
+			int userCount = userIDs.size();
+			int postCount = postIDs.size();
+			if (userCount > 0) {
+				friendOffsets.add(friendTargets.size());
+			}
+			if (postCount > 0) {
+				audienceOffsets.add(audienceTargets.size());
+			}
+			int[] userHash = buildHash(userIDs, userHashes);
+
+			long[] lengths = new long[SECTION_COUNT];
+			lengths[STRING_OFFSETS] = 4L * (strings.count() + 1);
+			lengths[STRING_BYTES] = strings.byteCount();
+			lengths[USER_IDS] = 4L * userCount;
+			lengths[USER_NAMES] = 4L * userCount;
+			lengths[USER_AGES] = 4L * userCount;
+			lengths[USER_HASH] = 4L * userHash.length;
+			lengths[FRIEND_OFFSETS] = 4L * friendOffsets.size();
+			lengths[FRIEND_TARGETS] = 4L * friendTargets.size();
+			lengths[POST_IDS] = 4L * postCount;
+			lengths[POST_CREATORS] = 4L * postCount;
+			lengths[POST_CONTENTS] = 4L * postCount;
+			lengths[POST_DAYS] = 4L * postCount;
+			lengths[AUDIENCE_OFFSETS] = 4L * audienceOffsets.size();
+			lengths[AUDIENCE_TARGETS] = 4L * audienceTargets.size();
+			long[] offsets = new long[SECTION_COUNT];
+			long position = HEADER_SIZE;
+			for (int section = 0; section < SECTION_COUNT; section++) {
+				offsets[section] = position;
+				// keep every section 4 byte aligned
+				position += (lengths[section] + 3) & ~3L;
+			}
+
+			// written to a temp file with block checksums and renamed over the old snapshot once complete
+			try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 20));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(userCount);
+				out.writeInt(postCount);
+				out.writeInt(friendTargets.size());
+				out.writeLong(generation);
+				pad(out, 32 - 28);
+				for (int section = 0; section < SECTION_COUNT; section++) {
+					out.writeLong(offsets[section]);
+					out.writeLong(lengths[section]);
+				}
+				pad(out, HEADER_SIZE - 32 - SECTION_COUNT * 16);
+				strings.writeOffsets(out);
+				strings.writeBytes(out);
+				pad(out, (int) (-lengths[STRING_BYTES] & 3));
+				userIDs.writeTo(out);
+				userNames.writeTo(out);
+				userAges.writeTo(out);
+				writeInts(out, userHash, userHash.length);
+				friendOffsets.writeTo(out);
+				friendTargets.writeTo(out);
+				postIDs.writeTo(out);
+				postCreators.writeTo(out);
+				postContents.writeTo(out);
+				postDays.writeTo(out);
+				audienceOffsets.writeTo(out);
+				audienceTargets.writeTo(out);
+				out.flush();
+				file.commit();
+			}
+		}
+	}
+
+	// Converts the users, friendships and posts text files into a snapshot, skipping missing parts
+	public static void convert(String usersFile, String friendshipsFile, String postsFile, String snapshotFile) throws IOException {
+		FileManager fileManager = new FileManager();
+		CircularDoublyLinkedList<UserManager> users = fileManager.loadUsers(usersFile);
+		if (friendshipsFile != null) {
+			FileManager.loadFriendships(friendshipsFile, users);
+		}
+		CircularDoublyLinkedList<PostManager> posts = postsFile != null ? fileManager.loadPosts(postsFile, users) : new PostRegistry();
+		write(snapshotFile, users, posts);
+	}
+
+	// Command line converter: users.txt friendships.txt posts.txt output.snap
+	public static void main(String[] args) throws IOException {
+		if (args.length != 4) {
+			System.err.println("Usage: BinarySnapshot <users file> <friendships file|-> <posts file|-> <snapshot file>");
+			System.exit(1);
+		}
+		convert(args[0], "-".equals(args[1]) ? null : args[1], "-".equals(args[2]) ? null : args[2], args[3]);
+	}
+
+	// decodes a string from the table, -1 stands for null
+	private String string(int index) {
+		if (index < 0) {
+			return null;
+		}
+		IntBuffer offsets = sections[STRING_OFFSETS];
+		int start = offsets.get(index);
+		byte[] bytes = new byte[offsets.get(index + 1) - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = stringBytes.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// compares a string in the table with encoded bytes without decoding it
+	private boolean stringEquals(int index, byte[] key) {
+		if (index < 0) {
+			return false;
+		}
+		IntBuffer offsets = sections[STRING_OFFSETS];
+		int start = offsets.get(index);
+		if (offsets.get(index + 1) - start != key.length) {
+			return false;
+		}
+		for (int i = 0; i < key.length; i++) {
+			if (stringBytes.get(start + i) != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// open addressing table of user numbers by ID hash, at most half full, -1 marks an empty slot;
+	// users whose ID string is -1 (null) are left out
+	private static int[] buildHash(IntList userIDs, IntList userHashes) {
+		int capacity = Integer.highestOneBit(Math.max(2, userIDs.size()) * 2 - 1) << 1;
+		int[] table = new int[capacity];
+		Arrays.fill(table, -1);
+		int mask = capacity - 1;
+		for (int user = 0; user < userIDs.size(); user++) {
+			if (userIDs.get(user) < 0) {
+				continue;
+			}
+			int slot = mix(userHashes.get(user)) & mask;
+			while (table[slot] >= 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = user;
+		}
+		return table;
+	}
+
+	// spreads String hash codes so linear probing does not cluster
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	// Converts a date to days since 1970-01-01, ignoring the time of day
+	static int epochDay(Calendar date) {
+		if (date == null) {
+			return NO_DATE;
+		}
+		return (int) LocalDate.of(date.get(Calendar.YEAR), date.get(Calendar.MONTH) + 1, date.get(Calendar.DAY_OF_MONTH)).toEpochDay();
+	}
+
+	// Converts days since 1970-01-01 back to a date at the current time of day, like the text loader
+	static Calendar toCalendar(int epochDay) {
+		if (epochDay == NO_DATE) {
+			return null;
+		}
+		LocalDate date = LocalDate.ofEpochDay(epochDay);
+		Calendar calendar = Calendar.getInstance();
+		calendar.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+		return calendar;
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			out.writeInt(values[i]);
+		}
+	}
+
+	private static void pad(DataOutputStream out, int bytes) throws IOException {
+		for (int i = 0; i < bytes; i++) {
+			out.writeByte(0);
+		}
+	}
+
+	// growable int array used while collecting columns
+	private static class IntList {
+		private int[] values = new int[16];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int get(int index) {
+			return values[index];
+		}
+
+		void writeTo(DataOutputStream out) throws IOException {
+			writeInts(out, values, size);
+		}
+	}
+
+	// strings collected for the table, stored encoded
+	private static class StringTable {
+		private ArrayList<byte[]> encoded = new ArrayList<>();
+		private long byteCount;
+
+		// adds a string and returns its index, or -1 for null
+		int add(String value) {
+			if (value == null) {
+				return -1;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			encoded.add(bytes);
+			byteCount += bytes.length;
+			return encoded.size() - 1;
+		}
+
+		int count() {
+			return encoded.size();
+		}
+
+		long byteCount() {
+			return byteCount;
+		}
+
+		void writeOffsets(DataOutputStream out) throws IOException {
+			if (byteCount > Integer.MAX_VALUE) {
+				throw new IOException("String table is larger than 2 GB");
+			}
+			int offset = 0;
+			out.writeInt(0);
+			for (byte[] bytes : encoded) {
+				offset += bytes.length;
+				out.writeInt(offset);
+			}
+		}
+
+		void writeBytes(DataOutputStream out) throws IOException {
+			for (byte[] bytes : encoded) {
+				out.write(bytes);
+			}
+		}
+	}
+}
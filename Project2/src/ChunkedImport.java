@@ -0,0 +1,186 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Parses a text export on worker threads and hands the rows back in file order as they are parsed.
+// Large files are cut into line aligned byte ranges, each range is parsed by a worker with its own
+// RecordReader, and the rows come back in batches, range after range, so taking them one after the
+// other gives the same result as reading the file from top to bottom.
+//
+// A worker stops once a few of its batches wait to be taken, so however large the file only
+// those batches are held in memory, and rows can be added to the lists while the rest of the
+// file is still being read.
+public class ChunkedImport {
+	// Files smaller than this are parsed as a single range
+	public static final long MIN_PARALLEL_BYTES = 8L << 20;
+	// Ranges per thread, more than one so a slow range does not hold up the others
+	private static final int RANGES_PER_THREAD = 4;
+	// Rows handed over at a time
+	private static final int BATCH_ROWS = 4096;
+	// Batches a range may have parsed ahead of the rows being taken
+	private static final int QUEUED_BATCHES = 4;
+	// Put after a range's last batch
+	private static final Object END = new Object();
+
+	// Turns the current record of a reader into a row, or null to skip the record.
+	// Runs on the worker threads.
+	public interface RowParser<R> {
+		R parse(RecordReader reader) throws IOException;
+	}
+
+	// Default worker count for imports
+	public static int defaultThreads() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	// Checks if a file is big enough to be worth splitting across threads
+	public static boolean worthSplitting(String filePath, int threads) {
+		return threads > 1 && new File(filePath).length() >= MIN_PARALLEL_BYTES;
+	}
+
+	// Starts parsing the file on worker threads, every reader reporting to the given progress,
+	// which may be null. If the import is cancelled the rows stop with a CancellationException.
+	public static <R> RowFeed<R> start(String filePath, int threads, RowParser<R> parser, ImportProgress progress) throws IOException {
+		long size = new File(filePath).length();
+		if (progress != null) {
+			progress.addTotalBytes(size);
+		}
+		long[] bounds = worthSplitting(filePath, threads)
+				? RecordReader.splitLines(filePath, Math.max(1, threads) * RANGES_PER_THREAD)
+				: new long[] {0, size};
+		int ranges = bounds.length - 1;
+		ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, ranges)), runnable -> {
+			Thread thread = new Thread(runnable, "import-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ArrayList<BlockingQueue<Object>> queues = new ArrayList<>(ranges);
+		for (int i = 0; i < ranges; i++) {
+			BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES + 1);
+			queues.add(queue);
+			long start = bounds[i];
+			long end = bounds[i + 1];
+			workers.execute(() -> parseRange(filePath, start, end, parser, progress, queue));
+		}
+		workers.shutdown();
+		return new RowFeed<>(queues, workers);
+	}
+
+	// parses one range into batches, then puts the end marker or what went wrong
+	private static <R> void parseRange(String filePath, long start, long end, RowParser<R> parser,
+			ImportProgress progress, BlockingQueue<Object> queue) {
+		try {
+			Object last = END;
+			try (RecordReader reader = new RecordReader(filePath, start, end)) {
+				reader.setProgress(progress);
+				ArrayList<R> batch = new ArrayList<>(BATCH_ROWS);
+				while (reader.nextRecord()) {
+					R row = parser.parse(reader);
+					if (row != null) {
+						batch.add(row);
+						if (batch.size() == BATCH_ROWS) {
+							queue.put(batch);
+							batch = new ArrayList<>(BATCH_ROWS);
+						}
+					}
+				}
+				if (!batch.isEmpty()) {
+					queue.put(batch);
+				}
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Throwable e) {
+				last = e;
+			}
+			queue.put(last);
+		} catch (InterruptedException e) {
+			// the feed was closed, nobody takes the rows any more
+		}
+	}
+
+	// Rows of a file being parsed, handed out in file order
+	public static final class RowFeed<R> {
+		private final ArrayList<BlockingQueue<Object>> queues;
+		private final ExecutorService workers;
+		// Range the next batch comes from
+		private int range;
+
+		private RowFeed(ArrayList<BlockingQueue<Object>> queues, ExecutorService workers) {
+			this.queues = queues;
+			this.workers = workers;
+		}
+
+		// Returns the next batch of rows without waiting, or null if it is not parsed yet or there is none left
+		public ArrayList<R> poll() throws IOException {
+			return next(false);
+		}
+
+		// Waits for the next batch of rows, returns null once there is none left
+		public ArrayList<R> take() throws IOException {
+			return next(true);
+		}
+
+		// Checks if every row has been handed out
+		public boolean isDone() {
+			return range == queues.size();
+		}
+
+		// Stops the workers, the rows not handed out yet are dropped
+		public void close() {
+			workers.shutdownNow();
+			range = queues.size();
+		}
+
+		@SuppressWarnings("unchecked")
+		private ArrayList<R> next(boolean wait) throws IOException {
+			while (range < queues.size()) {
+				Object item;
+				try {
+					item = wait ? queues.get(range).take() : queues.get(range).poll();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					close();
+					throw new IOException("Import was interrupted", e);
+				}
+				if (item == null) {
+					return null;
+				}
+				if (item == END) {
+					// drop the finished range's queue so its memory can be collected
+					queues.set(range, null);
+					range++;
+				} else if (item instanceof Throwable) {
+					close();
+					throw rethrow((Throwable) item);
+				} else {
+					return (ArrayList<R>) item;
+				}
+			}
+			return null;
+		}
+
+		// rethrows what a worker threw, wrapping checked exceptions other than IOException
+		private static IOException rethrow(Throwable cause) {
+			if (cause instanceof IOException) {
+				return (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new UncheckedIOException(new IOException(cause));
+		}
+	}
+}
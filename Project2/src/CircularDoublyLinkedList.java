@@ -5,16 +5,35 @@
 
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // Implements a generic circular doubly linked list data structure
 public class CircularDoublyLinkedList<T> implements Iterable<T> {
-	// Inner class for Node implementation
-	public class Node<T> {
+	// Node of the list, also handed out as a handle to an element so it can be
+	// removed or moved later without searching for it
+	public static class Node<T> {
 		T data;
 		Node<T> next;
 		Node<T> previous;
+		// List the node is linked into, null once it has been removed
+		CircularDoublyLinkedList<T> list;
+		// Other nodes the index files under the same key, as a ring in the order they were
+		// added; null while the node is the only one
+		Node<T> nextCopy;
+		Node<T> previousCopy;
 
 		// Creates a new node with the given data
 		public Node(T data) {
@@ -22,12 +41,32 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 			this.next = null;
 			this.previous = null;
 		}
+
+		// Returns the element held by this node
+		public T getData() {
+			return data;
+		}
+
+		// Checks if the node is still in a list
+		public boolean isLinked() {
+			return list != null;
+		}
 	}
 
 	// Reference to the dummy node that marks the start/end of the list
 	private Node<T> dummy;
 	// Current size of the list
 	private int size;
+	// Optional index from each element to the first node holding it, null until enabled.
+	// Further nodes holding the same element hang off that node, see Node.nextCopy.
+	private Map<T, Node<T>> nodeIndex;
+	// Bumped by every change to the contents or order of the list
+	private int version;
+	// Latest snapshot, null until one is asked for. Volatile since report threads may ask for
+	// it too while nobody edits the list.
+	private volatile ListSnapshot<T> snapshot;
+	// Elements added at the end since the latest snapshot, or -1 after any other change
+	private int appendedSinceSnapshot;
 
 	// Creates an empty circular doubly linked list
 	public CircularDoublyLinkedList() {
@@ -42,49 +81,270 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 		insertLast(data);
 	}
 
-	// Inserts a new element at the beginning of the list
-	public void insertFirst(T data) {
-		Node<T> newNode = new Node<>(data);
-		newNode.next = dummy.next;
-		newNode.previous = dummy;
-		dummy.next.previous = newNode;
-		dummy.next = newNode;
-		size++;
+	// Inserts a new element at the beginning of the list and returns its node
+	public Node<T> insertFirst(T data) {
+		return linkBefore(dummy.next, data);
 	}
 
-	// Inserts a new element at the end of the list
-	public void insertLast(T data) {
-		Node<T> newNode = new Node<>(data);
-		newNode.next = dummy;
-		newNode.previous = dummy.previous;
-		dummy.previous.next = newNode;
-		dummy.previous = newNode;
-		size++;
+	// Inserts a new element at the end of the list and returns its node
+	public Node<T> insertLast(T data) {
+		return linkBefore(dummy, data);
 	}
 
-	// Inserts a new element at the specified position
-	public void insertMiddle(T data, int position) {
+	// Inserts a new element at the specified position and returns its node
+	public Node<T> insertMiddle(T data, int position) {
 		if (position < 0 || position > size) {
 			throw new IndexOutOfBoundsException("Invalid position");
 		}
-		if (position == 0) {
-			insertFirst(data);
-		} else if (position == size) {
-			insertLast(data);
+		return linkBefore(position == size ? dummy : seek(position), data);
+	}
+
+	// Inserts a new element in front of the given node and returns its node
+	public Node<T> insertBefore(Node<T> successor, T data) {
+		checkOwner(successor);
+		return linkBefore(successor, data);
+	}
+
+	// Inserts a new element after the given node and returns its node
+	public Node<T> insertAfter(Node<T> predecessor, T data) {
+		checkOwner(predecessor);
+		return linkBefore(predecessor.next, data);
+	}
+
+	// Removes the element held by a node without searching for it
+	public void remove(Node<T> node) {
+		checkOwner(node);
+		unlink(node);
+	}
+
+	// Moves a node to the beginning of the list
+	public void moveToFront(Node<T> node) {
+		checkOwner(node);
+		relinkBefore(node, dummy.next);
+	}
+
+	// Moves a node to the end of the list
+	public void moveToBack(Node<T> node) {
+		checkOwner(node);
+		relinkBefore(node, dummy);
+	}
+
+	// Moves a node in front of another node of the same list
+	public void moveBefore(Node<T> node, Node<T> successor) {
+		checkOwner(node);
+		checkOwner(successor);
+		relinkBefore(node, successor);
+	}
+
+	// Returns the element at a position
+	public T get(int position) {
+		return nodeAt(position).data;
+	}
+
+	// Returns the node at a position, walking from whichever end is nearer
+	public Node<T> nodeAt(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Invalid position");
+		}
+		return seek(position);
+	}
+
+	// Returns a node holding the element, or null if it is not in the list
+	public Node<T> findNode(T data) {
+		if (nodeIndex != null) {
+			Node<T> node = nodeIndex.get(data);
+			// an identity index only knows the exact objects, equal copies still need a scan
+			if (node != null || !(nodeIndex instanceof IdentityHashMap)) {
+				return node;
+			}
+		}
+		return scan(data);
+	}
+
+	// Keeps a hash map from each element to its node, so contains, delete and findNode
+	// take constant time. Elements must not change their hashCode while in the list.
+	public void enableIndex() {
+		enableIndex(false);
+	}
+
+	// Builds the node index, keyed by identity instead of equals when asked to
+	protected void enableIndex(boolean byIdentity) {
+		nodeIndex = byIdentity ? new IdentityHashMap<>() : new HashMap<>();
+		reindex();
+	}
+
+	// Returns the node indexed for exactly this element, or null if there is none
+	protected Node<T> indexedNode(T data) {
+		return nodeIndex == null ? null : nodeIndex.get(data);
+	}
+
+	// Links a new node holding the data in front of the given node
+	private Node<T> linkBefore(Node<T> successor, T data) {
+		Node<T> newNode = new Node<>(data);
+		newNode.next = successor;
+		newNode.previous = successor.previous;
+		successor.previous.next = newNode;
+		successor.previous = newNode;
+		newNode.list = this;
+		size++;
+		version++;
+		if (successor == dummy && appendedSinceSnapshot >= 0) {
+			appendedSinceSnapshot++;
 		} else {
-			Node<T> current = dummy.next;
+			appendedSinceSnapshot = -1;
+		}
+		if (nodeIndex != null) {
+			index(newNode);
+		}
+		linked(newNode);
+		return newNode;
+	}
+
+	// Unlinks the given node from the list
+	protected void unlink(Node<T> node) {
+		node.previous.next = node.next;
+		node.next.previous = node.previous;
+		node.list = null;
+		size--;
+		version++;
+		appendedSinceSnapshot = -1;
+		if (nodeIndex != null) {
+			unindex(node);
+		}
+		unlinked(node);
+	}
+
+	// moves a linked node in front of another, the element stays in the list so no hooks run
+	private void relinkBefore(Node<T> node, Node<T> successor) {
+		if (node == successor || node.next == successor) {
+			return;
+		}
+		version++;
+		appendedSinceSnapshot = -1;
+		node.previous.next = node.next;
+		node.next.previous = node.previous;
+		node.next = successor;
+		node.previous = successor.previous;
+		successor.previous.next = node;
+		successor.previous = node;
+	}
+
+	// finds the first node holding an element equal to the given one
+	private Node<T> scan(T data) {
+		Node<T> current = dummy.next;
+		while (current != dummy) {
+			if (current.data.equals(data)) {
+				return current;
+			}
+			current = current.next;
+		}
+		return null;
+	}
+
+	// walks to a position from the head or the tail, whichever is closer
+	private Node<T> seek(int position) {
+		Node<T> current;
+		if (position < size / 2) {
+			current = dummy.next;
 			for (int i = 0; i < position; i++) {
 				current = current.next;
 			}
-			Node<T> newNode = new Node<>(data);
-			newNode.next = current;
-			newNode.previous = current.previous;
-			current.previous.next = newNode;
-			current.previous = newNode;
-			size++;
+		} else {
+			current = dummy.previous;
+			for (int i = size - 1; i > position; i--) {
+				current = current.previous;
+			}
+		}
+		return current;
+	}
+
+	// rejects handles that belong to another list or were already removed
+	private void checkOwner(Node<T> node) {
+		if (node == null || node.list != this) {
+			throw new IllegalArgumentException("Node is not in this list");
+		}
+	}
+
+	// rebuilds the node index after elements were moved between nodes
+	private void reindex() {
+		if (nodeIndex == null) {
+			return;
+		}
+		nodeIndex.clear();
+		Node<T> current = dummy.next;
+		while (current != dummy) {
+			current.nextCopy = null;
+			current.previousCopy = null;
+			index(current);
+			current = current.next;
 		}
 	}
 
+	// files a node under its element, after any nodes already holding it
+	private void index(Node<T> node) {
+		Node<T> first = nodeIndex.putIfAbsent(node.data, node);
+		if (first == null) {
+			return;
+		}
+		Node<T> last = first.previousCopy == null ? first : first.previousCopy;
+		node.previousCopy = last;
+		node.nextCopy = first;
+		last.nextCopy = node;
+		first.previousCopy = node;
+	}
+
+	// takes a node out of the index, handing its key to the next node holding the element
+	private void unindex(Node<T> node) {
+		Node<T> next = node.nextCopy;
+		if (nodeIndex.get(node.data) == node) {
+			nodeIndex.remove(node.data);
+			if (next != null) {
+				nodeIndex.put(next.data, next);
+			}
+		}
+		if (next != null) {
+			Node<T> previous = node.previousCopy;
+			if (next == previous) {
+				// one node is left, it is on its own again
+				next.nextCopy = null;
+				next.previousCopy = null;
+			} else {
+				previous.nextCopy = next;
+				next.previousCopy = previous;
+			}
+			node.nextCopy = null;
+			node.previousCopy = null;
+		}
+	}
+
+	// Returns the first node, or null if the list is empty
+	public Node<T> firstNode() {
+		return dummy.next == dummy ? null : dummy.next;
+	}
+
+	// Returns the last node, or null if the list is empty
+	public Node<T> lastNode() {
+		return dummy.previous == dummy ? null : dummy.previous;
+	}
+
+	// Returns the node after the given one, or null at the end of the list
+	public Node<T> nextNode(Node<T> node) {
+		return node.next == dummy ? null : node.next;
+	}
+
+	// Returns the node before the given one, or null at the start of the list
+	public Node<T> previousNode(Node<T> node) {
+		return node.previous == dummy ? null : node.previous;
+	}
+
+	// Called after a node is linked into the list, subclasses use it to keep indexes in sync
+	protected void linked(Node<T> node) {
+	}
+
+	// Called after a node is unlinked from the list
+	protected void unlinked(Node<T> node) {
+	}
+
 	// Returns the current size of the list
 	public int size() {
 		return size;
@@ -100,41 +360,24 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 		System.out.println();
 	}
 
-	// Deletes the first occurrence of the specified element
+	// Deletes an occurrence of the specified element, the first one unless the list is indexed
 	public void delete(T data) {
-		Node<T> current = dummy.next;
-		while (current != dummy) {
-			if (current.data.equals(data)) {
-				current.previous.next = current.next;
-				current.next.previous = current.previous;
-				size--;
-				return;
-			}
-			current = current.next;
+		Node<T> node = findNode(data);
+		if (node != null) {
+			unlink(node);
 		}
 	}
 
 	// Displays the contents of the list in sorted order
 	public void displaySorted() {
 		CircularDoublyLinkedList<T> sortedList = new CircularDoublyLinkedList<>();
-		Node<T> current = dummy.next;
-		while (current != dummy) {
-			sortedList.insertSorted(current.data);
-			current = current.next;
-		}
+		sortedList.addAllSorted(this);
 		sortedList.display();
 	}
 
 	// Checks if the list contains the specified element
 	public boolean contains(T data) {
-		Node<T> current = dummy.next;
-		while (current != dummy) {
-			if (current.data.equals(data)) {
-				return true;
-			}
-			current = current.next;
-		}
-		return false;
+		return findNode(data) != null;
 	}
 
 	// Checks if the list is empty
@@ -144,9 +387,68 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 
 	// Removes all elements from the list
 	public void clear() {
+		Node<T> current = dummy.next;
+		while (current != dummy) {
+			current.list = null;
+			current = current.next;
+		}
 		dummy.next = dummy;
 		dummy.previous = dummy;
 		size = 0;
+		version++;
+		appendedSinceSnapshot = -1;
+		if (nodeIndex != null) {
+			nodeIndex.clear();
+		}
+	}
+
+	// Returns the version of the list, which changes whenever its contents or order change
+	public int version() {
+		return version;
+	}
+
+	// Returns an immutable copy of the list as it is now.
+	// The copy is made on the first call after a change and shared by later calls until the
+	// next change, so reports that start while nothing is being edited all share one copy. If the
+	// list only grew at the end since the last copy, the new copy shares the last one's array and
+	// only the added elements are copied; any other change copies the whole list again.
+	// Take it on the thread that edits the list, it can then be read anywhere. While nobody edits
+	// the list, other threads may take it too.
+	public ListSnapshot<T> snapshot() {
+		ListSnapshot<T> last = snapshot;
+		if (last != null && last.version() == version) {
+			return last;
+		}
+		return takeSnapshot();
+	}
+
+	// copies the list, once even when several report threads ask at the same time
+	private synchronized ListSnapshot<T> takeSnapshot() {
+		ListSnapshot<T> last = snapshot;
+		if (last != null && last.version() == version) {
+			return last;
+		}
+		ListSnapshot<T> next;
+		if (last != null && appendedSinceSnapshot >= 0 && last.size() + appendedSinceSnapshot == size) {
+			Object[] added = new Object[appendedSinceSnapshot];
+			Node<T> current = dummy.previous;
+			for (int i = added.length - 1; i >= 0; i--) {
+				added[i] = current.data;
+				current = current.previous;
+			}
+			next = last.extend(added, version);
+		} else {
+			Object[] elements = new Object[size];
+			Node<T> current = dummy.next;
+			for (int i = 0; i < size; i++) {
+				elements[i] = current.data;
+				current = current.next;
+			}
+			next = new ListSnapshot<>(elements, version);
+		}
+		appendedSinceSnapshot = 0;
+		snapshot = next;
+		return next;
 	}
 
 	// Returns an iterator for the list
@@ -155,31 +457,162 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 		return new CircularDoublyLinkedListIterator(dummy);
 	}
 
-	// helps go through list
+	// Returns a sized spliterator over the list that splits into balanced halves
+	@Override
+	public Spliterator<T> spliterator() {
+		return new NodeSpliterator(dummy.next, size);
+	}
+
+	// Returns a sequential stream over the list
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	// Returns a parallel stream over the list, split across the fork-join pool
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	// Walks the nodes directly while used sequentially. The first split copies the remaining
+	// elements into an array once, so the halves and every later split are exact and O(1).
+	private final class NodeSpliterator implements Spliterator<T> {
+		private Node<T> current;
+		private int remaining;
+		private int expectedVersion;
+		// Array snapshot taken by the first split, null until then
+		private Spliterator<T> snapshot;
+
+		NodeSpliterator(Node<T> first, int remaining) {
+			this.current = first;
+			this.remaining = remaining;
+			this.expectedVersion = version;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (snapshot != null) {
+				return snapshot.tryAdvance(action);
+			}
+			if (remaining <= 0) {
+				return false;
+			}
+			checkVersion(expectedVersion);
+			T data = current.data;
+			current = current.next;
+			remaining--;
+			action.accept(data);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			if (snapshot != null) {
+				snapshot.forEachRemaining(action);
+				return;
+			}
+			for (; remaining > 0; remaining--) {
+				checkVersion(expectedVersion);
+				T data = current.data;
+				current = current.next;
+				action.accept(data);
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			if (snapshot == null) {
+				if (remaining < 2) {
+					return null;
+				}
+				checkVersion(expectedVersion);
+				Object[] elements = new Object[remaining];
+				for (int i = 0; i < elements.length; i++) {
+					elements[i] = current.data;
+					current = current.next;
+				}
+				remaining = 0;
+				snapshot = Spliterators.spliterator(elements, characteristics());
+			}
+			return snapshot.trySplit();
+		}
+
+		@Override
+		public long estimateSize() {
+			return snapshot != null ? snapshot.estimateSize() : remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	// helps go through list, failing fast if the list is changed other than through remove()
 	private class CircularDoublyLinkedListIterator implements Iterator<T> {
 		private Node<T> current;
 		private Node<T> dummy;
-		private boolean firstPass = true;
+		// Node returned by the last call to next, null once it has been removed
+		private Node<T> lastReturned;
+		private int expectedVersion;
 
 		CircularDoublyLinkedListIterator(Node<T> dummy) {
 			this.dummy = dummy;
 			this.current = dummy.next;
+			this.expectedVersion = version;
 		}
 
 		@Override
 		public boolean hasNext() {
-			return current != dummy || firstPass;
+			return current != dummy;
 		}
 
 		@Override
 		public T next() {
-			if (!hasNext()) {
+			checkVersion(expectedVersion);
+			if (current == dummy) {
 				throw new NoSuchElementException();
 			}
-			T data = current.data;
+			lastReturned = current;
 			current = current.next;
-			firstPass = false;
-			return data;
+			return lastReturned.data;
+		}
+
+		// Removes the element last returned by next, running the same hooks as delete
+		@Override
+		public void remove() {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			checkVersion(expectedVersion);
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedVersion = version;
+		}
+	}
+
+	// Removes every element matching the filter in one pass, returns true if any was removed
+	public boolean removeIf(Predicate<? super T> filter) {
+		int removed = 0;
+		int expected = version;
+		Node<T> current = dummy.next;
+		while (current != dummy) {
+			Node<T> next = current.next;
+			boolean matches = filter.test(current.data);
+			checkVersion(expected);
+			if (matches) {
+				unlink(current);
+				removed++;
+				expected = version;
+			}
+			current = next;
+		}
+		return removed > 0;
+	}
+
+	// throws if the list changed since an iteration started
+	private void checkVersion(int expected) {
+		if (version != expected) {
+			throw new ConcurrentModificationException();
 		}
 	}
 
@@ -196,12 +629,7 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 			while (current != dummy) {
 				UserManager currentUser = (UserManager) current.data;
 				if (newUser.compareTo(currentUser) < 0) {
-					Node<T> newNode = new Node<>(data);
-					newNode.next = current;
-					newNode.previous = current.previous;
-					current.previous.next = newNode;
-					current.previous = newNode;
-					size++;
+					linkBefore(current, data);
 					return;
 				}
 				current = current.next;
@@ -210,12 +638,7 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 			Node<T> current = dummy.next;
 			while (current != dummy) {
 				if (((Comparable<T>) data).compareTo(current.data) < 0) {
-					Node<T> newNode = new Node<>(data);
-					newNode.next = current;
-					newNode.previous = current.previous;
-					current.previous.next = newNode;
-					current.previous = newNode;
-					size++;
+					linkBefore(current, data);
 					return;
 				}
 				current = current.next;
@@ -224,69 +647,130 @@ public class CircularDoublyLinkedList<T> implements Iterable<T> {
 		insertLast(data);
 	}
 
-	// compares two items
-	private int compare(T a, T b) {
-		if (a instanceof UserManager && b instanceof UserManager) {
-			UserManager userA = (UserManager) a;
-			UserManager userB = (UserManager) b;
-			return userA.getName().compareToIgnoreCase(userB.getName());
+	// Adds every item and keeps the list sorted in natural order, like insertSorted for each
+	// item but sorting the new items once instead of searching for each position
+	public void addAllSorted(Iterable<? extends T> items) {
+		addAllSorted(items, naturalOrder());
+	}
+
+	// Adds every item to a list that is already sorted by the comparator and keeps it sorted.
+	// The new items are sorted on their own and merged in with one pass over the list, and
+	// items equal to ones already in the list go after them.
+	public void addAllSorted(Iterable<? extends T> items, Comparator<? super T> order) {
+		Node<T> oldLast = dummy.previous;
+		int oldSize = size;
+		for (T item : items) {
+			insertLast(item);
+		}
+		int added = size - oldSize;
+		if (added == 0 || order == null) {
+			return;
 		}
-		return 0;
+		if (oldSize == 0) {
+			sort(order);
+			return;
+		}
+		// cut the list into the old sorted chain and the new items, both ending in null
+		Node<T> newItems = oldLast.next;
+		oldLast.next = null;
+		dummy.previous.next = null;
+		Node<T> sortedItems = sortChain(newItems, added, order);
+		Node<T> head = new Node<>(null);
+		merge(dummy.next, sortedItems, head, order);
+		relink(head.next);
 	}
 
-	// sorts list using bubble sort
+	// Sorts the list in natural order, leaving it unchanged if the elements are not Comparable
 	public void sort() {
-		if (dummy.next == dummy || size <= 1) {
+		Comparator<T> order = naturalOrder();
+		if (order != null) {
+			sort(order);
+		}
+	}
+
+	// Sorts the list with a stable O(n log n) merge sort. The nodes are copied into an array of
+	// n references, sorted there and relinked in the new order, so elements never move between
+	// nodes and node handles and indexes stay valid
+	public void sort(Comparator<? super T> order) {
+		if (size <= 1) {
 			return;
 		}
+		dummy.previous.next = null;
+		relink(sortChain(dummy.next, size, order));
+	}
 
-		boolean swapped;
-		Node<T> current;
-		Node<T> last = null;
+	// Sorts users by name, case sensitive; kept for older callers
+	public void bubbleSort() {
+		if (dummy.next.data instanceof UserManager) {
+			sort((a, b) -> {
+				String first = ((UserManager) a).getName();
+				String second = ((UserManager) b).getName();
+				return first == null || second == null ? Boolean.compare(first != null, second != null) : first.compareTo(second);
+			});
+		}
+	}
 
-		do {
-			swapped = false;
-			current = dummy.next;
+	// natural order of the elements, or null if they are not Comparable
+	@SuppressWarnings("unchecked")
+	private Comparator<T> naturalOrder() {
+		Node<T> current = dummy.next;
+		while (current != dummy && current.data == null) {
+			current = current.next;
+		}
+		if (current != dummy && !(current.data instanceof Comparable)) {
+			return null;
+		}
+		return (a, b) -> ((Comparable<T>) a).compareTo(b);
+	}
 
-			while (current.next != last) {
-				if (compare(current.data, current.next.data) > 0) {
-					T temp = current.data;
-					current.data = current.next.data;
-					current.next.data = temp;
-					swapped = true;
-				}
-				current = current.next;
-			}
-			last = current;
-		} while (swapped);
+	// sorts a null terminated chain of length nodes and returns its new head. The nodes are
+	// ranked in an array by Arrays.sort, a stable bottom-up merge sort over natural runs, which
+	// walks memory in order instead of chasing scattered next pointers on every merge pass.
+	private Node<T> sortChain(Node<T> chain, int length, Comparator<? super T> order) {
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Node<T>[] nodes = new Node[length];
+		for (int i = 0; i < length; i++) {
+			nodes[i] = chain;
+			chain = chain.next;
+		}
+		Arrays.sort(nodes, (a, b) -> order.compare(a.data, b.data));
+		for (int i = 0; i < length - 1; i++) {
+			nodes[i].next = nodes[i + 1];
+		}
+		nodes[length - 1].next = null;
+		return nodes[0];
 	}
 
-	// another way to sort list
-	public void bubbleSort() {
-		if (dummy.next == dummy || size <= 1) {
-			return;
+	// appends the merge of two sorted chains after tail, taking from left on ties, and returns the last node
+	private Node<T> merge(Node<T> left, Node<T> right, Node<T> tail, Comparator<? super T> order) {
+		while (left != null && right != null) {
+			if (order.compare(right.data, left.data) < 0) {
+				tail.next = right;
+				right = right.next;
+			} else {
+				tail.next = left;
+				left = left.next;
+			}
+			tail = tail.next;
 		}
+		tail.next = left != null ? left : right;
+		while (tail.next != null) {
+			tail = tail.next;
+		}
+		return tail;
+	}
 
-		boolean swapped;
-		do {
-			swapped = false;
-			Node<T> current = dummy.next;
-			Node<T> next = current.next;
-			
-			do {
-				if (current.data instanceof UserManager) {
-					UserManager user1 = (UserManager) current.data;
-					UserManager user2 = (UserManager) next.data;
-					if (user1.getName().compareTo(user2.getName()) > 0) {
-						T temp = current.data;
-						current.data = next.data;
-						next.data = temp;
-						swapped = true;
-					}
-				}
-				current = next;
-				next = next.next;
-			} while (next != dummy);
-		} while (swapped);
+	// makes a null terminated chain the contents of the list again, restoring the previous links
+	private void relink(Node<T> chain) {
+		version++;
+		appendedSinceSnapshot = -1;
+		Node<T> previous = dummy;
+		for (Node<T> current = chain; current != null; current = current.next) {
+			current.previous = previous;
+			previous.next = current;
+			previous = current;
+		}
+		previous.next = dummy;
+		dummy.previous = previous;
 	}
 }
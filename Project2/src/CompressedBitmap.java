@@ -0,0 +1,223 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Compressed set of non-negative ints in the style of a roaring bitmap.
+// Values are grouped by their high 16 bits; each group keeps its low 16 bits either in a
+// sorted char array (sparse groups) or in a 65536-bit bitmap (dense groups).
+public class CompressedBitmap {
+	// Groups larger than this switch from a sorted array to a bitmap
+	private static final int ARRAY_LIMIT = 4096;
+	private static final int BITMAP_WORDS = 1024;
+
+	// Sorted high 16 bit keys and the container for each key
+	private int[] keys;
+	private Object[] containers;
+	// Number of values held by each array container (bitmap containers track it too)
+	private int[] counts;
+	private int containerCount;
+	private int cardinality;
+
+	// Creates an empty bitmap
+	public CompressedBitmap() {
+		keys = new int[2];
+		containers = new Object[2];
+		counts = new int[2];
+	}
+
+	// Adds a value, returns false if it was already present
+	public boolean add(int value) {
+		int key = value >>> 16;
+		char low = (char) value;
+		int slot = findKey(key);
+		if (slot < 0) {
+			slot = -slot - 1;
+			insertContainer(slot, key, new char[4]);
+		}
+		Object container = containers[slot];
+		if (container instanceof char[]) {
+			char[] values = (char[]) container;
+			int count = counts[slot];
+			int position = Arrays.binarySearch(values, 0, count, low);
+			if (position >= 0) {
+				return false;
+			}
+			position = -position - 1;
+			if (count == ARRAY_LIMIT) {
+				long[] words = toBitmap(values, count);
+				words[low >>> 6] |= 1L << low;
+				containers[slot] = words;
+			} else {
+				if (count == values.length) {
+					values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, count * 2));
+					containers[slot] = values;
+				}
+				System.arraycopy(values, position, values, position + 1, count - position);
+				values[position] = low;
+			}
+		} else {
+			long[] words = (long[]) container;
+			long bit = 1L << low;
+			if ((words[low >>> 6] & bit) != 0) {
+				return false;
+			}
+			words[low >>> 6] |= bit;
+		}
+		counts[slot]++;
+		cardinality++;
+		return true;
+	}
+
+	// Removes a value, returns false if it was not present
+	public boolean remove(int value) {
+		int slot = findKey(value >>> 16);
+		if (slot < 0) {
+			return false;
+		}
+		char low = (char) value;
+		Object container = containers[slot];
+		if (container instanceof char[]) {
+			char[] values = (char[]) container;
+			int count = counts[slot];
+			int position = Arrays.binarySearch(values, 0, count, low);
+			if (position < 0) {
+				return false;
+			}
+			System.arraycopy(values, position + 1, values, position, count - position - 1);
+		} else {
+			long[] words = (long[]) container;
+			long bit = 1L << low;
+			if ((words[low >>> 6] & bit) == 0) {
+				return false;
+			}
+			words[low >>> 6] &= ~bit;
+			if (counts[slot] - 1 == ARRAY_LIMIT) {
+				containers[slot] = toArray(words, ARRAY_LIMIT);
+			}
+		}
+		counts[slot]--;
+		cardinality--;
+		if (counts[slot] == 0) {
+			removeContainer(slot);
+		}
+		return true;
+	}
+
+	// Checks if a value is present
+	public boolean contains(int value) {
+		int slot = findKey(value >>> 16);
+		if (slot < 0) {
+			return false;
+		}
+		char low = (char) value;
+		Object container = containers[slot];
+		if (container instanceof char[]) {
+			return Arrays.binarySearch((char[]) container, 0, counts[slot], low) >= 0;
+		}
+		return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+	}
+
+	// Returns the number of values
+	public int cardinality() {
+		return cardinality;
+	}
+
+	// Checks if the bitmap holds no values
+	public boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	// Removes all values
+	public void clear() {
+		Arrays.fill(containers, 0, containerCount, null);
+		containerCount = 0;
+		cardinality = 0;
+	}
+
+	// Visits every value in ascending order
+	public void forEach(IntConsumer action) {
+		for (int slot = 0; slot < containerCount; slot++) {
+			int high = keys[slot] << 16;
+			Object container = containers[slot];
+			if (container instanceof char[]) {
+				char[] values = (char[]) container;
+				for (int i = 0; i < counts[slot]; i++) {
+					action.accept(high | values[i]);
+				}
+			} else {
+				long[] words = (long[]) container;
+				for (int word = 0; word < BITMAP_WORDS; word++) {
+					long bits = words[word];
+					while (bits != 0) {
+						action.accept(high | (word << 6) | Long.numberOfTrailingZeros(bits));
+						bits &= bits - 1;
+					}
+				}
+			}
+		}
+	}
+
+	// Returns the values in ascending order
+	public int[] toArray() {
+		int[] values = new int[cardinality];
+		int[] position = new int[1];
+		forEach(value -> values[position[0]++] = value);
+		return values;
+	}
+
+	// binary search over the container keys
+	private int findKey(int key) {
+		return Arrays.binarySearch(keys, 0, containerCount, key);
+	}
+
+	private void insertContainer(int slot, int key, Object container) {
+		if (containerCount == keys.length) {
+			int capacity = keys.length * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			containers = Arrays.copyOf(containers, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+		}
+		System.arraycopy(keys, slot, keys, slot + 1, containerCount - slot);
+		System.arraycopy(containers, slot, containers, slot + 1, containerCount - slot);
+		System.arraycopy(counts, slot, counts, slot + 1, containerCount - slot);
+		keys[slot] = key;
+		containers[slot] = container;
+		counts[slot] = 0;
+		containerCount++;
+	}
+
+	private void removeContainer(int slot) {
+		System.arraycopy(keys, slot + 1, keys, slot, containerCount - slot - 1);
+		System.arraycopy(containers, slot + 1, containers, slot, containerCount - slot - 1);
+		System.arraycopy(counts, slot + 1, counts, slot, containerCount - slot - 1);
+		containerCount--;
+		containers[containerCount] = null;
+	}
+
+	// converts a full array container into a bitmap container
+	private static long[] toBitmap(char[] values, int count) {
+		long[] words = new long[BITMAP_WORDS];
+		for (int i = 0; i < count; i++) {
+			words[values[i] >>> 6] |= 1L << values[i];
+		}
+		return words;
+	}
+
+	// converts a bitmap container that shrank back into a sorted array
+	private static char[] toArray(long[] words, int count) {
+		char[] values = new char[count];
+		int position = 0;
+		for (int word = 0; word < BITMAP_WORDS; word++) {
+			long bits = words[word];
+			while (bits != 0) {
+				values[position++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,15 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+// Thread-safe index of posts by ID, striped by the hash of the ID (see ConcurrentStore).
+// Each PostRegistry keeps its posts here, so finding a post by ID in the tables and the dialogs
+// no longer walks the post list, and other threads can look posts up while the list is edited.
+// The registry writes here in the same step that adds, removes or renames a post.
+public class ConcurrentPostStore extends ConcurrentStore<PostManager> {
+	@Override
+	protected String idOf(PostManager post) {
+		return post.getPostID();
+	}
+}
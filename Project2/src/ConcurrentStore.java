@@ -0,0 +1,161 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Thread-safe index of items by ID, the shared part of ConcurrentUserStore and ConcurrentPostStore.
+//
+// Lookups go straight to a ConcurrentHashMap and never take a lock, so a reader never blocks a
+// writer. Writers lock the stripe their ID hashes to, so writers of IDs in different stripes
+// never wait for each other. An entry is never changed in place: when several items share an
+// ID the entry is replaced by a new array, so a reader always sees a whole entry.
+abstract class ConcurrentStore<T> {
+	private static final int DEFAULT_STRIPES = 16;
+
+	// Item stored under each ID, or an array of the items sharing it in the order they were added
+	private final ConcurrentHashMap<String, Object> entries = new ConcurrentHashMap<>();
+	private final LockStripes stripes = new LockStripes(DEFAULT_STRIPES);
+
+	// Returns the ID an item is stored under
+	protected abstract String idOf(T item);
+
+	// Finds the first item stored under an ID without locking, from any thread
+	@SuppressWarnings("unchecked")
+	public T find(String id) {
+		Object entry = id == null ? null : entries.get(id);
+		return (T) (entry instanceof Object[] ? ((Object[]) entry)[0] : entry);
+	}
+
+	// Checks if any item is stored under an ID
+	public boolean containsID(String id) {
+		return id != null && entries.containsKey(id);
+	}
+
+	// Adds an item under its ID, after any items already sharing it
+	void add(T item) {
+		String id = idOf(item);
+		if (id == null) {
+			return;
+		}
+		stripes.lock(id);
+		try {
+			entries.put(id, with(entries.get(id), item));
+		} finally {
+			stripes.unlock(id);
+		}
+	}
+
+	// Adds an item unless its ID is taken, returns false if it is
+	boolean addIfAbsent(T item) {
+		String id = idOf(item);
+		if (id == null) {
+			return false;
+		}
+		stripes.lock(id);
+		try {
+			return entries.putIfAbsent(id, item) == null;
+		} finally {
+			stripes.unlock(id);
+		}
+	}
+
+	// Removes an item stored under the given ID
+	void remove(T item, String id) {
+		if (id == null) {
+			return;
+		}
+		stripes.lock(id);
+		try {
+			removeLocked(item, id);
+		} finally {
+			stripes.unlock(id);
+		}
+	}
+
+	// Moves an item from its old ID to its current one. Both stripes are locked, so other writers
+	// see the move whole; a reader in between may find the item under both IDs, never under neither.
+	void move(T item, String oldID) {
+		String newID = idOf(item);
+		if (oldID == null) {
+			add(item);
+			return;
+		}
+		if (newID == null) {
+			remove(item, oldID);
+			return;
+		}
+		stripes.lockPair(oldID, newID);
+		try {
+			if (!oldID.equals(newID)) {
+				entries.put(newID, with(entries.get(newID), item));
+				removeLocked(item, oldID);
+			}
+		} finally {
+			stripes.unlockPair(oldID, newID);
+		}
+	}
+
+	// Removes every item
+	void clear() {
+		stripes.lockAll();
+		try {
+			entries.clear();
+		} finally {
+			stripes.unlockAll();
+		}
+	}
+
+	// takes an item out of its entry, the caller holds the ID's stripe
+	private void removeLocked(T item, String id) {
+		Object rest = without(entries.get(id), item);
+		if (rest == null) {
+			entries.remove(id);
+		} else {
+			entries.put(id, rest);
+		}
+	}
+
+	// returns a new entry holding the old one's items and then the item
+	private static Object with(Object entry, Object item) {
+		if (entry == null || entry == item) {
+			return item;
+		}
+		Object[] items = entry instanceof Object[] ? (Object[]) entry : new Object[] {entry};
+		for (Object stored : items) {
+			if (stored == item) {
+				return entry;
+			}
+		}
+		Object[] grown = new Object[items.length + 1];
+		System.arraycopy(items, 0, grown, 0, items.length);
+		grown[items.length] = item;
+		return grown;
+	}
+
+	// returns a new entry holding the old one's items without the item, or null if none is left
+	private static Object without(Object entry, Object item) {
+		if (entry == item) {
+			return null;
+		}
+		if (!(entry instanceof Object[])) {
+			return entry;
+		}
+		Object[] items = (Object[]) entry;
+		int position = 0;
+		while (position < items.length && items[position] != item) {
+			position++;
+		}
+		if (position == items.length) {
+			return entry;
+		}
+		if (items.length == 2) {
+			return items[1 - position];
+		}
+		Object[] shrunk = new Object[items.length - 1];
+		System.arraycopy(items, 0, shrunk, 0, position);
+		System.arraycopy(items, position + 1, shrunk, position, shrunk.length - position);
+		return shrunk;
+	}
+}
@@ -0,0 +1,22 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+// Thread-safe index of users by ID, striped by the hash of the ID (see ConcurrentStore).
+// Each UserRegistry keeps its users here, so the dialogs, the tables and the reports on the
+// editing thread and the import workers on their own threads all look users up in one place,
+// and the workers can turn the IDs in a file into users while the lists are being edited.
+//
+// Consistency model: the registry writes here as users are added, removed and renamed, in the
+// same step that changes the list, and a lookup on another thread sees each of those changes
+// either whole or not yet. Friendships are not kept here. They are changed only on the editing
+// thread, where UserManager.addFriendship and removeFriendship change both directions before
+// returning, and other threads read them from a ReportSnapshot captured on that thread, so no
+// reader ever sees one direction of a friendship without the other.
+public class ConcurrentUserStore extends ConcurrentStore<UserManager> {
+	@Override
+	protected String idOf(UserManager user) {
+		return user.getUserID();
+	}
+}
@@ -27,12 +27,8 @@ public class DataLoadingManager { // class to manage data loading operations
 
 		File selectedFile = fileChooser.showOpenDialog(stage); // show dialog and get selected file
 		if (selectedFile != null) { // check if a file was selected
-			try {
-				fileManager.loadUsers(selectedFile.getPath(), users); // load users from file
-				showAlert("Users loaded successfully!"); // show success message
-			} catch (Exception e) {
-				showAlert("Error loading user data: " + e.getMessage()); // show error message
-			}
+			BackgroundImport.start("Loading Users", selectedFile, (path, progress) -> fileManager.stageUsers(path, users, ChunkedImport.defaultThreads(), progress), // parse in the background, add the rows on the FX thread
+					() -> showAlert("Users loaded successfully!")); // show success message, failures are shown by the dialog
 		}
 	}
 
@@ -48,12 +44,8 @@ public class DataLoadingManager { // class to manage data loading operations
 
 		File selectedFile = fileChooser.showOpenDialog(stage); // show dialog and get selected file
 		if (selectedFile != null) { // check if a file was selected
-			try {
-				fileManager.loadPosts(selectedFile.getPath(), posts, users); // load posts from file
-				showAlert("Posts loaded successfully!"); // show success message
-			} catch (Exception e) {
-				showAlert("Error loading post data: " + e.getMessage()); // show error message
-			}
+			BackgroundImport.start("Loading Posts", selectedFile, (path, progress) -> fileManager.stagePosts(path, posts, users, ChunkedImport.defaultThreads(), progress), // parse in the background, add the rows on the FX thread
+					() -> showAlert("Posts loaded successfully!")); // show success message, failures are shown by the dialog
 		}
 	}
 
@@ -69,12 +61,8 @@ public class DataLoadingManager { // class to manage data loading operations
 
 		File selectedFile = fileChooser.showOpenDialog(stage); // show dialog and get selected file
 		if (selectedFile != null) { // check if a file was selected
-			try {
-				fileManager.loadFriendships(selectedFile.getPath(), users); // load friendships from file
-				showAlert("Friendships loaded successfully!"); // show success message
-			} catch (Exception e) {
-				showAlert("Error loading friendship data: " + e.getMessage()); // show error message
-			}
+			BackgroundImport.start("Loading Friendships", selectedFile, (path, progress) -> FileManager.stageFriendships(path, users, ChunkedImport.defaultThreads(), progress), // parse in the background, add the rows on the FX thread
+					() -> showAlert("Friendships loaded successfully!")); // show success message, failures are shown by the dialog
 		}
 	}
 
@@ -172,7 +172,7 @@ public class DataManagementUI {
                             hasUserPosts = true;
                             
                             String sharedWithUsers = "";
-                            CircularDoublyLinkedList<UserManager> sharedUserList = currentPost.getSharedUsers();
+                            PostAudience sharedUserList = currentPost.getSharedUsers();
                             if (sharedUserList != null) {
                                 Iterator<UserManager> sharedIterator = sharedUserList.iterator();
                                 while (sharedIterator.hasNext()) {
@@ -236,7 +236,7 @@ public class DataManagementUI {
                     
                     while (postIterator.hasNext()) {
                         PostManager currentPost = postIterator.next();
-                        CircularDoublyLinkedList<UserManager> sharedUserList = currentPost.getSharedUsers();
+                        PostAudience sharedUserList = currentPost.getSharedUsers();
                         
                         if (sharedUserList != null) {
                             Iterator<UserManager> sharedIterator = sharedUserList.iterator();
@@ -382,7 +382,7 @@ public class DataManagementUI {
         TableColumn<PostManager, String> friendsColumn = new TableColumn<>("Shared With");
         friendsColumn.setCellValueFactory(cellData -> {
             String displayText = "";
-            CircularDoublyLinkedList<UserManager> sharedFriends = cellData.getValue().getSharedUsers();
+            PostAudience sharedFriends = cellData.getValue().getSharedUsers();
             Iterator<UserManager> iterator = sharedFriends.iterator();
             while (iterator.hasNext()) {
                 UserManager friend = iterator.next();
@@ -220,9 +220,7 @@ public class DialogManager {
             UserManager user1 = pair.getKey();
             UserManager user2 = pair.getValue();
             
-            if (!user1.getFriends().contains(user2)) {
-                user1.getFriends().insertLast(user2);
-                user2.getFriends().insertLast(user1);
+            if (UserManager.addFriendship(user1, user2)) {
                 tableManager.refreshFriendshipTable(users);
             }
         });
@@ -928,8 +926,7 @@ public class DialogManager {
                     return;
                 }
 
-                user1.getFriends().delete(user2);
-                user2.getFriends().delete(user1);
+                UserManager.removeFriendship(user1, user2);
 
                 tableManager.refreshFriendshipTable(users);
 
@@ -992,14 +989,7 @@ public class DialogManager {
     }
     
     private boolean isDuplicateID(String id) {
-        Iterator<UserManager> iterator = users.iterator();
-        while (iterator.hasNext()) {
-            UserManager user = iterator.next();
-            if (user.getUserID().equals(id)) {
-                return true;
-            }
-        }
-        return false;
+        return UserManager.searchByID(users, id) != null;
     }
     
     private String generateUniqueID(String baseID) {
@@ -1015,6 +1005,9 @@ public class DialogManager {
     }
     
     private boolean isDuplicatePostID(String postID) {
+        if (posts instanceof PostRegistry) {
+            return ((PostRegistry) posts).containsID(postID);
+        }
         Iterator<PostManager> iterator = posts.iterator();
         while (iterator.hasNext()) {
             PostManager post = iterator.next();
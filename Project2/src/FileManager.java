@@ -3,171 +3,278 @@
 // dr. mamoun nawahda
 // section 7
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 
-import javafx.collections.ObservableList;
-import javafx.scene.control.Alert;
-
 // Handles all file operations for the application including loading and saving data
 public class FileManager {
 	// File paths for storing user and post data
 	private static final String USERS_FILE = "users.txt";
 	private static final String POSTS_FILE = "posts.txt";
 
-	// Loads user data from a file and returns a list of UserManager objects
-	public CircularDoublyLinkedList<UserManager> loadUsers(String filePath) {
-		CircularDoublyLinkedList<UserManager> users = new CircularDoublyLinkedList<>();
-		try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-			String line;
-			while ((line = reader.readLine()) != null) {
-				String[] parts = line.split(",");
-				if (parts.length >= 3) {
-					String userID = parts[0].trim();
-					String name = parts[1].trim();
-					int age = Integer.parseInt(parts[2].trim());
-					users.add(new UserManager(userID, name, age));
-				}
-			}
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+	// Loads user data from a file and returns an indexed list of UserManager objects
+	public CircularDoublyLinkedList<UserManager> loadUsers(String filePath) throws IOException {
+		UserRegistry users = new UserRegistry();
+		loadUsers(filePath, users);
 		return users;
 	}
 
+	// Loads user data from a file into an existing user list
+	public void loadUsers(String filePath, CircularDoublyLinkedList<UserManager> users) throws IOException {
+		loadUsers(filePath, users, ChunkedImport.defaultThreads());
+	}
+
+	// Loads user data, parsing large files on the given number of threads
+	public void loadUsers(String filePath, CircularDoublyLinkedList<UserManager> users, int threads) throws IOException {
+		stageUsers(filePath, users, threads, null).applyAll();
+	}
+
+	// Starts parsing a users file, reporting to the given progress, which may be null.
+	// The users are added as the returned rows are applied, on the thread that edits the list.
+	// A cancelled import throws a CancellationException.
+	public StagedImport<UserManager> stageUsers(String filePath, CircularDoublyLinkedList<UserManager> users, int threads, ImportProgress progress) throws IOException {
+		verifyChecksums(filePath);
+		ChunkedImport.RowFeed<UserManager> feed = ChunkedImport.start(filePath, threads, FileManager::readUser, progress);
+		return new StagedImport<>(feed, users::add, null, progress);
+	}
+
 	// Loads friendship data from file
-	public static void loadFriendships(String filename, CircularDoublyLinkedList<UserManager> users) {
-		try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-			String line;
-			while ((line = reader.readLine()) != null) {
-				String[] parts = line.split(",");
-				if (parts.length >= 2) {
-					// First part is the user ID
-					String userID = parts[0].trim();
-					UserManager user = UserManager.searchByID(users, userID);
-					
-					if (user != null) {
-						// Add all friends for this user
-						for (int i = 1; i < parts.length; i++) {
-							String friendID = parts[i].trim();
-							UserManager friend = UserManager.searchByID(users, friendID);
-							
-							if (friend != null && !user.isFriend(friend)) {
-								user.getFriends().insertLast(friend);
-							}
-						}
+	public static void loadFriendships(String filename, CircularDoublyLinkedList<UserManager> users) throws IOException {
+		loadFriendships(filename, users, ChunkedImport.defaultThreads());
+	}
+
+	// Loads friendship data, parsing large files on the given number of threads
+	public static void loadFriendships(String filename, CircularDoublyLinkedList<UserManager> users, int threads) throws IOException {
+		stageFriendships(filename, users, threads, null).applyAll();
+	}
+
+	// Starts parsing a friendships file, reporting to the given progress, which may be null.
+	// Workers look the IDs up in the users' ID index as they read each line, so a line is held
+	// as its users rather than its text; the edges are added in file order as the rows are
+	// applied. A plain list is indexed here first, so call it on the thread that edits it.
+	// A cancelled import throws a CancellationException.
+	public static StagedImport<UserManager[]> stageFriendships(String filename, CircularDoublyLinkedList<UserManager> users, int threads, ImportProgress progress) throws IOException {
+		verifyChecksums(filename);
+		UserRegistry registry = UserRegistry.indexOf(users);
+		ChunkedImport.RowFeed<UserManager[]> feed = ChunkedImport.start(filename, threads, reader -> readFriendLine(reader, registry), progress);
+		return new StagedImport<>(feed, line -> {
+			// users deleted since their line was read are left out
+			if (registry.contains(line[0])) {
+				for (int i = 1; i < line.length; i++) {
+					if (registry.contains(line[i])) {
+						registry.addFriendEdge(line[0], line[i]);
 					}
 				}
 			}
-		} catch (IOException e) {
-			System.err.println("Error loading friendships: " + e.getMessage());
-		}
+		}, registry::finishBulkLoad, progress);
 	}
 
 	// Loads post data from a file and returns a list of PostManager objects
-	public CircularDoublyLinkedList<PostManager> loadPosts(String filePath, CircularDoublyLinkedList<UserManager> users) {
-		CircularDoublyLinkedList<PostManager> posts = new CircularDoublyLinkedList<>();
-		try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-			String line;
-			while ((line = reader.readLine()) != null) {
-				String[] parts = line.split(",");
-				if (parts.length >= 4) {
-					String postID = parts[0].trim();
-					String userID = parts[1].trim();
-					String content = parts[2].trim();
-					String dateStr = parts[3].trim();
-					boolean shareWithAllFriends = parts.length > 4 && Boolean.parseBoolean(parts[4].trim());
-
-					UserManager creator = UserManager.searchByID(users, userID);
-					if (creator != null) {
-						Calendar creationDate = parseDate(dateStr);
-						PostManager post = PostManager.createPost(postID, creator, content, creationDate, shareWithAllFriends);
-						posts.add(post);
-					}
-				}
+	public CircularDoublyLinkedList<PostManager> loadPosts(String filePath, CircularDoublyLinkedList<UserManager> users) throws IOException {
+		CircularDoublyLinkedList<PostManager> posts = new PostRegistry();
+		loadPosts(filePath, posts, users);
+		return posts;
+	}
+
+	// Loads post data from a file into an existing post list
+	public void loadPosts(String filePath, CircularDoublyLinkedList<PostManager> posts, CircularDoublyLinkedList<UserManager> users) throws IOException {
+		loadPosts(filePath, posts, users, ChunkedImport.defaultThreads());
+	}
+
+	// Loads post data, parsing large files on the given number of threads
+	public void loadPosts(String filePath, CircularDoublyLinkedList<PostManager> posts, CircularDoublyLinkedList<UserManager> users, int threads) throws IOException {
+		stagePosts(filePath, posts, users, threads, null).applyAll();
+	}
+
+	// Starts parsing a posts file, reporting to the given progress, which may be null.
+	// Workers look the creators up as they read; posts are created and shared in file order as
+	// the rows are applied, since sharing fills the users' timelines, and posts of unknown users
+	// are skipped. A plain user list is indexed here first, so call it on the thread that edits it.
+	// A cancelled import throws a CancellationException.
+	public StagedImport<?> stagePosts(String filePath, CircularDoublyLinkedList<PostManager> posts, CircularDoublyLinkedList<UserManager> users, int threads, ImportProgress progress) throws IOException {
+		verifyChecksums(filePath);
+		UserRegistry registry = UserRegistry.indexOf(users);
+		ChunkedImport.RowFeed<PostRecord> feed = ChunkedImport.start(filePath, threads, reader -> readPost(reader, registry), progress);
+		return new StagedImport<>(feed, record -> {
+			if (registry.contains(record.creator)) {
+				posts.add(PostManager.createPost(record.postID, record.creator, record.content, record.creationDate, record.shareWithAllFriends));
 			}
+		}, null, progress);
+	}
+
+	// Saves users, friendships and posts to a binary snapshot file
+	public void saveSnapshot(String filePath, CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts) throws IOException {
+		BinarySnapshot.write(filePath, users, posts);
+	}
+
+	// Loads users, friendships and posts from a binary snapshot file into existing lists
+	public void loadSnapshot(String filePath, CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts) throws IOException {
+		verifyChecksums(filePath);
+		BinarySnapshot.open(filePath).loadInto(users, posts);
+	}
+
+	// Checks a file against the checksums saved with it, so a damaged file is rejected before
+	// anything is loaded instead of being read up to the damage. Files without checksums load as before.
+	private static void verifyChecksums(String filePath) {
+		try {
+			AtomicFileWriter.verify(filePath);
 		} catch (IOException e) {
-			e.printStackTrace();
+			throw new CustomException("Refusing to load damaged file: " + e.getMessage());
 		}
-		return posts;
 	}
 
-	// Saves user data to a file
-	public void saveUsers(String filePath, CircularDoublyLinkedList<UserManager> users) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-			Iterator<UserManager> iterator = users.iterator();
-			while (iterator.hasNext()) {
-				UserManager user = iterator.next();
+	// Parses one line of a users file
+	private static UserManager readUser(RecordReader reader) {
+		if (reader.fieldCount() < 3) {
+			return null;
+		}
+		return new UserManager(reader.getString(0), reader.getString(1), reader.getInt(2));
+	}
+
+	// Looks up the IDs on one line of a friendships file, a user's first then their friends',
+	// leaving out unknown friends. Returns null when the user or all of the friends are unknown.
+	private static UserManager[] readFriendLine(RecordReader reader, UserRegistry users) {
+		if (reader.fieldCount() < 2) {
+			return null;
+		}
+		UserManager user = users.findByID(reader.getString(0));
+		if (user == null) {
+			return null;
+		}
+		UserManager[] line = new UserManager[reader.fieldCount()];
+		int found = 0;
+		line[found++] = user;
+		for (int i = 1; i < line.length; i++) {
+			UserManager friend = users.findByID(reader.getString(i));
+			if (friend != null) {
+				line[found++] = friend;
+			}
+		}
+		return found == 1 ? null : found == line.length ? line : Arrays.copyOf(line, found);
+	}
+
+	// Parses one line of a posts file, null if its creator is unknown
+	private static PostRecord readPost(RecordReader reader, UserRegistry users) {
+		if (reader.fieldCount() < 4) {
+			return null;
+		}
+		UserManager creator = users.findByID(reader.getString(1));
+		if (creator == null) {
+			return null;
+		}
+		PostRecord record = new PostRecord();
+		record.postID = reader.getString(0);
+		record.creator = creator;
+		record.content = reader.getString(2);
+		record.creationDate = reader.getDate(3);
+		record.shareWithAllFriends = reader.fieldCount() > 4 && reader.getBoolean(4);
+		return record;
+	}
+
+	// One parsed line of a posts file
+	private static class PostRecord {
+		String postID;
+		UserManager creator;
+		String content;
+		Calendar creationDate;
+		boolean shareWithAllFriends;
+	}
+
+	// Saves user data to a file, replacing it only once the new copy is complete
+	public void saveUsers(String filePath, Iterable<UserManager> users) throws IOException {
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+			for (UserManager user : users) {
+				if (user == null) {
+					continue;
+				}
 				writer.write(user.getUserID() + "," + user.getName() + "," + user.getAge());
 				writer.newLine();
 			}
-		} catch (IOException e) {
-			e.printStackTrace();
+			writer.flush();
+			file.commit();
 		}
 	}
 
-	// Saves friendship data to a file
-	public void saveFriendships(String filePath, CircularDoublyLinkedList<UserManager> users) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-			Iterator<UserManager> iterator = users.iterator();
-			while (iterator.hasNext()) {
-				UserManager user = iterator.next();
-				CircularDoublyLinkedList<UserManager> friends = user.getFriends();
-				Iterator<UserManager> friendIterator = friends.iterator();
-				while (friendIterator.hasNext()) {
-					UserManager friend = friendIterator.next();
-					if (user.getUserID().compareTo(friend.getUserID()) < 0) {
+	// Saves friendship data to a file, replacing it only once the new copy is complete
+	public void saveFriendships(String filePath, Iterable<UserManager> users) throws IOException {
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+			for (UserManager user : users) {
+				if (user == null || user.getFriendCount() == 0) {
+					continue;
+				}
+				for (UserManager friend : user.friends()) {
+					if (friend != null && user.getUserID().compareTo(friend.getUserID()) < 0) {
 						writer.write(user.getUserID() + "," + friend.getUserID());
 						writer.newLine();
 					}
 				}
 			}
-		} catch (IOException e) {
-			e.printStackTrace();
+			writer.flush();
+			file.commit();
 		}
 	}
 
-	// Saves post data to a file
-	public void savePosts(String filePath, CircularDoublyLinkedList<PostManager> posts) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-			Iterator<PostManager> iterator = posts.iterator();
-			while (iterator.hasNext()) {
-				PostManager post = iterator.next();
-				String dateStr = formatDate(post.getCreationDate());
-				boolean shareWithAllFriends = post.getSharedUsers() != null && !post.getSharedUsers().isEmpty();
-				writer.write(post.getPostID() + "," + 
-						   post.getCreator().getUserID() + "," + 
-						   post.getContent() + "," + 
-						   dateStr + "," + 
-						   shareWithAllFriends);
-				writer.newLine();
+	// Saves post data to a file, replacing it only once the new copy is complete
+	public void savePosts(String filePath, Iterable<PostManager> posts) throws IOException {
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+			for (PostManager post : posts) {
+				if (post != null) {
+					writePost(writer, post);
+				}
 			}
-		} catch (IOException e) {
-			e.printStackTrace();
+			writer.flush();
+			file.commit();
 		}
 	}
 
-	// Converts a date string to a Calendar object
-	private Calendar parseDate(String dateStr) {
-		String[] parts = dateStr.split("\\.");
-		if (parts.length == 3) {
-			int day = Integer.parseInt(parts[0]);
-			int month = Integer.parseInt(parts[1]) - 1;
-			int year = Integer.parseInt(parts[2]);
-			Calendar calendar = Calendar.getInstance();
-			calendar.set(year, month, day);
-			return calendar;
+	// Saves the posts grouped by creator, in the order the creators are given.
+	// Posts of users that are not in the list are left out.
+	public void savePosts(String filePath, Iterable<PostManager> posts, Iterable<UserManager> users) throws IOException {
+		IdentityHashMap<UserManager, ArrayList<PostManager>> postsByCreator = new IdentityHashMap<>();
+		for (PostManager post : posts) {
+			if (post != null && post.getCreator() != null) {
+				postsByCreator.computeIfAbsent(post.getCreator(), creator -> new ArrayList<>()).add(post);
+			}
+		}
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+			for (UserManager user : users) {
+				// remove so a user listed twice does not write their posts twice
+				ArrayList<PostManager> userPosts = user == null ? null : postsByCreator.remove(user);
+				if (userPosts != null) {
+					for (PostManager post : userPosts) {
+						writePost(writer, post);
+					}
+				}
+			}
+			writer.flush();
+			file.commit();
 		}
-		return null;
+	}
+
+	// writes one line of a posts file
+	private void writePost(BufferedWriter writer, PostManager post) throws IOException {
+		String dateStr = formatDate(post.getCreationDate());
+		boolean shareWithAllFriends = post.getSharedUsers() != null && !post.getSharedUsers().isEmpty();
+		writer.write(post.getPostID() + "," + 
+				   post.getCreator().getUserID() + "," + 
+				   post.getContent() + "," + 
+				   dateStr + "," + 
+				   shareWithAllFriends);
+		writer.newLine();
 	}
 
 	// Converts a Calendar object to a formatted date string
@@ -181,22 +288,6 @@ public class FileManager {
 
 	// Searches for a user by their ID in the given user list
 	public UserManager lookupUserById(CircularDoublyLinkedList<UserManager> userData, String id) {
-		Iterator<UserManager> iterator = userData.iterator();
-		while (iterator.hasNext()) {
-			UserManager user = iterator.next();
-			if (user.getUserID().equals(id)) {
-				return user;
-			}
-		}
-		return null;
-	}
-
-	// Displays a message dialog with the given title and message
-	public void displayMessage(String title, String message) {
-		Alert alert = new Alert(Alert.AlertType.INFORMATION);
-		alert.setTitle(title);
-		alert.setHeaderText(null);
-		alert.setContentText(message);
-		alert.showAndWait();
+		return UserManager.searchByID(userData, id);
 	}
 }
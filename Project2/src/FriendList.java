@@ -0,0 +1,123 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+// Friend list that keeps insertion order but answers membership and removal in constant time.
+// When it belongs to a user in a registry, every change is written through to the registry's
+// friendship graph so the compact graph and the list never disagree.
+public class FriendList extends CircularDoublyLinkedList<UserManager> {
+	// User whose friends these are, null for a standalone list
+	private UserManager owner;
+	// Set while the list is being filled from the graph or told of a change already made there,
+	// so changes are not written back
+	private boolean loading;
+
+	// Creates an empty standalone friend list
+	public FriendList() {
+		this(null);
+	}
+
+	// Creates an empty friend list for the given user
+	public FriendList(UserManager owner) {
+		super();
+		// keyed by identity so ID changes don't break it
+		enableIndex(true);
+		this.owner = owner;
+	}
+
+	// Fills the list from the owner's row in the graph
+	void loadFrom(FriendshipGraph graph) {
+		int vertex = graph.indexOf(owner);
+		if (vertex < 0) {
+			return;
+		}
+		loading = true;
+		try {
+			graph.forEachNeighbor(vertex, target -> insertLast(graph.userAt(target)));
+		} finally {
+			loading = false;
+		}
+	}
+
+	// Removes a user without writing the change to the graph, for a friend the graph already dropped
+	void forget(UserManager user) {
+		loading = true;
+		try {
+			delete(user);
+		} finally {
+			loading = false;
+		}
+	}
+
+	// Checks if the user is in the friend list
+	@Override
+	public boolean contains(UserManager user) {
+		return user != null && indexedNode(user) != null;
+	}
+
+	// Removes the user from the friend list without scanning it
+	@Override
+	public void delete(UserManager user) {
+		if (user == null) {
+			return;
+		}
+		Node<UserManager> node = indexedNode(user);
+		if (node != null) {
+			unlink(node);
+		}
+	}
+
+	// Removes all friends
+	@Override
+	public void clear() {
+		super.clear();
+		FriendshipGraph graph = ownerGraph();
+		if (graph != null) {
+			graph.clearRow(owner);
+			owner.getRegistry().friendshipsChanged(owner, null);
+			OperationLog journal = owner.getRegistry().getJournal();
+			if (journal != null) {
+				journal.friendsCleared(owner);
+			}
+		}
+	}
+
+	@Override
+	protected void linked(Node<UserManager> node) {
+		if (node.data != null) {
+			FriendshipGraph graph = ownerGraph();
+			if (graph != null && graph.addEdge(owner, node.data)) {
+				owner.getRegistry().friendshipsChanged(owner, node.data);
+				OperationLog journal = owner.getRegistry().getJournal();
+				if (journal != null) {
+					journal.friendAdded(owner, node.data);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void unlinked(Node<UserManager> node) {
+		UserManager user = node.data;
+		if (user == null) {
+			return;
+		}
+		FriendshipGraph graph = ownerGraph();
+		if (graph != null && graph.removeEdge(owner, user)) {
+			owner.getRegistry().friendshipsChanged(owner, null);
+			OperationLog journal = owner.getRegistry().getJournal();
+			if (journal != null) {
+				journal.friendRemoved(owner, user);
+			}
+		}
+	}
+
+	// graph of the registry the owner belongs to, or null when changes should not be mirrored
+	private FriendshipGraph ownerGraph() {
+		if (loading || owner == null || owner.getRegistry() == null) {
+			return null;
+		}
+		return owner.getRegistry().getGraph();
+	}
+}
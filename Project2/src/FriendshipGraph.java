@@ -0,0 +1,590 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+// Compact friendship network: users are interned to dense ints and each user's friends
+// are stored as a row of ints in compressed sparse row (CSR) form.
+// Edges added or removed since the last compaction live in a small delta layer that is
+// merged into the CSR arrays once it grows past a fraction of the base edge count.
+//
+// A merge builds new CSR arrays instead of changing the old ones, so each pair of arrays is an
+// immutable generation. freeze() shares the current generation and the delta layer, giving
+// readers on other threads a fixed copy of the friendships without copying anything: the delta
+// layer is kept in chunked tables, and after a freeze the live graph copies a chunk, or a
+// vertex's rows, the first time it changes them.
+//
+// A user who leaves is taken out with every edge going to or from them. Their vertex number is
+// handed to the next user interned, unless a post audience still holds it (see retain).
+public class FriendshipGraph {
+	// Smallest delta size that triggers a merge
+	private static final int MIN_DELTA_EDGES = 1024;
+
+	// Interning table from user serial number to dense vertex number, and back
+	private IntIntHashMap vertexIds;
+	private UserManager[] vertices;
+	private int vertexCount;
+	// Set once a frozen copy shares the vertex table, so the next write to a used slot copies it
+	private boolean verticesShared;
+	// Vertex numbers of removed users, reused by intern
+	private IntCircularList freeVertices;
+
+	// CSR base: friends of vertex v are targets[offsets[v] .. offsets[v + 1])
+	private int[] offsets;
+	private int[] targets;
+	private int baseVertexCount;
+	private int baseEdges;
+
+	// Delta layer: edges appended since the last merge, per vertex
+	private RowTable<IntCircularList> deltaRows;
+	private int deltaEdges;
+
+	// Base edges removed since the last merge, as a set of targets per source vertex
+	private RowTable<IntHashSet> removedRows;
+	private int removedEdges;
+
+	// Number of freezes so far, and the freeze count at which the live graph last copied each
+	// vertex's rows; rows copied before the latest freeze are shared with a frozen copy
+	private int freezes;
+	private int[] rowFreezes;
+
+	// Number of edges going into each vertex, so the users who list a removed user are found
+	// through that user's own friends unless some friendship was one sided
+	private int[] inDegrees;
+	// Number of post audiences holding each vertex, and the removed users they still hold
+	private int[] holds;
+	private BitSet departed;
+
+	// Creates an empty graph
+	public FriendshipGraph() {
+		vertexIds = new IntIntHashMap();
+		vertices = new UserManager[16];
+		freeVertices = new IntCircularList();
+		offsets = new int[1];
+		targets = new int[0];
+		deltaRows = new RowTable<>();
+		removedRows = new RowTable<>();
+		rowFreezes = new int[16];
+		inDegrees = new int[16];
+		holds = new int[16];
+		departed = new BitSet();
+	}
+
+	// Copies the graph as it is now, sharing everything with the live graph, which copies what
+	// it changes from then on
+	private FriendshipGraph(FriendshipGraph live) {
+		vertices = live.vertices;
+		vertexCount = live.vertexCount;
+		offsets = live.offsets;
+		targets = live.targets;
+		baseVertexCount = live.baseVertexCount;
+		baseEdges = live.baseEdges;
+		deltaEdges = live.deltaEdges;
+		removedEdges = live.removedEdges;
+		deltaRows = live.deltaRows.freeze();
+		removedRows = live.removedRows.freeze();
+	}
+
+	// Returns a read-only copy of the graph as it is now, which other threads can read while
+	// this one goes on being edited. The copy is read by vertex number: it has no user table,
+	// so looking up or adding users on it throws. Freezing copies nothing, the live graph pays
+	// for the rows it changes afterwards.
+	public FriendshipGraph freeze() {
+		verticesShared = true;
+		freezes++;
+		return new FriendshipGraph(this);
+	}
+
+	// Returns the vertex number of a user, assigning the next free one if needed
+	public int intern(UserManager user) {
+		if (vertexIds == null) {
+			throw new UnsupportedOperationException("A frozen graph cannot be changed");
+		}
+		int id = vertexIds.getOrDefault(user.getSerial(), -1);
+		if (id >= 0) {
+			// a removed user still held by an audience keeps their number when they come back
+			departed.clear(id);
+			return id;
+		}
+		int vertex;
+		if (!freeVertices.isEmpty()) {
+			// a freed vertex has no edges left, its old base row is all marked removed
+			vertex = freeVertices.removeLast();
+			setVertex(vertex, user);
+		} else {
+			if (vertexCount == vertices.length) {
+				int capacity = vertices.length * 2;
+				vertices = Arrays.copyOf(vertices, capacity);
+				// a new array is not shared with any frozen copy
+				verticesShared = false;
+				rowFreezes = Arrays.copyOf(rowFreezes, capacity);
+				inDegrees = Arrays.copyOf(inDegrees, capacity);
+				holds = Arrays.copyOf(holds, capacity);
+			}
+			vertex = vertexCount++;
+			vertices[vertex] = user;
+		}
+		vertexIds.put(user.getSerial(), vertex);
+		return vertex;
+	}
+
+	// Takes a user out of the graph with their friends and every edge pointing at them, and frees
+	// their vertex number unless a post audience holds it. Returns the vertices that had the user
+	// as a friend, so friend lists kept next to the graph can drop them too.
+	public int[] removeVertex(UserManager user) {
+		int vertex = indexOf(user);
+		if (vertex < 0) {
+			return new int[0];
+		}
+		int[] sources = sourcesOf(vertex);
+		for (int source : sources) {
+			removeEdge(source, vertex);
+		}
+		clearRow(vertex);
+		if (holds[vertex] > 0) {
+			departed.set(vertex);
+		} else {
+			free(vertex);
+		}
+		return sources;
+	}
+
+	// Marks a vertex as held by a post audience, so it keeps its user if they are removed
+	public void retain(int vertex) {
+		holds[vertex]++;
+	}
+
+	// Lets go of a vertex held through retain, freeing it if its user was removed meanwhile
+	public void release(int vertex) {
+		if (--holds[vertex] == 0 && departed.get(vertex)) {
+			free(vertex);
+		}
+	}
+
+	// Returns the vertex number of a user, or -1 if the user was never interned
+	public int indexOf(UserManager user) {
+		if (vertexIds == null) {
+			throw new UnsupportedOperationException("A frozen graph is read by vertex number");
+		}
+		return vertexIds.getOrDefault(user.getSerial(), -1);
+	}
+
+	// Returns the user stored at a vertex number
+	public UserManager userAt(int vertex) {
+		return vertices[vertex];
+	}
+
+	// Returns the number of vertex numbers in use, including freed ones not handed out again yet
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	// Returns the number of directed friend edges
+	public int edgeCount() {
+		return baseEdges - removedEdges + deltaEdges;
+	}
+
+	// Returns how many friends a vertex has
+	public int degree(int vertex) {
+		int base = vertex < baseVertexCount ? offsets[vertex + 1] - offsets[vertex] : 0;
+		return base - removedCount(vertex) + deltaSize(vertex);
+	}
+
+	// Returns how many friends a user has in this graph
+	public int degree(UserManager user) {
+		int vertex = indexOf(user);
+		return vertex < 0 ? 0 : degree(vertex);
+	}
+
+	// Adds a friend edge, returns false if the edge is already there
+	public boolean addEdge(UserManager from, UserManager to) {
+		int source = intern(from);
+		int target = intern(to);
+		if (hasEdge(source, target)) {
+			return false;
+		}
+		ownRows(source);
+		IntCircularList delta = deltaRows.get(source);
+		if (delta == null) {
+			delta = new IntCircularList();
+			deltaRows.set(source, delta);
+		}
+		delta.add(target);
+		deltaEdges++;
+		inDegrees[target]++;
+		if (deltaEdges > Math.max(MIN_DELTA_EDGES, baseEdges >> 3)) {
+			compact();
+		}
+		return true;
+	}
+
+	// Removes a friend edge, returns false if there was none
+	public boolean removeEdge(UserManager from, UserManager to) {
+		int source = indexOf(from);
+		int target = indexOf(to);
+		return source >= 0 && target >= 0 && removeEdge(source, target);
+	}
+
+	// Drops every friend edge going out of a user
+	public void clearRow(UserManager user) {
+		int source = indexOf(user);
+		if (source >= 0) {
+			clearRow(source);
+		}
+	}
+
+	// Replaces the friends of a user with the given list
+	public void setRow(UserManager user, Iterable<UserManager> friends) {
+		intern(user);
+		clearRow(user);
+		for (UserManager friend : friends) {
+			if (friend != null) {
+				addEdge(user, friend);
+			}
+		}
+	}
+
+	// Checks if there is an edge between two vertices
+	public boolean hasEdge(int from, int to) {
+		IntCircularList delta = deltaRows.get(from);
+		if (delta != null && delta.contains(to)) {
+			return true;
+		}
+		if (from >= baseVertexCount || !inBaseRow(from, to)) {
+			return false;
+		}
+		IntHashSet removed = removedRows.get(from);
+		return removed == null || !removed.contains(to);
+	}
+
+	// Visits the friends of a vertex in insertion order
+	public void forEachNeighbor(int vertex, IntConsumer action) {
+		if (vertex < baseVertexCount) {
+			IntHashSet removed = removedRows.get(vertex);
+			for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+				int target = targets[i];
+				if (removed == null || !removed.contains(target)) {
+					action.accept(target);
+				}
+			}
+		}
+		IntCircularList delta = deltaRows.get(vertex);
+		if (delta != null) {
+			delta.forEach(action);
+		}
+	}
+
+	// Returns the friends of a user in insertion order as a read-only view, so callers can walk
+	// them without building a friend list. The view reads the graph as it goes, so the graph
+	// should not be changed while walking it.
+	public Iterable<UserManager> neighbors(UserManager user) {
+		int vertex = indexOf(user);
+		return () -> new NeighborIterator(vertex);
+	}
+
+	// Counts the friends two vertices have in common
+	public int countCommonNeighbors(int first, int second) {
+		// only the smaller row is hashed, so the cost follows the degrees rather than the graph size
+		if (degree(first) > degree(second)) {
+			int swap = first;
+			first = second;
+			second = swap;
+		}
+		IntHashSet marks = new IntHashSet(degree(first));
+		forEachNeighbor(first, marks::add);
+		int[] count = new int[1];
+		forEachNeighbor(second, target -> {
+			if (marks.remove(target)) {
+				count[0]++;
+			}
+		});
+		return count[0];
+	}
+
+	// Merges the delta layer into the CSR arrays, dropping removed and duplicate edges
+	public void compact() {
+		Arrays.fill(inDegrees, 0, vertexCount, 0);
+		int[] newOffsets = new int[vertexCount + 1];
+		int[] newTargets = new int[edgeCount()];
+		int[] lastSeen = new int[vertexCount];
+		Arrays.fill(lastSeen, -1);
+		int[] position = new int[1];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			newOffsets[vertex] = position[0];
+			final int source = vertex;
+			forEachNeighbor(vertex, target -> {
+				if (lastSeen[target] != source) {
+					lastSeen[target] = source;
+					newTargets[position[0]++] = target;
+					inDegrees[target]++;
+				}
+			});
+		}
+		newOffsets[vertexCount] = position[0];
+		offsets = newOffsets;
+		targets = position[0] == newTargets.length ? newTargets : Arrays.copyOf(newTargets, position[0]);
+		baseVertexCount = vertexCount;
+		baseEdges = position[0];
+		// fresh tables, a frozen copy may still read the old ones
+		deltaRows = new RowTable<>();
+		removedRows = new RowTable<>();
+		deltaEdges = 0;
+		removedEdges = 0;
+	}
+
+	// removes the edge between two vertices from both layers, returns false if there was none
+	private boolean removeEdge(int source, int target) {
+		if (!hasEdge(source, target)) {
+			return false;
+		}
+		ownRows(source);
+		IntCircularList delta = deltaRows.get(source);
+		while (delta != null && delta.delete(target)) {
+			deltaEdges--;
+		}
+		if (source < baseVertexCount && inBaseRow(source, target)) {
+			markRemoved(source, target);
+		}
+		inDegrees[target]--;
+		return true;
+	}
+
+	// drops every edge going out of a vertex
+	private void clearRow(int source) {
+		forEachNeighbor(source, target -> inDegrees[target]--);
+		deltaEdges -= deltaSize(source);
+		deltaRows.set(source, null);
+		if (source < baseVertexCount) {
+			for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+				markRemoved(source, targets[i]);
+			}
+		}
+	}
+
+	// vertices with an edge to the given one: the friends that list it back, and when that does
+	// not account for every edge into it, all rows are walked for the one sided ones
+	private int[] sourcesOf(int vertex) {
+		IntCircularList sources = new IntCircularList();
+		forEachNeighbor(vertex, friend -> {
+			if (hasEdge(friend, vertex)) {
+				sources.add(friend);
+			}
+		});
+		if (sources.size() < inDegrees[vertex]) {
+			sources.clear();
+			for (int source = 0; source < vertexCount; source++) {
+				if (vertices[source] != null && hasEdge(source, vertex)) {
+					sources.add(source);
+				}
+			}
+		}
+		return sources.toArray();
+	}
+
+	// forgets the user of a vertex that has no edges left and hands its number back for reuse
+	private void free(int vertex) {
+		departed.clear(vertex);
+		vertexIds.remove(vertices[vertex].getSerial());
+		setVertex(vertex, null);
+		freeVertices.add(vertex);
+	}
+
+	// writes a slot of the vertex table, copying it first if a frozen graph reads it
+	private void setVertex(int vertex, UserManager user) {
+		if (verticesShared) {
+			vertices = vertices.clone();
+			verticesShared = false;
+		}
+		vertices[vertex] = user;
+	}
+
+	// checks the CSR row of a vertex for a target
+	private boolean inBaseRow(int source, int target) {
+		for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+			if (targets[i] == target) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// records a base edge as removed until the next merge
+	private void markRemoved(int source, int target) {
+		ownRows(source);
+		IntHashSet removed = removedRows.get(source);
+		if (removed == null) {
+			removed = new IntHashSet();
+			removedRows.set(source, removed);
+		}
+		if (removed.add(target)) {
+			removedEdges++;
+		}
+	}
+
+	private int removedCount(int vertex) {
+		IntHashSet removed = removedRows.get(vertex);
+		return removed == null ? 0 : removed.size();
+	}
+
+	private int deltaSize(int vertex) {
+		IntCircularList delta = deltaRows.get(vertex);
+		return delta == null ? 0 : delta.size();
+	}
+
+	// gives the live graph its own copy of a vertex's rows before changing them, if a frozen
+	// copy may still read them
+	private void ownRows(int vertex) {
+		if (rowFreezes[vertex] == freezes) {
+			return;
+		}
+		rowFreezes[vertex] = freezes;
+		IntCircularList delta = deltaRows.get(vertex);
+		if (delta != null) {
+			IntCircularList copy = new IntCircularList(delta.size());
+			delta.forEach(copy::add);
+			deltaRows.set(vertex, copy);
+		}
+		IntHashSet removed = removedRows.get(vertex);
+		if (removed != null) {
+			IntHashSet copy = new IntHashSet(removed.size());
+			removed.forEach(copy::add);
+			removedRows.set(vertex, copy);
+		}
+	}
+
+	// Walks the base row of a vertex, skipping removed edges, then its delta row
+	private class NeighborIterator implements Iterator<UserManager> {
+		private final int vertex;
+		// the base arrays are replaced rather than changed by a merge, so keep the ones we started on
+		private final int[] baseTargets = targets;
+		private int basePosition;
+		private int baseEnd;
+		private int deltaPosition;
+		// vertex of the next friend, or -1 when there is none
+		private int next = -1;
+
+		NeighborIterator(int vertex) {
+			this.vertex = vertex;
+			if (vertex >= 0 && vertex < baseVertexCount) {
+				basePosition = offsets[vertex];
+				baseEnd = offsets[vertex + 1];
+			}
+			advance();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public UserManager next() {
+			if (next < 0) {
+				throw new NoSuchElementException();
+			}
+			UserManager friend = vertices[next];
+			advance();
+			return friend;
+		}
+
+		// moves to the next friend that was not removed
+		private void advance() {
+			next = -1;
+			if (vertex < 0) {
+				return;
+			}
+			IntHashSet removed = removedRows.get(vertex);
+			while (basePosition < baseEnd) {
+				int target = baseTargets[basePosition++];
+				if (removed == null || !removed.contains(target)) {
+					next = target;
+					return;
+				}
+			}
+			IntCircularList delta = deltaRows.get(vertex);
+			if (delta != null && deltaPosition < delta.size()) {
+				next = delta.get(deltaPosition++);
+			}
+		}
+	}
+
+	// Table of one kind of per-vertex row, cut into chunks of vertices. A frozen copy shares the
+	// chunks, and the live table copies the chunk directory and a chunk only the first time it
+	// writes to them after a freeze, so a freeze is free and each later write copies at most one
+	// chunk. The rows themselves are copied by the graph, see ownRows.
+	private static final class RowTable<R> {
+		private static final int CHUNK_BITS = 10;
+		private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+		private Object[][] chunks;
+		// Freeze count at which each chunk was made or copied, and the freezes of this table
+		private int[] chunkFreezes;
+		private int freezes;
+		private boolean directoryShared;
+
+		RowTable() {
+			chunks = new Object[1][];
+			chunkFreezes = new int[1];
+		}
+
+		// read-only copy sharing the chunks of a live table
+		private RowTable(Object[][] chunks) {
+			this.chunks = chunks;
+		}
+
+		// Returns a read-only copy of the table, later writes to this one copy what they touch
+		RowTable<R> freeze() {
+			freezes++;
+			directoryShared = true;
+			return new RowTable<>(chunks);
+		}
+
+		// Returns the row of a vertex, or null if it has none
+		@SuppressWarnings("unchecked")
+		R get(int vertex) {
+			int index = vertex >>> CHUNK_BITS;
+			if (index >= chunks.length) {
+				return null;
+			}
+			Object[] chunk = chunks[index];
+			return chunk == null ? null : (R) chunk[vertex & CHUNK_MASK];
+		}
+
+		// Sets the row of a vertex
+		void set(int vertex, R row) {
+			int index = vertex >>> CHUNK_BITS;
+			if (index >= chunks.length) {
+				if (row == null) {
+					return;
+				}
+				// a grown directory is a new array, so it is no longer shared
+				chunks = Arrays.copyOf(chunks, Math.max(index + 1, chunks.length * 2));
+				chunkFreezes = Arrays.copyOf(chunkFreezes, chunks.length);
+				directoryShared = false;
+			} else if (directoryShared) {
+				chunks = chunks.clone();
+				directoryShared = false;
+			}
+			Object[] chunk = chunks[index];
+			if (chunk == null) {
+				if (row == null) {
+					return;
+				}
+				chunk = new Object[CHUNK_MASK + 1];
+				chunks[index] = chunk;
+				chunkFreezes[index] = freezes;
+			} else if (chunkFreezes[index] != freezes) {
+				chunk = chunk.clone();
+				chunks[index] = chunk;
+				chunkFreezes[index] = freezes;
+			}
+			chunk[vertex & CHUNK_MASK] = row;
+		}
+	}
+}
@@ -147,13 +147,13 @@ public class FriendshipManagerUI {
 		File selectedFile = fileChooser.showOpenDialog(null);
 
 		if (selectedFile != null) {
-			try {
-				fileManager.loadFriendships(selectedFile.getAbsolutePath(), users);
-				tableManager.refreshFriendshipTable(users);
+			// the friends columns are redrawn as batches land, the table is filled again at the end
+			BackgroundImport.start("Loading Friendships", selectedFile,
+					(path, progress) -> FileManager.stageFriendships(path, users, ChunkedImport.defaultThreads(), progress),
+					tableManager::refreshFriendshipCells, () -> {
+				tableManager.publishFriendshipTable(users);
 				showAlert(Alert.AlertType.INFORMATION, "Success", null, "Friendships loaded successfully");
-			} catch (Exception e) {
-				showAlert(Alert.AlertType.ERROR, "Error", null, "Error loading friendship data: " + e.getMessage());
-			}
+			});
 		}
 	}
 
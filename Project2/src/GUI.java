@@ -3,9 +3,13 @@
 // dr. mamoun nawahda
 // section 7
 
+import java.io.IOException;
+
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.layout.BorderPane;
@@ -25,14 +29,27 @@ public class GUI extends Application {
 	private BorderPane mainLayout;
 	private MenuUIManager menuUIManager;
 	private DataLoadingManager dataLoadingManager;
+	private OperationLog operationLog;
 
 	@Override
 	public void start(Stage primaryStage) {
 		// Initialize data structures
-		users = new CircularDoublyLinkedList<>();
-		posts = new CircularDoublyLinkedList<>();
+		UserRegistry userRegistry = new UserRegistry();
+		PostRegistry postRegistry = new PostRegistry();
+		users = userRegistry;
+		posts = postRegistry;
 		fileManager = new FileManager();
 
+		// Restore the last session and record every change from here on
+		try {
+			operationLog = OperationLog.open(OperationLog.DEFAULT_BASE_PATH, userRegistry, postRegistry);
+			// the log is written on its own thread, so a failure is shown once the FX thread gets to it
+			operationLog.setFailureListener(error -> Platform.runLater(() -> showLogFailure(error)));
+		} catch (IOException e) {
+			// shown once the main window is up
+			Platform.runLater(() -> showLogOpenFailure(e));
+		}
+
 		// Initialize managers
 		dataLoadingManager = new DataLoadingManager(users, posts, fileManager);
 
@@ -77,6 +94,37 @@ public class GUI extends Application {
 		primaryStage.show();
 	}
 
+	@Override
+	public void stop() {
+		if (operationLog != null) {
+			try {
+				operationLog.close();
+			} catch (IOException e) {
+				System.err.println("Error closing operation log: " + e.getMessage());
+			}
+		}
+	}
+
+	// Tells the user that the last session could not be restored and nothing is being saved
+	private void showLogOpenFailure(IOException error) {
+		Alert alert = new Alert(Alert.AlertType.ERROR);
+		alert.setTitle("Session Not Restored");
+		alert.setHeaderText("The last session could not be restored");
+		alert.setContentText("Opening the operation log in " + OperationLog.DEFAULT_BASE_PATH + " failed: " + error.getMessage()
+				+ "\nEdits made now will not be saved automatically. Save the data to a file to keep them.");
+		alert.show();
+	}
+
+	// Tells the user that changes are no longer being saved
+	private void showLogFailure(IOException error) {
+		Alert alert = new Alert(Alert.AlertType.ERROR);
+		alert.setTitle("Changes Not Saved");
+		alert.setHeaderText("Changes are no longer being saved");
+		alert.setContentText("Writing the operation log failed: " + error.getMessage()
+				+ "\nEdits made from now on will be lost when the application closes. Save the data to a file to keep them.");
+		alert.show();
+	}
+
 	public static void main(String[] args) {
 		launch(args);
 	}
@@ -0,0 +1,95 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of a file import, shared by every reader of the file and safe to read from any thread.
+// Readers add the bytes and records they read each time they refill their buffer, so the counts
+// move in steps of about a megabyte per reader.
+//
+// An import can be cancelled at any time. The next reader to report throws a CancellationException,
+// and the rows still waiting are dropped instead of added to the lists, while the rows already
+// added stay (see StagedImport).
+public class ImportProgress {
+	// Called after every change, on the thread that made it, may be null
+	private final Runnable listener;
+	private final AtomicLong totalBytes = new AtomicLong();
+	private final AtomicLong bytesRead = new AtomicLong();
+	private final AtomicLong records = new AtomicLong();
+	private volatile boolean cancelled;
+	private final long startTime = System.nanoTime();
+
+	// Creates a progress tracker without a listener
+	public ImportProgress() {
+		this(null);
+	}
+
+	// Creates a progress tracker that calls the listener after every change
+	public ImportProgress(Runnable listener) {
+		this.listener = listener;
+	}
+
+	// Adds the size of a file that is about to be read
+	void addTotalBytes(long bytes) {
+		totalBytes.addAndGet(bytes);
+		changed();
+	}
+
+	// Adds bytes and records a reader got through, throws if the import was cancelled
+	void advance(long bytes, long recordCount) {
+		bytesRead.addAndGet(bytes);
+		records.addAndGet(recordCount);
+		changed();
+		if (cancelled) {
+			throw new CancellationException("Import was cancelled");
+		}
+	}
+
+	// Asks the import to stop
+	public void cancel() {
+		cancelled = true;
+		changed();
+	}
+
+	// Checks if the import was cancelled
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	// Returns the size of the files being read
+	public long totalBytes() {
+		return totalBytes.get();
+	}
+
+	// Returns the bytes read so far
+	public long bytesRead() {
+		return bytesRead.get();
+	}
+
+	// Returns the records read so far
+	public long records() {
+		return records.get();
+	}
+
+	// Returns the share of the bytes read so far, from 0 to 1
+	public double fraction() {
+		long total = totalBytes.get();
+		return total == 0 ? 0 : Math.min(1, (double) bytesRead.get() / total);
+	}
+
+	// Returns the records read per second since the import started
+	public double recordsPerSecond() {
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+		return seconds <= 0 ? 0 : records.get() / seconds;
+	}
+
+	// tells the listener about a change
+	private void changed() {
+		if (listener != null) {
+			listener.run();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+// List of ints kept in one circular array, so adding or removing at either end is O(1)
+// and nothing is boxed. Positional access is O(1); removing from the middle shifts the
+// shorter side.
+public class IntCircularList {
+	private int[] elements;
+	// Array slot of position 0, the capacity is a power of two so positions wrap with a mask
+	private int head;
+	private int size;
+
+	// Creates an empty list
+	public IntCircularList() {
+		this(4);
+	}
+
+	// Creates an empty list with room for the given number of ints before it grows
+	public IntCircularList(int capacity) {
+		elements = new int[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1)];
+	}
+
+	// Adds an int to the end of the list
+	public void add(int value) {
+		insertLast(value);
+	}
+
+	// Inserts an int at the beginning of the list
+	public void insertFirst(int value) {
+		growIfFull();
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = value;
+		size++;
+	}
+
+	// Inserts an int at the end of the list
+	public void insertLast(int value) {
+		growIfFull();
+		elements[slot(size)] = value;
+		size++;
+	}
+
+	// Removes and returns the first int
+	public int removeFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int value = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return value;
+	}
+
+	// Removes and returns the last int
+	public int removeLast() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		size--;
+		return elements[slot(size)];
+	}
+
+	// Returns the int at a position
+	public int get(int position) {
+		checkPosition(position);
+		return elements[slot(position)];
+	}
+
+	// Replaces the int at a position
+	public void set(int position, int value) {
+		checkPosition(position);
+		elements[slot(position)] = value;
+	}
+
+	// Removes the int at a position and returns it
+	public int removeAt(int position) {
+		checkPosition(position);
+		int value = elements[slot(position)];
+		if (position < size / 2) {
+			for (int i = position; i > 0; i--) {
+				elements[slot(i)] = elements[slot(i - 1)];
+			}
+			head = (head + 1) & (elements.length - 1);
+		} else {
+			for (int i = position; i < size - 1; i++) {
+				elements[slot(i)] = elements[slot(i + 1)];
+			}
+		}
+		size--;
+		return value;
+	}
+
+	// Removes the first occurrence of an int, returns false if it is not in the list
+	public boolean delete(int value) {
+		int position = indexOf(value);
+		if (position < 0) {
+			return false;
+		}
+		removeAt(position);
+		return true;
+	}
+
+	// Returns the position of the first occurrence of an int, or -1
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[slot(i)] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Checks if the list contains an int
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	// Returns the number of ints
+	public int size() {
+		return size;
+	}
+
+	// Checks if the list is empty
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Removes every int
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	// Visits the ints in order
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(elements[slot(i)]);
+		}
+	}
+
+	// Returns the ints in order as an array
+	public int[] toArray() {
+		int[] result = new int[size];
+		int first = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, result, 0, first);
+		System.arraycopy(elements, 0, result, first, size - first);
+		return result;
+	}
+
+	private int slot(int position) {
+		return (head + position) & (elements.length - 1);
+	}
+
+	private void checkPosition(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Invalid position");
+		}
+	}
+
+	// doubles the array, unwrapping the contents to start at slot 0
+	private void growIfFull() {
+		if (size == elements.length) {
+			int[] grown = toArray();
+			elements = Arrays.copyOf(grown, elements.length * 2);
+			head = 0;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Set of ints stored in one open addressing table, with no boxing and no per-entry objects.
+// Slots are probed linearly and removal shifts the following entries back instead of leaving
+// tombstones, so lookups stay short after many removals. Zero marks a free slot, so a zero
+// key is tracked with a flag of its own.
+public class IntHashSet {
+	private static final int MIN_CAPACITY = 8;
+
+	private int[] keys;
+	private int mask;
+	private int size;
+	private boolean containsZero;
+
+	// Creates an empty set
+	public IntHashSet() {
+		this(MIN_CAPACITY);
+	}
+
+	// Creates an empty set with room for the given number of keys before it grows
+	public IntHashSet(int expectedSize) {
+		int capacity = tableSize(expectedSize);
+		keys = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	// Adds a key, returns false if it was already in the set
+	public boolean add(int key) {
+		if (key == 0) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			size++;
+			return true;
+		}
+		int slot = mix(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		if (++size > (mask + 1) / 2) {
+			rehash(keys.length * 2);
+		}
+		return true;
+	}
+
+	// Removes a key, returns false if it was not in the set
+	public boolean remove(int key) {
+		if (key == 0) {
+			if (!containsZero) {
+				return false;
+			}
+			containsZero = false;
+			size--;
+			return true;
+		}
+		int slot = mix(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				shiftBack(slot);
+				size--;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	// Checks if a key is in the set
+	public boolean contains(int key) {
+		if (key == 0) {
+			return containsZero;
+		}
+		int slot = mix(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	// Returns the number of keys
+	public int size() {
+		return size;
+	}
+
+	// Checks if the set is empty
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Removes every key
+	public void clear() {
+		Arrays.fill(keys, 0);
+		containsZero = false;
+		size = 0;
+	}
+
+	// Visits every key, in no particular order
+	public void forEach(IntConsumer action) {
+		if (containsZero) {
+			action.accept(0);
+		}
+		for (int key : keys) {
+			if (key != 0) {
+				action.accept(key);
+			}
+		}
+	}
+
+	// Returns the keys as an array, in no particular order
+	public int[] toArray() {
+		int[] result = new int[size];
+		int position = 0;
+		if (containsZero) {
+			result[position++] = 0;
+		}
+		for (int key : keys) {
+			if (key != 0) {
+				result[position++] = key;
+			}
+		}
+		return result;
+	}
+
+	// closes the gap left at a slot by moving back later keys of the same probe run
+	private void shiftBack(int gap) {
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & mask;
+			int key = keys[slot];
+			if (key == 0) {
+				break;
+			}
+			int home = mix(key) & mask;
+			// a key can fill the gap if its home slot is not between the gap and its own slot
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = key;
+				gap = slot;
+			}
+		}
+		keys[gap] = 0;
+	}
+
+	private void rehash(int capacity) {
+		int[] old = keys;
+		keys = new int[capacity];
+		mask = capacity - 1;
+		for (int key : old) {
+			if (key != 0) {
+				int slot = mix(key) & mask;
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+			}
+		}
+	}
+
+	// smallest power of two table that keeps the given number of keys at most half full
+	static int tableSize(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2L * expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	// spreads consecutive ints across the table so linear probing does not cluster
+	static int mix(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
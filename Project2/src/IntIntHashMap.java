@@ -0,0 +1,200 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Arrays;
+
+// Map from int keys to int values in two parallel open addressing arrays, with no boxing
+// and no per-entry objects. Uses the same linear probing, back-shift removal and zero key
+// handling as IntHashSet. Missing keys read as 0, which suits counters.
+public class IntIntHashMap {
+	// Receives the entries of a map
+	public interface EntryVisitor {
+		void visit(int key, int value);
+	}
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+	private boolean containsZero;
+	private int zeroValue;
+
+	// Creates an empty map
+	public IntIntHashMap() {
+		this(8);
+	}
+
+	// Creates an empty map with room for the given number of entries before it grows
+	public IntIntHashMap(int expectedSize) {
+		int capacity = IntHashSet.tableSize(expectedSize);
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	// Returns the value of a key, or 0 if it has none
+	public int get(int key) {
+		return getOrDefault(key, 0);
+	}
+
+	// Returns the value of a key, or the given default if it has none
+	public int getOrDefault(int key, int defaultValue) {
+		if (key == 0) {
+			return containsZero ? zeroValue : defaultValue;
+		}
+		int slot = find(key);
+		return slot < 0 ? defaultValue : values[slot];
+	}
+
+	// Checks if a key has a value
+	public boolean containsKey(int key) {
+		return key == 0 ? containsZero : find(key) >= 0;
+	}
+
+	// Sets the value of a key
+	public void put(int key, int value) {
+		if (key == 0) {
+			if (!containsZero) {
+				containsZero = true;
+				size++;
+			}
+			zeroValue = value;
+			return;
+		}
+		int slot = slotFor(key);
+		values[slot] = value;
+	}
+
+	// Adds to the value of a key, starting from 0, and returns the new value
+	public int addTo(int key, int delta) {
+		if (key == 0) {
+			if (!containsZero) {
+				containsZero = true;
+				zeroValue = 0;
+				size++;
+			}
+			return zeroValue += delta;
+		}
+		int slot = slotFor(key);
+		return values[slot] += delta;
+	}
+
+	// Removes a key and returns its value, or 0 if it had none
+	public int remove(int key) {
+		if (key == 0) {
+			if (!containsZero) {
+				return 0;
+			}
+			containsZero = false;
+			size--;
+			return zeroValue;
+		}
+		int slot = find(key);
+		if (slot < 0) {
+			return 0;
+		}
+		int value = values[slot];
+		shiftBack(slot);
+		size--;
+		return value;
+	}
+
+	// Returns the number of entries
+	public int size() {
+		return size;
+	}
+
+	// Checks if the map is empty
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Removes every entry
+	public void clear() {
+		Arrays.fill(keys, 0);
+		containsZero = false;
+		size = 0;
+	}
+
+	// Visits every entry, in no particular order
+	public void forEach(EntryVisitor visitor) {
+		if (containsZero) {
+			visitor.visit(0, zeroValue);
+		}
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != 0) {
+				visitor.visit(keys[slot], values[slot]);
+			}
+		}
+	}
+
+	// slot holding a key, or -1
+	private int find(int key) {
+		int slot = IntHashSet.mix(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	// slot holding a key, claiming one with value 0 if the key is new
+	private int slotFor(int key) {
+		int slot = IntHashSet.mix(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size + 1 > (mask + 1) / 2) {
+			rehash(keys.length * 2);
+			return slotFor(key);
+		}
+		keys[slot] = key;
+		values[slot] = 0;
+		size++;
+		return slot;
+	}
+
+	// closes the gap left at a slot by moving back later entries of the same probe run
+	private void shiftBack(int gap) {
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & mask;
+			int key = keys[slot];
+			if (key == 0) {
+				break;
+			}
+			int home = IntHashSet.mix(key) & mask;
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = key;
+				values[gap] = values[slot];
+				gap = slot;
+			}
+		}
+		keys[gap] = 0;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int slot = IntHashSet.mix(oldKeys[i]) & mask;
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,125 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Immutable point-in-time copy of a list's elements, taken by CircularDoublyLinkedList.snapshot.
+// The list keeps handing out the same snapshot until it is changed, so capturing one is only
+// paid for once per version of the list. Once captured it can be read from any thread while
+// the list goes on being edited.
+//
+// A snapshot reads only the first size slots of its array. When the list has only grown at the
+// end since the last snapshot, the next one is made by extend, which writes the new elements
+// into the free slots after them and shares the array, so it costs only the added elements.
+public final class ListSnapshot<T> implements Iterable<T> {
+	private final Object[] elements;
+	private final int size;
+	private final int version;
+
+	ListSnapshot(Object[] elements, int version) {
+		this(elements, elements.length, version);
+	}
+
+	private ListSnapshot(Object[] elements, int size, int version) {
+		this.elements = elements;
+		this.size = size;
+		this.version = version;
+	}
+
+	// Returns a snapshot of the list after the given elements were added at its end. Only the list
+	// that took this snapshot may call it, and only on its latest snapshot, since the slots past
+	// the end are handed to the new one.
+	ListSnapshot<T> extend(Object[] added, int version) {
+		Object[] array = elements;
+		int newSize = size + added.length;
+		if (newSize > array.length) {
+			// grow by half so a list that keeps growing copies each element a constant number of times
+			array = Arrays.copyOf(elements, Math.max(newSize, size + (size >> 1)));
+		}
+		System.arraycopy(added, 0, array, size, added.length);
+		return new ListSnapshot<>(array, newSize, version);
+	}
+
+	// Returns the version of the list this snapshot was taken from
+	public int version() {
+		return version;
+	}
+
+	// Returns the number of elements
+	public int size() {
+		return size;
+	}
+
+	// Checks if the snapshot is empty
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Returns the element at a position
+	@SuppressWarnings("unchecked")
+	public T get(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Invalid position");
+		}
+		return (T) elements[position];
+	}
+
+	// Returns a read-only List view of the elements, for code that needs indexed access
+	@SuppressWarnings("unchecked")
+	public List<T> asList() {
+		return Collections.unmodifiableList((List<T>) Arrays.asList(elements).subList(0, size));
+	}
+
+	// Returns the elements in list order
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int position;
+
+			@Override
+			public boolean hasNext() {
+				return position < size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (position >= size) {
+					throw new NoSuchElementException();
+				}
+				return (T) elements[position++];
+			}
+		};
+	}
+
+	// Returns an exactly splittable spliterator over the elements
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(elements, 0, size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+	}
+
+	// Returns a sequential stream over the elements
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	// Returns a parallel stream over the elements
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	// Returns the elements as a new array
+	public Object[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+}
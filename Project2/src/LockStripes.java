@@ -0,0 +1,76 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed set of locks picked by the hash of a key, so writers working on keys in different
+// stripes never wait for each other. Whenever more than one stripe is locked they are taken
+// in increasing stripe order, which rules out deadlocks.
+class LockStripes {
+	private final ReentrantLock[] locks;
+
+	// Creates the given number of stripes, rounded up to a power of two
+	LockStripes(int stripes) {
+		int count = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+		locks = new ReentrantLock[count];
+		for (int i = 0; i < count; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	// Returns the number of stripes
+	int count() {
+		return locks.length;
+	}
+
+	// Returns the stripe number of a key
+	int stripeOf(String key) {
+		return key == null ? 0 : IntHashSet.mix(key.hashCode()) & (locks.length - 1);
+	}
+
+	// Locks the stripe of a key
+	void lock(String key) {
+		locks[stripeOf(key)].lock();
+	}
+
+	// Releases the lock taken by lock
+	void unlock(String key) {
+		locks[stripeOf(key)].unlock();
+	}
+
+	// Locks the stripes of two keys, lowest stripe first
+	void lockPair(String first, String second) {
+		int a = stripeOf(first);
+		int b = stripeOf(second);
+		locks[Math.min(a, b)].lock();
+		if (a != b) {
+			locks[Math.max(a, b)].lock();
+		}
+	}
+
+	// Releases the locks taken by lockPair
+	void unlockPair(String first, String second) {
+		int a = stripeOf(first);
+		int b = stripeOf(second);
+		if (a != b) {
+			locks[Math.max(a, b)].unlock();
+		}
+		locks[Math.min(a, b)].unlock();
+	}
+
+	// Locks every stripe in order
+	void lockAll() {
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+	}
+
+	// Releases the locks taken by lockAll
+	void unlockAll() {
+		for (int i = locks.length - 1; i >= 0; i--) {
+			locks[i].unlock();
+		}
+	}
+}
@@ -0,0 +1,1054 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+// Append-only log of every change made to a user registry and post registry.
+// Each change is encoded as one small checksummed record, so it costs O(1) I/O. Records are
+// collected in memory and a background thread writes and fsyncs them in batches (group commit).
+// When the log outgrows the last snapshot it is compacted: the full state is written as a
+// binary snapshot and the log starts over. Opening a log loads the snapshot and replays the
+// records written after it, stopping at the first torn or corrupt record left by a crash.
+// Compaction runs on the flusher thread and never reads the live registries, which keep
+// changing meanwhile: the log is set aside, a new one takes the records that follow, and the
+// set-aside log is folded into the old snapshot as a list of changed rows, which are written out
+// with the snapshot's other rows as the new snapshot. Records appended while it runs are written
+// once it is done.
+// When a write fails the log stops recording; the failure listener is told once and
+// getFailure() returns the error from then on.
+//
+// Files: <base>.snap holds the snapshot, <base>.log a header (magic, generation) followed by
+// records of [payload length][CRC32C of payload][payload], and <base>.log.old the log a running
+// compaction is folding into the snapshot. A log only applies on top of a snapshot with the
+// same or an older generation; a log older than the snapshot was already compacted.
+public class OperationLog implements Closeable {
+	private static final int MAGIC = 0x4F504C47; // "OPLG"
+	private static final int HEADER_SIZE = 12;
+	// How long records may wait before they are written and synced
+	private static final long FLUSH_INTERVAL_MS = 20;
+	// Pending bytes that make an append flush on the spot instead of waiting for the flusher
+	private static final int MAX_PENDING_BYTES = 1 << 20;
+	// Smallest log size that triggers a compaction
+	private static final long MIN_COMPACT_BYTES = 16L << 20;
+
+	// Record types
+	private static final byte USER_ADD = 1;
+	private static final byte USER_UPDATE = 2;
+	private static final byte USER_REMOVE = 3;
+	private static final byte USERS_CLEAR = 4;
+	private static final byte FRIEND_ADD = 5;
+	private static final byte FRIEND_REMOVE = 6;
+	private static final byte FRIENDS_CLEAR = 7;
+	private static final byte POST_ADD = 8;
+	private static final byte POST_UPDATE = 9;
+	private static final byte POST_REMOVE = 10;
+	private static final byte POSTS_CLEAR = 11;
+	private static final byte POST_SHARE = 12;
+	private static final byte POST_UNSHARE = 13;
+	private static final byte AUDIENCE_CLEAR = 14;
+
+	// Base path of the application's own log and snapshot, in the user's home directory so the
+	// session restored does not depend on the directory the application was started from
+	public static final String DEFAULT_BASE_PATH = Paths.get(System.getProperty("user.home"), "socialnetwork").toString();
+
+	private final Path snapshotPath;
+	private final Path logPath;
+	private final Path oldLogPath;
+	private final UserRegistry users;
+	private final PostRegistry posts;
+	private FileChannel channel;
+	private long generation;
+	// Bytes in the log file and size of the snapshot it builds on, for the compaction check
+	private long logBytes;
+	private long snapshotBytes;
+
+	// Encoder for the record being appended, only used by the mutating thread
+	private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+	private final CRC32C checksum = new CRC32C();
+	// Encoded records waiting for the flusher, guarded by pendingLock
+	private final Object pendingLock = new Object();
+	private ByteArrayOutputStream pending = new ByteArrayOutputStream(1 << 16);
+	// Held while writing to the file so the flusher and a compaction do not interleave
+	private final Object fileLock = new Object();
+	private final ScheduledExecutorService flusher;
+	// First write error, after which nothing more is recorded
+	private volatile IOException failure;
+	private volatile Consumer<IOException> failureListener;
+	private boolean closed;
+
+	private OperationLog(Path snapshotPath, Path logPath, UserRegistry users, PostRegistry posts) {
+		this.snapshotPath = snapshotPath;
+		this.logPath = logPath;
+		this.oldLogPath = Paths.get(logPath + ".old");
+		this.users = users;
+		this.posts = posts;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "operation-log-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// Restores the registries from <base>.snap and <base>.log, then records every later change
+	public static OperationLog open(String basePath, UserRegistry users, PostRegistry posts) throws IOException {
+		OperationLog log = new OperationLog(Paths.get(basePath + ".snap"), Paths.get(basePath + ".log"), users, posts);
+		log.recover();
+		users.setJournal(log);
+		posts.setJournal(log);
+		log.flusher.scheduleWithFixedDelay(log::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+		return log;
+	}
+
+	// Writes and syncs every record appended so far
+	public void sync() throws IOException {
+		synchronized (fileLock) {
+			if (failure != null) {
+				throw failure;
+			}
+			byte[] batch;
+			synchronized (pendingLock) {
+				if (pending.size() == 0) {
+					return;
+				}
+				batch = pending.toByteArray();
+				pending.reset();
+			}
+			try {
+				ByteBuffer buffer = ByteBuffer.wrap(batch);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(false);
+				logBytes += batch.length;
+			} catch (IOException e) {
+				fail(e);
+				throw e;
+			}
+		}
+	}
+
+	// Folds the log into a new snapshot and starts an empty log after it.
+	// Only reads files, so it may run on any thread while the registries keep changing.
+	public void compact() throws IOException {
+		synchronized (fileLock) {
+			sync();
+			try {
+				// set the log aside, records appended from now on go to the next generation
+				channel.close();
+				Files.move(logPath, oldLogPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				startLog(generation + 1);
+				// fold the set-aside log into the snapshot from the files alone
+				Compaction compaction = new Compaction(openSnapshot());
+				try (FileChannel oldLog = FileChannel.open(oldLogPath, StandardOpenOption.READ)) {
+					readRecords(oldLog, compaction::apply);
+				}
+				// once the snapshot is renamed into place the set-aside log is outdated, a crash before
+				// that replays it on top of the old snapshot instead
+				compaction.write(snapshotPath.toString(), generation);
+				Files.delete(oldLogPath);
+				snapshotBytes = Files.size(snapshotPath);
+			} catch (IOException e) {
+				fail(e);
+				throw e;
+			}
+		}
+	}
+
+	// Returns the error that stopped the log, or null while every change is being recorded
+	public IOException getFailure() {
+		return failure;
+	}
+
+	// Calls the listener once, on the thread that hit it, when a write fails and the log stops
+	// recording. A log that already failed calls it right away.
+	public void setFailureListener(Consumer<IOException> listener) {
+		failureListener = listener;
+		IOException error = failure;
+		if (error != null && listener != null) {
+			listener.accept(error);
+		}
+	}
+
+	// Flushes the remaining records and stops the flusher
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		users.setJournal(null);
+		posts.setJournal(null);
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (fileLock) {
+			try {
+				sync();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	// ===== Changes reported by the registries =====
+
+	void userAdded(UserManager user, Iterable<UserManager> friends) {
+		begin(USER_ADD);
+		writeString(user.getUserID());
+		writeString(user.getName());
+		writeInt(user.getAge());
+		// friends the user brought along from another list
+		ArrayList<String> friendIDs = new ArrayList<>();
+		if (friends != null) {
+			for (UserManager friend : friends) {
+				if (friend != null) {
+					friendIDs.add(friend.getUserID());
+				}
+			}
+		}
+		writeInt(friendIDs.size());
+		for (String friendID : friendIDs) {
+			writeString(friendID);
+		}
+		commit();
+	}
+
+	void userUpdated(String oldID, UserManager user) {
+		begin(USER_UPDATE);
+		writeString(oldID);
+		writeString(user.getUserID());
+		writeString(user.getName());
+		writeInt(user.getAge());
+		commit();
+	}
+
+	void userRemoved(UserManager user) {
+		begin(USER_REMOVE);
+		writeString(user.getUserID());
+		commit();
+	}
+
+	void usersCleared() {
+		begin(USERS_CLEAR);
+		commit();
+	}
+
+	void friendAdded(UserManager user, UserManager friend) {
+		begin(FRIEND_ADD);
+		writeString(user.getUserID());
+		writeString(friend.getUserID());
+		commit();
+	}
+
+	void friendRemoved(UserManager user, UserManager friend) {
+		begin(FRIEND_REMOVE);
+		writeString(user.getUserID());
+		writeString(friend.getUserID());
+		commit();
+	}
+
+	void friendsCleared(UserManager user) {
+		begin(FRIENDS_CLEAR);
+		writeString(user.getUserID());
+		commit();
+	}
+
+	void postAdded(PostManager post) {
+		begin(POST_ADD);
+		writeString(post.getPostID());
+		writeString(post.getCreator() == null ? null : post.getCreator().getUserID());
+		writeString(post.getContent());
+		writeInt(BinarySnapshot.epochDay(post.getCreationDate()));
+		writeInt(post.getSharedUsers().size());
+		for (UserManager member : post.getSharedUsers()) {
+			writeString(member.getUserID());
+		}
+		commit();
+	}
+
+	void postUpdated(String oldID, PostManager post) {
+		begin(POST_UPDATE);
+		writeString(oldID);
+		writeString(post.getPostID());
+		writeString(post.getCreator() == null ? null : post.getCreator().getUserID());
+		writeString(post.getContent());
+		writeInt(BinarySnapshot.epochDay(post.getCreationDate()));
+		commit();
+	}
+
+	void postRemoved(PostManager post) {
+		begin(POST_REMOVE);
+		writeString(post.getPostID());
+		commit();
+	}
+
+	void postsCleared() {
+		begin(POSTS_CLEAR);
+		commit();
+	}
+
+	void postShared(PostManager post, UserManager user) {
+		begin(POST_SHARE);
+		writeString(post.getPostID());
+		writeString(user.getUserID());
+		commit();
+	}
+
+	void postUnshared(PostManager post, UserManager user) {
+		begin(POST_UNSHARE);
+		writeString(post.getPostID());
+		writeString(user.getUserID());
+		commit();
+	}
+
+	void audienceCleared(PostManager post) {
+		begin(AUDIENCE_CLEAR);
+		writeString(post.getPostID());
+		commit();
+	}
+
+	// ===== Encoding =====
+
+	private void begin(byte type) {
+		recordBytes.reset();
+		recordBytes.write(type);
+	}
+
+	private void writeInt(int value) {
+		writeInt(recordBytes, value);
+	}
+
+	// writes a string as its UTF-8 length and bytes, -1 for null
+	private void writeString(String value) {
+		if (value == null) {
+			writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		recordBytes.write(bytes, 0, bytes.length);
+	}
+
+	// frames the encoded record and queues it for the flusher, the mutating thread never does I/O
+	private void commit() {
+		if (failure != null) {
+			return;
+		}
+		byte[] payload = recordBytes.toByteArray();
+		checksum.reset();
+		checksum.update(payload, 0, payload.length);
+		int crc = (int) checksum.getValue();
+		int before;
+		int pendingSize;
+		synchronized (pendingLock) {
+			before = pending.size();
+			writeInt(pending, payload.length);
+			writeInt(pending, crc);
+			pending.write(payload, 0, payload.length);
+			pendingSize = pending.size();
+		}
+		// wake the flusher early once, when the batch grows past the limit
+		if (before < MAX_PENDING_BYTES && pendingSize >= MAX_PENDING_BYTES) {
+			flusher.execute(this::flush);
+		}
+	}
+
+	// writes an int big-endian, the byte order ByteBuffer reads it back in
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	// runs on the flusher: writes the pending records and compacts the log once it outgrows the snapshot
+	private void flush() {
+		try {
+			synchronized (fileLock) {
+				sync();
+				if (logBytes > Math.max(MIN_COMPACT_BYTES, snapshotBytes)) {
+					compact();
+				}
+			}
+		} catch (IOException e) {
+			// fail() already stopped the log and told the listener
+		}
+	}
+
+	// stops the log at its first error and tells the listener
+	private void fail(IOException e) {
+		if (failure != null) {
+			return;
+		}
+		failure = e;
+		Consumer<IOException> listener = failureListener;
+		if (listener != null) {
+			listener.accept(e);
+		}
+	}
+
+	// ===== Recovery =====
+
+	// loads the snapshot, replays the matching logs and leaves the log open for appending
+	private void recover() throws IOException {
+		long snapshotGeneration = loadSnapshot(users, posts);
+		generation = snapshotGeneration;
+		// a compaction that did not finish left the log it was folding in beside the new one
+		boolean unfinished = false;
+		if (Files.exists(oldLogPath)) {
+			try (FileChannel oldLog = FileChannel.open(oldLogPath, StandardOpenOption.READ)) {
+				if (readGeneration(oldLog) >= snapshotGeneration) {
+					replay(oldLog, users, posts);
+					unfinished = true;
+				}
+			}
+			if (!unfinished) {
+				Files.delete(oldLogPath);
+			}
+		}
+		if (Files.exists(logPath)) {
+			channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			long logGeneration = readGeneration(channel);
+			if (logGeneration >= snapshotGeneration) {
+				generation = logGeneration;
+				long end = replay(channel, users, posts);
+				// drop a torn tail so new records follow the last good one
+				channel.truncate(end);
+				channel.position(end);
+				logBytes = end;
+			} else {
+				// the log predates the snapshot (or never got its header), so everything in it is already saved
+				channel.close();
+				startLog(generation);
+			}
+		} else {
+			startLog(generation);
+		}
+		if (unfinished) {
+			// finish it now, nothing else can change the registries before open returns
+			BinarySnapshot.write(snapshotPath.toString(), users, posts, generation + 1);
+			channel.close();
+			startLog(generation + 1);
+			Files.delete(oldLogPath);
+			snapshotBytes = Files.size(snapshotPath);
+		}
+	}
+
+	// loads the snapshot into the registries if there is one, returns its generation or 0
+	private long loadSnapshot(UserRegistry users, PostRegistry posts) throws IOException {
+		BinarySnapshot snapshot = openSnapshot();
+		if (snapshot == null) {
+			return 0;
+		}
+		snapshot.loadInto(users, posts);
+		return snapshot.generation();
+	}
+
+	// checks and opens the snapshot, or returns null if there is none yet
+	private BinarySnapshot openSnapshot() throws IOException {
+		if (!Files.exists(snapshotPath)) {
+			return null;
+		}
+		AtomicFileWriter.verify(snapshotPath.toString());
+		BinarySnapshot snapshot = BinarySnapshot.open(snapshotPath.toString());
+		snapshotBytes = Files.size(snapshotPath);
+		return snapshot;
+	}
+
+	// reads a log's header, returns its generation or -1 if the header is missing or damaged
+	private static long readGeneration(FileChannel log) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && log.read(header, header.position()) > 0) {
+		}
+		header.flip();
+		if (header.remaining() != HEADER_SIZE || header.getInt() != MAGIC) {
+			return -1;
+		}
+		return header.getLong();
+	}
+
+	// replays the records after a log's header into the registries, returns where the last good record ends
+	private static long replay(FileChannel log, UserRegistry users, PostRegistry posts) throws IOException {
+		HashMap<String, PostManager> postIndex = new HashMap<>();
+		Iterator<PostManager> iterator = posts.iterator();
+		while (iterator.hasNext()) {
+			PostManager post = iterator.next();
+			if (post != null) {
+				postIndex.put(post.getPostID(), post);
+			}
+		}
+		long end = readRecords(log, record -> apply(record, users, posts, postIndex));
+		users.finishBulkLoad();
+		return end;
+	}
+
+	// hands each good record after a log's header to the handler, returns where the last one ends
+	private static long readRecords(FileChannel log, Consumer<ByteBuffer> handler) throws IOException {
+		// its own checksum, since a compaction reads on the flusher while records are appended
+		CRC32C checksum = new CRC32C();
+		long position = HEADER_SIZE;
+		long size = log.size();
+		ByteBuffer frame = ByteBuffer.allocate(8);
+		while (position + 8 <= size) {
+			frame.clear();
+			log.read(frame, position);
+			frame.flip();
+			int length = frame.getInt();
+			int crc = frame.getInt();
+			if (length < 1 || position + 8 + length > size) {
+				break;
+			}
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			while (payload.hasRemaining() && log.read(payload, position + 8 + payload.position()) > 0) {
+			}
+			checksum.reset();
+			checksum.update(payload.array(), 0, length);
+			if ((int) checksum.getValue() != crc) {
+				break;
+			}
+			payload.flip();
+			handler.accept(payload);
+			position += 8 + length;
+		}
+		return position;
+	}
+
+	// applies one decoded record to the registries
+	private static void apply(ByteBuffer in, UserRegistry users, PostRegistry posts, HashMap<String, PostManager> postIndex) {
+		byte type = in.get();
+		switch (type) {
+			case USER_ADD: {
+				UserManager user = new UserManager(readString(in), readString(in), in.getInt());
+				users.insertLast(user);
+				int friends = in.getInt();
+				for (int i = 0; i < friends; i++) {
+					UserManager friend = users.findByID(readString(in));
+					if (friend != null) {
+						users.addFriendEdge(user, friend);
+					}
+				}
+				break;
+			}
+			case USER_UPDATE: {
+				UserManager user = users.findByID(readString(in));
+				String userID = readString(in);
+				String name = readString(in);
+				int age = in.getInt();
+				if (user != null) {
+					user.setUserID(userID);
+					user.setName(name);
+					user.setAge(age);
+				}
+				break;
+			}
+			case USER_REMOVE: {
+				UserManager user = users.findByID(readString(in));
+				if (user != null) {
+					users.delete(user);
+				}
+				break;
+			}
+			case USERS_CLEAR:
+				users.clear();
+				break;
+			case FRIEND_ADD: {
+				UserManager user = users.findByID(readString(in));
+				UserManager friend = users.findByID(readString(in));
+				if (user != null && friend != null) {
+					users.addFriendEdge(user, friend);
+				}
+				break;
+			}
+			case FRIEND_REMOVE: {
+				UserManager user = users.findByID(readString(in));
+				UserManager friend = users.findByID(readString(in));
+				if (user != null && friend != null) {
+					user.removeFriend(friend);
+				}
+				break;
+			}
+			case FRIENDS_CLEAR: {
+				UserManager user = users.findByID(readString(in));
+				if (user != null) {
+					user.getFriends().clear();
+				}
+				break;
+			}
+			case POST_ADD: {
+				String postID = readString(in);
+				UserManager creator = users.findByID(readString(in));
+				PostManager post = new PostManager(postID, creator, readString(in), BinarySnapshot.toCalendar(in.getInt()));
+				int audience = in.getInt();
+				for (int i = 0; i < audience; i++) {
+					post.shareWith(users.findByID(readString(in)));
+				}
+				posts.insertLast(post);
+				postIndex.put(postID, post);
+				break;
+			}
+			case POST_UPDATE: {
+				PostManager post = postIndex.remove(readString(in));
+				String postID = readString(in);
+				UserManager creator = users.findByID(readString(in));
+				String content = readString(in);
+				int day = in.getInt();
+				if (post != null) {
+					post.setPostID(postID);
+					post.setCreator(creator);
+					post.setContent(content);
+					post.setCreationDate(BinarySnapshot.toCalendar(day));
+					postIndex.put(postID, post);
+				}
+				break;
+			}
+			case POST_REMOVE: {
+				PostManager post = postIndex.remove(readString(in));
+				if (post != null) {
+					posts.delete(post);
+				}
+				break;
+			}
+			case POSTS_CLEAR:
+				posts.clear();
+				postIndex.clear();
+				break;
+			case POST_SHARE:
+			case POST_UNSHARE: {
+				PostManager post = postIndex.get(readString(in));
+				UserManager user = users.findByID(readString(in));
+				if (post != null && user != null) {
+					if (type == POST_SHARE) {
+						post.shareWith(user);
+					} else {
+						post.getSharedUsers().delete(user);
+					}
+				}
+				break;
+			}
+			case AUDIENCE_CLEAR: {
+				PostManager post = postIndex.get(readString(in));
+				if (post != null) {
+					post.getSharedUsers().clear();
+				}
+				break;
+			}
+			default:
+				throw new IllegalStateException("Unknown operation log record " + type);
+		}
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+		in.position(in.position() + length);
+		return value;
+	}
+
+	// replaces the log with an empty one for the given generation
+	private void startLog(long newGeneration) throws IOException {
+		Path logTemp = Paths.get(logPath + ".tmp");
+		try (FileChannel temp = FileChannel.open(logTemp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putLong(newGeneration).flip();
+			while (header.hasRemaining()) {
+				temp.write(header);
+			}
+			temp.force(true);
+		}
+		Files.move(logTemp, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		channel = FileChannel.open(logPath, StandardOpenOption.WRITE);
+		channel.position(HEADER_SIZE);
+		generation = newGeneration;
+		logBytes = HEADER_SIZE;
+	}
+
+	// ===== Compaction =====
+
+	// State a set-aside log ends in, kept as changes to the snapshot it builds on so a compaction
+	// does not build users and posts. Users and posts keep the snapshot's numbers, the ones the
+	// log adds are numbered after them, and only those the log touches get a row of their own;
+	// the rest are copied from the snapshot when the next one is written. Records are applied
+	// with the same rules as apply uses on the registries.
+	private static final class Compaction {
+		// Snapshot the log builds on, null if there is none
+		private final BinarySnapshot base;
+		private final int baseUsers;
+		private final int basePosts;
+		// Numbers handed out so far, and the users and posts removed since
+		private int userCount;
+		private int postCount;
+		private final BitSet removedUsers = new BitSet();
+		private final BitSet removedPosts = new BitSet();
+		// Users and posts the log touched, by number
+		private final HashMap<Integer, UserRow> userRows = new HashMap<>();
+		private final HashMap<Integer, PostRow> postRows = new HashMap<>();
+		// Snapshot users no longer under their stored ID, and the users the log gave an ID to,
+		// by ID in the order they got it
+		private final BitSet movedUsers = new BitSet();
+		private final HashMap<String, ArrayList<Integer>> userIDs = new HashMap<>();
+		// Posts by ID, built from the snapshot at the first post record
+		private HashMap<String, Integer> postIndex;
+
+		Compaction(BinarySnapshot base) {
+			this.base = base;
+			this.baseUsers = base == null ? 0 : base.userCount();
+			this.basePosts = base == null ? 0 : base.postCount();
+			this.userCount = baseUsers;
+			this.postCount = basePosts;
+		}
+
+		// applies one decoded record
+		void apply(ByteBuffer in) {
+			byte type = in.get();
+			switch (type) {
+				case USER_ADD: {
+					int user = userCount++;
+					UserRow row = new UserRow(readString(in), readString(in), in.getInt(), new IntCircularList());
+					userRows.put(user, row);
+					mapUser(row.userID, user);
+					int friends = in.getInt();
+					for (int i = 0; i < friends; i++) {
+						addFriend(user, findUser(readString(in)));
+					}
+					break;
+				}
+				case USER_UPDATE: {
+					int user = findUser(readString(in));
+					String userID = readString(in);
+					String name = readString(in);
+					int age = in.getInt();
+					if (user >= 0) {
+						UserRow row = userRow(user);
+						if (userID == null ? row.userID != null : !userID.equals(row.userID)) {
+							unmapUser(row.userID, user);
+							row.userID = userID;
+							mapUser(userID, user);
+						}
+						row.name = name;
+						row.age = age;
+					}
+					break;
+				}
+				case USER_REMOVE: {
+					int user = findUser(readString(in));
+					if (user >= 0) {
+						unmapUser(userRow(user).userID, user);
+						userRows.remove(user);
+						removedUsers.set(user);
+					}
+					break;
+				}
+				case USERS_CLEAR:
+					removedUsers.set(0, userCount);
+					movedUsers.set(0, baseUsers);
+					userRows.clear();
+					userIDs.clear();
+					break;
+				case FRIEND_ADD: {
+					int user = findUser(readString(in));
+					int friend = findUser(readString(in));
+					if (user >= 0) {
+						addFriend(user, friend);
+					}
+					break;
+				}
+				case FRIEND_REMOVE: {
+					int user = findUser(readString(in));
+					int friend = findUser(readString(in));
+					if (user >= 0 && friend >= 0) {
+						friendsOf(user).delete(friend);
+					}
+					break;
+				}
+				case FRIENDS_CLEAR: {
+					int user = findUser(readString(in));
+					if (user >= 0) {
+						userRow(user).friends = new IntCircularList();
+					}
+					break;
+				}
+				case POST_ADD: {
+					String postID = readString(in);
+					int creator = findUser(readString(in));
+					PostRow row = new PostRow(postID, creator, readString(in), in.getInt(), new IntCircularList());
+					int audience = in.getInt();
+					for (int i = 0; i < audience; i++) {
+						share(row.audience, findUser(readString(in)));
+					}
+					int post = postCount++;
+					postRows.put(post, row);
+					postIndex().put(postID, post);
+					break;
+				}
+				case POST_UPDATE: {
+					Integer post = postIndex().remove(readString(in));
+					String postID = readString(in);
+					int creator = findUser(readString(in));
+					String content = readString(in);
+					int day = in.getInt();
+					if (post != null) {
+						PostRow row = postRow(post);
+						row.postID = postID;
+						row.creator = creator;
+						row.content = content;
+						row.epochDay = day;
+						postIndex().put(postID, post);
+					}
+					break;
+				}
+				case POST_REMOVE: {
+					Integer post = postIndex().remove(readString(in));
+					if (post != null) {
+						postRows.remove(post);
+						removedPosts.set(post);
+					}
+					break;
+				}
+				case POSTS_CLEAR:
+					removedPosts.set(0, postCount);
+					postRows.clear();
+					postIndex().clear();
+					break;
+				case POST_SHARE:
+				case POST_UNSHARE: {
+					Integer post = postIndex().get(readString(in));
+					int user = findUser(readString(in));
+					if (post != null && user >= 0) {
+						IntCircularList audience = postRow(post).audience;
+						if (type == POST_SHARE) {
+							share(audience, user);
+						} else {
+							audience.delete(user);
+						}
+					}
+					break;
+				}
+				case AUDIENCE_CLEAR: {
+					Integer post = postIndex().get(readString(in));
+					if (post != null) {
+						postRow(post).audience = new IntCircularList();
+					}
+					break;
+				}
+				default:
+					throw new IllegalStateException("Unknown operation log record " + type);
+			}
+		}
+
+		// Writes the next snapshot, numbering the remaining users and posts in order
+		void write(String filePath, long generation) throws IOException {
+			int[] numbers = new int[userCount];
+			int next = 0;
+			for (int user = 0; user < userCount; user++) {
+				numbers[user] = removedUsers.get(user) ? -1 : next++;
+			}
+			BinarySnapshot.Builder builder = new BinarySnapshot.Builder();
+			for (int user = 0; user < userCount; user++) {
+				if (numbers[user] < 0) {
+					continue;
+				}
+				UserRow row = userRows.get(user);
+				if (row == null) {
+					builder.addUser(base.userID(user), base.userName(user), base.userAge(user));
+				} else {
+					builder.addUser(row.userID, row.name, row.age);
+				}
+				if (row == null || row.friends == null) {
+					for (int k = 0; k < base.friendCount(user); k++) {
+						addTarget(builder, numbers[base.friend(user, k)], true);
+					}
+				} else {
+					row.friends.forEach(friend -> addTarget(builder, numbers[friend], true));
+				}
+			}
+			for (int post = 0; post < postCount; post++) {
+				if (removedPosts.get(post)) {
+					continue;
+				}
+				PostRow row = postRows.get(post);
+				if (row == null) {
+					int creator = base.postCreator(post);
+					builder.addPost(base.postID(post), creator < 0 ? -1 : numbers[creator], base.postContent(post), base.postEpochDay(post));
+				} else {
+					builder.addPost(row.postID, row.creator < 0 ? -1 : numbers[row.creator], row.content, row.epochDay);
+				}
+				if (row == null || row.audience == null) {
+					for (int k = 0; k < base.audienceSize(post); k++) {
+						addTarget(builder, numbers[base.audienceMember(post, k)], false);
+					}
+				} else {
+					row.audience.forEach(member -> addTarget(builder, numbers[member], false));
+				}
+			}
+			builder.write(filePath, generation);
+		}
+
+		// adds a friend or audience member unless they were removed
+		private static void addTarget(BinarySnapshot.Builder builder, int number, boolean friend) {
+			if (number < 0) {
+				return;
+			}
+			if (friend) {
+				builder.addFriend(number);
+			} else {
+				builder.addAudienceMember(number);
+			}
+		}
+
+		// finds the first user with an ID like the registry's index does, or -1
+		private int findUser(String userID) {
+			if (userID == null) {
+				return -1;
+			}
+			// users still under the ID they were loaded with were indexed before any the log added
+			int user = base == null ? -1 : base.findUser(userID, movedUsers);
+			if (user >= 0) {
+				return user;
+			}
+			ArrayList<Integer> users = userIDs.get(userID);
+			return users == null ? -1 : users.get(0);
+		}
+
+		private void mapUser(String userID, int user) {
+			if (userID != null) {
+				userIDs.computeIfAbsent(userID, key -> new ArrayList<>(1)).add(user);
+			}
+		}
+
+		private void unmapUser(String userID, int user) {
+			if (user < baseUsers) {
+				movedUsers.set(user);
+			}
+			ArrayList<Integer> users = userID == null ? null : userIDs.get(userID);
+			if (users != null) {
+				users.remove(Integer.valueOf(user));
+				if (users.isEmpty()) {
+					userIDs.remove(userID);
+				}
+			}
+		}
+
+		// adds a friend edge unless the friend is unknown or already there
+		private void addFriend(int user, int friend) {
+			if (friend < 0) {
+				return;
+			}
+			IntCircularList friends = friendsOf(user);
+			if (!friends.contains(friend)) {
+				friends.add(friend);
+			}
+		}
+
+		private static void share(IntCircularList audience, int user) {
+			if (user >= 0 && !audience.contains(user)) {
+				audience.add(user);
+			}
+		}
+
+		// returns the row of a user, copying it from the snapshot the first time
+		private UserRow userRow(int user) {
+			UserRow row = userRows.get(user);
+			if (row == null) {
+				row = new UserRow(base.userID(user), base.userName(user), base.userAge(user), null);
+				userRows.put(user, row);
+			}
+			return row;
+		}
+
+		// returns the friends of a user for changing, copying them from the snapshot the first time
+		private IntCircularList friendsOf(int user) {
+			UserRow row = userRow(user);
+			if (row.friends == null) {
+				row.friends = new IntCircularList(base.friendCount(user));
+				for (int k = 0; k < base.friendCount(user); k++) {
+					row.friends.add(base.friend(user, k));
+				}
+			}
+			return row.friends;
+		}
+
+		// returns the row of a post with its audience, copying it from the snapshot the first time
+		private PostRow postRow(int post) {
+			PostRow row = postRows.get(post);
+			if (row == null) {
+				IntCircularList audience = new IntCircularList(base.audienceSize(post));
+				for (int k = 0; k < base.audienceSize(post); k++) {
+					audience.add(base.audienceMember(post, k));
+				}
+				row = new PostRow(base.postID(post), base.postCreator(post), base.postContent(post), base.postEpochDay(post), audience);
+				postRows.put(post, row);
+			}
+			return row;
+		}
+
+		// posts by ID, the later of two posts sharing an ID wins like in replay
+		private HashMap<String, Integer> postIndex() {
+			if (postIndex == null) {
+				postIndex = new HashMap<>();
+				for (int post = 0; post < basePosts; post++) {
+					postIndex.put(base.postID(post), post);
+				}
+			}
+			return postIndex;
+		}
+	}
+
+	// User fields after the log's changes, friends null while they are the snapshot's
+	private static final class UserRow {
+		String userID;
+		String name;
+		int age;
+		IntCircularList friends;
+
+		UserRow(String userID, String name, int age, IntCircularList friends) {
+			this.userID = userID;
+			this.name = name;
+			this.age = age;
+			this.friends = friends;
+		}
+	}
+
+	// Post fields after the log's changes
+	private static final class PostRow {
+		String postID;
+		int creator;
+		String content;
+		int epochDay;
+		IntCircularList audience;
+
+		PostRow(String postID, int creator, String content, int epochDay, IntCircularList audience) {
+			this.postID = postID;
+			this.creator = creator;
+			this.content = content;
+			this.epochDay = epochDay;
+			this.audience = audience;
+		}
+	}
+}
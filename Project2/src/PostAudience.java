@@ -0,0 +1,187 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Set of users a post is shared with.
+// Users are stored as their interned numbers in a registry's friendship graph inside a
+// compressed bitmap, so sharing, unsharing and membership checks don't scan the audience.
+// Users that are not part of that registry are kept in a small overflow list. The audience holds
+// the numbers it stores (see FriendshipGraph.retain), so a user removed from the registry keeps
+// their number, and their place in the audience, until the audience lets go of them.
+// Iteration goes by vertex number, then through the overflow list in insertion order.
+// Most posts are shared with nobody, so the bitmap and the list are only made for the first
+// user that needs them.
+public class PostAudience implements Iterable<UserManager> {
+	// Graph whose interned user numbers the bitmap holds, picked from the first registered user
+	private FriendshipGraph space;
+	private CompressedBitmap members;
+	// Users that could not be interned in the graph above, null until there is one
+	private FriendList overflow;
+	// Post this audience belongs to, delivered to the inbox of each member while published
+	private PostManager post;
+
+	// Creates an empty audience for a post
+	public PostAudience(PostManager post) {
+		this.post = post;
+	}
+
+	// Adds a user to the audience, returns false if they were already in it
+	public boolean add(UserManager user) {
+		if (user == null || !insert(user)) {
+			return false;
+		}
+		if (post.isPublished() && user != post.getCreator()) {
+			user.getInbox().add(post);
+		}
+		post.markChanged();
+		OperationLog journal = post.getJournal();
+		if (journal != null) {
+			journal.postShared(post, user);
+		}
+		return true;
+	}
+
+	// Adds a user to the audience, kept for callers written against the list API
+	public void insertLast(UserManager user) {
+		add(user);
+	}
+
+	// Checks if the user is in the audience
+	public boolean contains(UserManager user) {
+		if (user == null) {
+			return false;
+		}
+		if (space != null) {
+			int id = space.indexOf(user);
+			if (id >= 0 && members.contains(id)) {
+				return true;
+			}
+		}
+		return overflow != null && overflow.contains(user);
+	}
+
+	// Removes a user from the audience
+	public void delete(UserManager user) {
+		if (user == null) {
+			return;
+		}
+		boolean removed = false;
+		if (space != null) {
+			int id = space.indexOf(user);
+			removed = id >= 0 && members.remove(id);
+			if (removed) {
+				space.release(id);
+			}
+		}
+		if (!removed && overflow != null && overflow.contains(user)) {
+			overflow.delete(user);
+			removed = true;
+		}
+		if (removed && post.isPublished()) {
+			user.getInbox().remove(post);
+		}
+		if (removed) {
+			post.markChanged();
+		}
+		OperationLog journal = post.getJournal();
+		if (removed && journal != null) {
+			journal.postUnshared(post, user);
+		}
+	}
+
+	// Returns the number of users in the audience
+	public int size() {
+		return (members == null ? 0 : members.cardinality()) + (overflow == null ? 0 : overflow.size());
+	}
+
+	// Checks if the post is shared with nobody
+	public boolean isEmpty() {
+		return (members == null || members.isEmpty()) && (overflow == null || overflow.isEmpty());
+	}
+
+	// Removes every user from the audience
+	public void clear() {
+		if (post.isPublished()) {
+			for (UserManager user : this) {
+				user.getInbox().remove(post);
+			}
+		}
+		if (space != null) {
+			FriendshipGraph graph = space;
+			members.forEach(graph::release);
+		}
+		// the next user shared with allocates again, so a cleared audience costs nothing
+		members = null;
+		overflow = null;
+		space = null;
+		post.markChanged();
+		OperationLog journal = post.getJournal();
+		if (journal != null) {
+			journal.audienceCleared(post);
+		}
+	}
+
+	// Iterates over the registered users first, then over the overflow list
+	@Override
+	public Iterator<UserManager> iterator() {
+		int[] ids = members == null ? new int[0] : members.toArray();
+		FriendshipGraph graph = space;
+		Iterator<UserManager> rest = overflow == null ? Collections.emptyIterator() : overflow.iterator();
+		return new Iterator<UserManager>() {
+			private int position = 0;
+
+			@Override
+			public boolean hasNext() {
+				return position < ids.length || rest.hasNext();
+			}
+
+			@Override
+			public UserManager next() {
+				if (position < ids.length) {
+					return graph.userAt(ids[position++]);
+				}
+				if (!rest.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return rest.next();
+			}
+		};
+	}
+
+	// stores a user in the bitmap or the overflow list, returns false if already present
+	private boolean insert(UserManager user) {
+		FriendshipGraph graph = graphOf(user);
+		if (graph != null) {
+			if (space == null) {
+				space = graph;
+				members = new CompressedBitmap();
+			}
+			if (graph == space) {
+				int id = space.intern(user);
+				if (!members.add(id)) {
+					return false;
+				}
+				space.retain(id);
+				return true;
+			}
+		}
+		if (overflow == null) {
+			overflow = new FriendList();
+		} else if (overflow.contains(user)) {
+			return false;
+		}
+		overflow.insertLast(user);
+		return true;
+	}
+
+	// graph of the registry that owns the user, if any
+	private static FriendshipGraph graphOf(UserManager user) {
+		UserRegistry registry = user.getRegistry();
+		return registry == null ? null : registry.getGraph();
+	}
+}
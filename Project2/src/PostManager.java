@@ -4,9 +4,7 @@
 // section 7
 
 import java.util.Calendar;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Handles post data and sharing functionality in the social network application
 public class PostManager implements Comparable<PostManager> {
@@ -16,14 +14,14 @@ public class PostManager implements Comparable<PostManager> {
     private String content;
     private Calendar creationDate;
     
-    // List of users this post is shared with
-    private CircularDoublyLinkedList<UserManager> sharedUsers;
+    // Users this post is shared with
+    private PostAudience sharedUsers;
     
-    // Properties for table display
-    private SimpleStringProperty postIDProperty;
-    private SimpleStringProperty contentProperty;
-    private SimpleStringProperty dateProperty;
-    private SimpleStringProperty authorProperty;
+    // Post list that publishes this post to the inboxes of its audience, null while unpublished
+    private PostRegistry registry;
+    // Creation order, used to keep posts with equal dates apart, atomic since posts can be built on loader threads
+    private final long sequence;
+    private static final AtomicLong nextSequence = new AtomicLong();
 
     // Creates a new post with the given information
     public PostManager(String postID, UserManager creator, String content, Calendar creationDate) {
@@ -31,25 +29,22 @@ public class PostManager implements Comparable<PostManager> {
         this.creator = creator;
         this.content = content;
         this.creationDate = creationDate;
-        this.sharedUsers = new CircularDoublyLinkedList<UserManager>();
-        
-        // Initialize table display properties
-        this.postIDProperty = new SimpleStringProperty(postID);
-        this.contentProperty = new SimpleStringProperty(content);
-        this.dateProperty = new SimpleStringProperty(formatDate(creationDate));
-        
-        // Set author name for display
-        String authorName = creator != null ? creator.getName() : "Unknown";
-        this.authorProperty = new SimpleStringProperty(authorName);
-    }
-    
-    // Formats a Calendar date into a readable string (DD.MM.YYYY)
-    private String formatDate(Calendar date) {
-        if (date == null) return "";
+        this.sharedUsers = new PostAudience(this);
+        this.sequence = nextSequence.getAndIncrement();
+    }
+    
+    // Formats the creation date into a readable string (DD.MM.YYYY)
+    public String getFormattedDate() {
+        if (creationDate == null) return "";
         return String.format("%02d.%02d.%d", 
-            date.get(Calendar.DAY_OF_MONTH),
-            date.get(Calendar.MONTH) + 1,
-            date.get(Calendar.YEAR));
+            creationDate.get(Calendar.DAY_OF_MONTH),
+            creationDate.get(Calendar.MONTH) + 1,
+            creationDate.get(Calendar.YEAR));
+    }
+    
+    // Returns the creator's name for display, or "Unknown"
+    public String getAuthorName() {
+        return creator != null ? creator.getName() : "Unknown";
     }
 
     // Creates a new post and optionally shares it with all friends
@@ -64,47 +59,115 @@ public class PostManager implements Comparable<PostManager> {
     // Basic getters and setters for post properties
     public String getPostID() { return postID; }
     public void setPostID(String postID) { 
+        String oldID = this.postID;
         this.postID = postID;
-        this.postIDProperty.set(postID);
+        if (registry != null) {
+            registry.postIDChanged(this, oldID);
+        }
+        logUpdate(oldID);
     }
     
     public UserManager getCreator() { return creator; }
     public void setCreator(UserManager creator) { 
+        // the post moves to the new creator's timeline and leaves their inbox
+        boolean published = registry != null;
+        if (published) {
+            retract();
+        }
         this.creator = creator;
-        this.authorProperty.set(creator != null ? creator.getName() : "Unknown");
+        if (published) {
+            deliver();
+        }
+        logUpdate(postID);
     }
     
     public String getContent() { return content; }
     public void setContent(String content) { 
         this.content = content;
-        this.contentProperty.set(content);
+        logUpdate(postID);
     }
     
     public Calendar getCreationDate() { return creationDate; }
     public void setCreationDate(Calendar creationDate) { 
+        // timelines are ordered by date, so take the post out before the date changes
+        boolean published = registry != null;
+        if (published) {
+            retract();
+        }
         this.creationDate = creationDate;
-        this.dateProperty.set(formatDate(creationDate));
+        if (published) {
+            deliver();
+        }
+        logUpdate(postID);
+    }
+    
+    long getSequence() { return sequence; }
+    
+    PostRegistry getRegistry() { return registry; }
+    void setRegistry(PostRegistry registry) { this.registry = registry; }
+    
+    // Checks if the post is in a post list and visible in its audience's inboxes
+    public boolean isPublished() { return registry != null; }
+    
+    // Operation log of the registry this post is published in, or null
+    OperationLog getJournal() { return registry != null ? registry.getJournal() : null; }
+    
+    // Tells the registry the post is published in that the post or its audience changed
+    void markChanged() {
+        if (registry != null) {
+            registry.postChanged();
+        }
+    }
+    
+    // records the post's current fields under the ID it had before the change
+    private void logUpdate(String oldID) {
+        markChanged();
+        OperationLog journal = getJournal();
+        if (journal != null) {
+            journal.postUpdated(oldID, this);
+        }
+    }
+    
+    // Adds this post to the creator's timeline and to the inbox of every other user it is shared with
+    void deliver() {
+        if (creator != null) {
+            creator.getCreatedPosts().add(this);
+        }
+        for (UserManager user : sharedUsers) {
+            if (user != creator) {
+                user.getInbox().add(this);
+            }
+        }
+    }
+    
+    // Takes this post out of the creator's timeline and out of every inbox
+    void retract() {
+        if (creator != null) {
+            creator.getCreatedPosts().remove(this);
+        }
+        for (UserManager user : sharedUsers) {
+            user.getInbox().remove(this);
+        }
     }
 
-    // Returns the list of users this post is shared with
-    public CircularDoublyLinkedList<UserManager> getSharedUsers() { return sharedUsers; }
+    // Returns the users this post is shared with
+    public PostAudience getSharedUsers() { return sharedUsers; }
 
     // Shares this post with a specific user
     public void shareWith(UserManager user) {
-        if (!sharedUsers.contains(user)) {
-            sharedUsers.insertLast(user);
-        }
+        sharedUsers.add(user);
+    }
+
+    // Checks if this post is shared with a specific user
+    public boolean isSharedWith(UserManager user) {
+        return sharedUsers.contains(user);
     }
     
     // Shares this post with all friends of the creator
     public void shareWithAllFriends() {
         if (creator == null) return;
-        CircularDoublyLinkedList<UserManager> friends = creator.getFriends();
-        if (friends == null) return;
-        
-        Iterator<UserManager> iterator = friends.iterator();
-        while (iterator.hasNext()) {
-            UserManager friend = iterator.next();
+        // read the friends from the graph so sharing does not build the creator's friend list
+        for (UserManager friend : creator.friends()) {
             if (friend != null) {
                 shareWith(friend);
             }
@@ -129,10 +192,4 @@ public class PostManager implements Comparable<PostManager> {
         if (other.creationDate == null) return 1;
         return other.creationDate.compareTo(creationDate);
     }
-
-    // Getter methods for table display properties
-    public SimpleStringProperty postIDProperty() { return postIDProperty; }
-    public SimpleStringProperty contentProperty() { return contentProperty; }
-    public SimpleStringProperty dateProperty() { return dateProperty; }
-    public SimpleStringProperty authorProperty() { return authorProperty; }
 } 
@@ -152,7 +152,7 @@ public class PostManagerUI {
             PostManager post = cellData.getValue();
             String sharedWithUsers = "";
             
-            CircularDoublyLinkedList<UserManager> sharedWith = post.getSharedUsers();
+            PostAudience sharedWith = post.getSharedUsers();
             
             if (sharedWith != null) {
                 Iterator<UserManager> iterator = sharedWith.iterator();
@@ -209,10 +209,7 @@ public class PostManagerUI {
         deletePostButton.setOnAction(e -> deleteSelectedPost());
         
         Button uploadPostsButton = new Button("Upload Posts");
-        uploadPostsButton.setOnAction(e -> {
-            handlePostFileUpload();
-            refreshPostTable();
-        });
+        uploadPostsButton.setOnAction(e -> handlePostFileUpload());
         
         actionButtonsBox.getChildren().addAll(addPostButton, editPostButton, deletePostButton, uploadPostsButton);
         return actionButtonsBox;
@@ -265,11 +262,13 @@ public class PostManagerUI {
         
         File file = fileChooser.showOpenDialog(null);
         if (file != null) {
-            CircularDoublyLinkedList<PostManager> loadedPosts = fileManager.loadPosts(file.getAbsolutePath(), users);
-            if (loadedPosts != null) {
-                posts = loadedPosts;
-                tableManager.refreshPostTable(posts);
-            }
+            // the posts join the shared list like uploaded users do, so the timelines, the
+            // counters, the dialogs and the operation log all see the same posts, and they show
+            // up at the end of the table as they land
+            tableManager.followPosts(posts);
+            BackgroundImport.start("Loading Posts", file,
+                    (path, progress) -> fileManager.stagePosts(path, posts, users, ChunkedImport.defaultThreads(), progress),
+                    tableManager::showNewPosts, tableManager::showNewPosts);
         }
     }
 
@@ -0,0 +1,109 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Iterator;
+
+// Post list that publishes its posts: while a post is in the list it appears in the
+// inbox of every user it is shared with, and removing it takes it out of those inboxes.
+public class PostRegistry extends CircularDoublyLinkedList<PostManager> {
+	// Index from post ID to the post, which other threads can read too
+	private final ConcurrentPostStore idIndex = new ConcurrentPostStore();
+	// Operation log that records changes to the posts, if one is attached
+	private OperationLog journal;
+	// Changes the list version does not count: edited posts and changed audiences
+	private int changes;
+
+	// Creates an empty post registry
+	public PostRegistry() {
+		super();
+	}
+
+	// finds a post by its ID, safe to call from any thread
+	public PostManager findByID(String postID) {
+		return idIndex.find(postID);
+	}
+
+	// Checks if a post with the given ID is in the list
+	public boolean containsID(String postID) {
+		return idIndex.containsID(postID);
+	}
+
+	// Moves a post to its new key after its ID was changed
+	void postIDChanged(PostManager post, String oldID) {
+		idIndex.move(post, oldID);
+	}
+
+	@Override
+	protected void linked(Node<PostManager> node) {
+		PostManager post = node.data;
+		if (post != null) {
+			idIndex.add(post);
+		}
+		if (post != null && post.getRegistry() != this) {
+			if (post.getRegistry() != null) {
+				post.retract();
+			}
+			post.setRegistry(this);
+			post.deliver();
+			if (journal != null) {
+				journal.postAdded(post);
+			}
+		}
+	}
+
+	// Returns a number that grows with every change to the posts, their fields or their
+	// audiences, so cached results over the posts can tell when they are out of date
+	public long changeCount() {
+		return (long) version() + changes;
+	}
+
+	// Counts a change to a published post
+	void postChanged() {
+		changes++;
+	}
+
+	// Returns the operation log attached to this registry, or null
+	OperationLog getJournal() {
+		return journal;
+	}
+
+	// Attaches an operation log that records every later change, or detaches it with null
+	void setJournal(OperationLog journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	protected void unlinked(Node<PostManager> node) {
+		PostManager post = node.data;
+		if (post != null) {
+			idIndex.remove(post, post.getPostID());
+		}
+		if (post != null && post.getRegistry() == this) {
+			post.retract();
+			post.setRegistry(null);
+			if (journal != null) {
+				journal.postRemoved(post);
+			}
+		}
+	}
+
+	// Removes all posts and takes them out of every inbox
+	@Override
+	public void clear() {
+		Iterator<PostManager> iterator = iterator();
+		while (iterator.hasNext()) {
+			PostManager post = iterator.next();
+			if (post != null && post.getRegistry() == this) {
+				post.retract();
+				post.setRegistry(null);
+			}
+		}
+		super.clear();
+		idIndex.clear();
+		if (journal != null) {
+			journal.postsCleared();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+// Published posts of one user, kept newest first.
+// Each user has one timeline for the posts they created and one inbox for the posts shared
+// with them; both are updated as posts are published, shared, edited and removed, so
+// reading them never scans other posts.
+//
+// A timeline can be frozen for a report snapshot. The frozen set is shared rather than copied,
+// and the next change to the timeline copies the set first, so the snapshot keeps the posts as
+// they were while only timelines edited after the capture pay for a copy.
+public class PostTimeline implements Iterable<PostManager> {
+	// Newest first like PostManager.compareTo, ties broken by creation order so no post is lost
+	static final Comparator<PostManager> ORDER = (first, second) -> {
+		int result = first.compareTo(second);
+		return result != 0 ? result : Long.compare(first.getSequence(), second.getSequence());
+	};
+
+	// User whose posts these are, told of every change so report captures can see it
+	private final UserManager owner;
+	private TreeSet<PostManager> posts;
+	// Set while a frozen view shares the posts, the next change copies them first
+	private boolean shared;
+
+	// Creates an empty timeline
+	public PostTimeline() {
+		this(null);
+	}
+
+	// Creates an empty timeline of the given user's posts
+	PostTimeline(UserManager owner) {
+		this.owner = owner;
+		this.posts = new TreeSet<>(ORDER);
+	}
+
+	// Adds a post to the timeline
+	void add(PostManager post) {
+		unshare();
+		if (posts.add(post)) {
+			changed();
+		}
+	}
+
+	// Removes a post from the timeline
+	void remove(PostManager post) {
+		unshare();
+		if (posts.remove(post)) {
+			changed();
+		}
+	}
+
+	// Returns the posts as they are now, newest first, as a view that later changes to the
+	// timeline never reach. Call it on the thread that edits the timeline.
+	SortedSet<PostManager> freeze() {
+		shared = true;
+		return Collections.unmodifiableSortedSet(posts);
+	}
+
+	// Checks if a post is in the timeline
+	public boolean contains(PostManager post) {
+		return post != null && posts.contains(post);
+	}
+
+	// Returns the number of posts
+	public int size() {
+		return posts.size();
+	}
+
+	// Checks if the timeline has no posts
+	public boolean isEmpty() {
+		return posts.isEmpty();
+	}
+
+	// Returns the date of the newest dated post, or null if there is none
+	public Calendar newestDate() {
+		for (PostManager post : posts) {
+			if (post.getCreationDate() != null) {
+				return post.getCreationDate();
+			}
+		}
+		return null;
+	}
+
+	// Iterates over the posts, newest first
+	@Override
+	public Iterator<PostManager> iterator() {
+		return posts.iterator();
+	}
+
+	// tells the owner's registry that what the reports read about the owner changed
+	private void changed() {
+		if (owner != null && owner.getRegistry() != null) {
+			owner.getRegistry().userChanged(owner);
+		}
+	}
+
+	// gives the timeline its own copy of the posts if a frozen view still shares them
+	private void unshare() {
+		if (shared) {
+			posts = new TreeSet<>(posts);
+			shared = false;
+		}
+	}
+}
@@ -0,0 +1,314 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Calendar;
+
+// Streams comma separated records out of a file without splitting lines into Strings.
+// The file is read through a FileChannel into one reusable buffer, each record is tokenized
+// in place into field offsets, and numbers and dates are parsed straight from the bytes.
+// Fields follow the same rules as String.split(",") with trim(): surrounding spaces are
+// ignored and empty fields at the end of a line are dropped.
+public class RecordReader implements Closeable {
+	// Size of the read buffer, grown only if a single line does not fit
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	// Next file offset to read from and the offset where this reader must stop
+	private long filePosition;
+	private final long fileEnd;
+	private ByteBuffer buffer;
+	private byte[] bytes;
+	// Unread bytes are bytes[position .. limit)
+	private int position;
+	private int limit;
+	private boolean endOfFile;
+	// Number of bytes of the file consumed before the buffer start, for progress reporting
+	private long consumed;
+	// Import progress this reader reports to, with what it has not reported yet
+	private ImportProgress progress;
+	private long reportedBytes;
+	private int unreportedRecords;
+
+	// Trimmed start and end offsets of each field of the current record
+	private int[] fieldStarts = new int[8];
+	private int[] fieldEnds = new int[8];
+	private int fieldCount;
+
+	// Opens a file for reading
+	public RecordReader(String filePath) throws IOException {
+		this(FileChannel.open(Paths.get(filePath), StandardOpenOption.READ));
+	}
+
+	// Opens a file and reads only the lines in bytes [start, end), which should be line aligned
+	public RecordReader(String filePath, long start, long end) throws IOException {
+		this(FileChannel.open(Paths.get(filePath), StandardOpenOption.READ), start, end);
+	}
+
+	// Reads records from an open channel, starting at its current position
+	public RecordReader(FileChannel channel) throws IOException {
+		this(channel, channel.position(), Long.MAX_VALUE);
+	}
+
+	private RecordReader(FileChannel channel, long start, long end) {
+		this.channel = channel;
+		this.filePosition = start;
+		this.fileEnd = end;
+		this.buffer = ByteBuffer.allocate((int) Math.max(1024, Math.min(BUFFER_SIZE, end - start)));
+		this.bytes = buffer.array();
+	}
+
+	// Splits a file into at most parts byte ranges that each start at the beginning of a line.
+	// Returns the range boundaries, first 0 and last the file size.
+	public static long[] splitLines(String filePath, int parts) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			long size = channel.size();
+			parts = (int) Math.max(1, Math.min(parts, size));
+			long[] bounds = new long[parts + 1];
+			ByteBuffer probe = ByteBuffer.allocate(4096);
+			for (int i = 1; i < parts; i++) {
+				// a range starts right after the first newline at or after the byte before its nominal start
+				long offset = Math.max(bounds[i - 1], size * i / parts - 1);
+				long boundary = size;
+				while (offset < size && boundary == size) {
+					probe.clear();
+					int read = channel.read(probe, offset);
+					if (read <= 0) {
+						break;
+					}
+					for (int j = 0; j < read; j++) {
+						if (probe.get(j) == '\n') {
+							boundary = offset + j + 1;
+							break;
+						}
+					}
+					offset += read;
+				}
+				bounds[i] = Math.max(bounds[i - 1], boundary);
+			}
+			bounds[parts] = size;
+			return bounds;
+		}
+	}
+
+	// Moves to the next line, returns false at the end of the file
+	public boolean nextRecord() throws IOException {
+		int end = findLineEnd();
+		while (end < 0) {
+			if (endOfFile) {
+				if (position == limit) {
+					reportProgress();
+					return false;
+				}
+				end = limit;
+				break;
+			}
+			reportProgress();
+			fill();
+			end = findLineEnd();
+		}
+		unreportedRecords++;
+		int lineStart = position;
+		position = end < limit ? end + 1 : end;
+		if (end > lineStart && bytes[end - 1] == '\r') {
+			end--;
+		}
+		tokenize(lineStart, end);
+		return true;
+	}
+
+	// Returns how many fields the current record has
+	public int fieldCount() {
+		return fieldCount;
+	}
+
+	// Returns a field as a String
+	public String getString(int field) {
+		int start = fieldStarts[field];
+		int end = fieldEnds[field];
+		for (int i = start; i < end; i++) {
+			if (bytes[i] < 0) {
+				return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+			}
+		}
+		// plain ASCII maps one byte to one char, which skips the UTF-8 decoder
+		return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+	}
+
+	// Parses a field as a decimal int
+	public int getInt(int field) {
+		return parseInt(fieldStarts[field], fieldEnds[field]);
+	}
+
+	// Parses a field as true when it reads "true" in any case, like Boolean.parseBoolean
+	public boolean getBoolean(int field) {
+		int start = fieldStarts[field];
+		if (fieldEnds[field] - start != 4) {
+			return false;
+		}
+		return (bytes[start] | 0x20) == 't' && (bytes[start + 1] | 0x20) == 'r'
+				&& (bytes[start + 2] | 0x20) == 'u' && (bytes[start + 3] | 0x20) == 'e';
+	}
+
+	// Parses a DD.MM.YYYY field into a Calendar, or null if it does not have three parts
+	public Calendar getDate(int field) {
+		int start = fieldStarts[field];
+		int end = fieldEnds[field];
+		int firstDot = indexOf('.', start, end);
+		int secondDot = firstDot < 0 ? -1 : indexOf('.', firstDot + 1, end);
+		if (secondDot < 0 || indexOf('.', secondDot + 1, end) >= 0) {
+			return null;
+		}
+		int day = parseInt(start, firstDot);
+		int month = parseInt(firstDot + 1, secondDot) - 1;
+		int year = parseInt(secondDot + 1, end);
+		Calendar calendar = Calendar.getInstance();
+		calendar.set(year, month, day);
+		return calendar;
+	}
+
+	// Returns how many bytes of the file have been consumed so far
+	public long bytesRead() {
+		return consumed + position;
+	}
+
+	// Reports bytes and records read to an import's progress each time the buffer is refilled.
+	// Once the import is cancelled the next report throws a CancellationException.
+	void setProgress(ImportProgress progress) {
+		this.progress = progress;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	// finds the next newline in the unread bytes, or -1 if more input is needed
+	private int findLineEnd() {
+		for (int i = position; i < limit; i++) {
+			if (bytes[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// passes the bytes and records read since the last report on to the import's progress
+	private void reportProgress() {
+		if (progress != null) {
+			long read = bytesRead();
+			progress.advance(read - reportedBytes, unreportedRecords);
+			reportedBytes = read;
+			unreportedRecords = 0;
+		}
+	}
+
+	// moves the unread tail to the front of the buffer and reads more bytes after it
+	private void fill() throws IOException {
+		int remaining = limit - position;
+		if (position > 0) {
+			System.arraycopy(bytes, position, bytes, 0, remaining);
+			consumed += position;
+		} else if (remaining == bytes.length) {
+			// a single line fills the whole buffer, so make room for the rest of it
+			buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2));
+			bytes = buffer.array();
+		}
+		position = 0;
+		limit = remaining;
+		buffer.clear();
+		buffer.position(limit);
+		if (fileEnd - filePosition < buffer.remaining()) {
+			buffer.limit((int) (limit + fileEnd - filePosition));
+		}
+		int read = buffer.hasRemaining() ? channel.read(buffer, filePosition) : -1;
+		if (read < 0) {
+			endOfFile = true;
+		} else {
+			limit += read;
+			filePosition += read;
+		}
+	}
+
+	// records the trimmed bounds of every comma separated field of a line
+	private void tokenize(int start, int end) {
+		fieldCount = 0;
+		int fieldStart = start;
+		int lastNonEmpty = 0;
+		for (int i = start; i <= end; i++) {
+			if (i == end || bytes[i] == ',') {
+				if (fieldCount == fieldStarts.length) {
+					fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+					fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+				}
+				if (i > fieldStart) {
+					lastNonEmpty = fieldCount + 1;
+				}
+				int trimmedStart = fieldStart;
+				int trimmedEnd = i;
+				while (trimmedStart < trimmedEnd && (bytes[trimmedStart] & 0xff) <= ' ') {
+					trimmedStart++;
+				}
+				while (trimmedEnd > trimmedStart && (bytes[trimmedEnd - 1] & 0xff) <= ' ') {
+					trimmedEnd--;
+				}
+				fieldStarts[fieldCount] = trimmedStart;
+				fieldEnds[fieldCount] = trimmedEnd;
+				fieldCount++;
+				fieldStart = i + 1;
+			}
+		}
+		// like split, an empty line is one empty field while trailing empty fields are dropped
+		fieldCount = start == end ? 1 : lastNonEmpty;
+	}
+
+	// parses an optionally signed decimal int from a byte range
+	private int parseInt(int start, int end) {
+		if (start >= end) {
+			throw new NumberFormatException("For input string: \"\"");
+		}
+		boolean negative = bytes[start] == '-';
+		int i = negative || bytes[start] == '+' ? start + 1 : start;
+		if (i == end) {
+			throw numberError(start, end);
+		}
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw numberError(start, end);
+			}
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw numberError(start, end);
+			}
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			throw numberError(start, end);
+		}
+		return (int) value;
+	}
+
+	private NumberFormatException numberError(int start, int end) {
+		return new NumberFormatException("For input string: \"" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+	}
+
+	private int indexOf(char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (bytes[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
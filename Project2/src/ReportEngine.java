@@ -0,0 +1,876 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Report generation and analytics over the users and posts, without any user interface.
+// Every query returns plain lists and every report plain text, so it runs the same in the
+// JavaFX application, where ReportManager shows the results, and in batch jobs.
+public class ReportEngine {
+    // User count from which report aggregations run on the fork-join pool
+    private static final int PARALLEL_THRESHOLD = 10000;
+
+    // Data structures for storing users and posts
+    private CircularDoublyLinkedList<UserManager> userDatabase;
+    private CircularDoublyLinkedList<PostManager> postDatabase;
+    // Snapshot the reports read instead of the live lists, null to read the lists
+    private ReportSnapshot pinned;
+    // Last capture and the data version it was taken at, reused until the data changes
+    private ReportSnapshot lastCapture;
+    private long lastCaptureVersion = -1;
+
+    // Creates a new report engine over the given user and post data
+    public ReportEngine(CircularDoublyLinkedList<UserManager> userDatabase, CircularDoublyLinkedList<PostManager> postDatabase) {
+        this.userDatabase = userDatabase;
+        this.postDatabase = postDatabase;
+    }
+
+    // Returns the users the reports read
+    public CircularDoublyLinkedList<UserManager> getUserDatabase() {
+        return userDatabase;
+    }
+
+    // Returns the posts the reports read
+    public CircularDoublyLinkedList<PostManager> getPostDatabase() {
+        return postDatabase;
+    }
+
+    // Returns an engine that reads the given snapshot instead of taking new ones, so its reports
+    // can run on another thread while the lists go on being edited on this one. The summary
+    // reports, rankings and counts then read only the values the snapshot copied at capture;
+    // the per-user post reports and exports also read the posts themselves, so they stay on
+    // the editing thread.
+    public ReportEngine pinnedTo(ReportSnapshot snapshot) {
+        ReportEngine engine = new ReportEngine(userDatabase, postDatabase);
+        engine.pinned = snapshot;
+        return engine;
+    }
+
+    // Returns a number that changes whenever the users, posts or friendships the reports read
+    // change. Field and friendship edits are only seen on registries, plain lists count additions
+    // and removals.
+    public long dataVersion() {
+        long users = userDatabase instanceof UserRegistry ? ((UserRegistry) userDatabase).changeCount()
+            : userDatabase == null ? 0 : userDatabase.version();
+        long posts = postDatabase instanceof PostRegistry ? ((PostRegistry) postDatabase).changeCount()
+            : postDatabase == null ? 0 : postDatabase.version();
+        // both counts only grow, so their sum moves on with every change to either
+        return users + posts;
+    }
+
+    // Formats a date as dd.MM.yyyy, or N/A when there is none
+    public String formatDateString(Calendar date) {
+        if (date == null) {
+            return "N/A";
+        }
+
+        int day = date.get(Calendar.DAY_OF_MONTH);
+        int month = date.get(Calendar.MONTH) + 1;
+        int year = date.get(Calendar.YEAR);
+
+        String dayStr;
+        if (day < 10) {
+            dayStr = "0" + day;
+        } else {
+            dayStr = String.valueOf(day);
+        }
+
+        String monthStr;
+        if (month < 10) {
+            monthStr = "0" + month;
+        } else {
+            monthStr = String.valueOf(month);
+        }
+
+        return dayStr + "." + monthStr + "." + year;
+    }
+
+    // ===== Per-user reports =====
+
+    // Builds the list of posts a user created
+    public String createdPostsReport(UserManager user) {
+        ArrayList<PostManager> userPosts = getPostsByUser(user);
+        StringBuilder resultText = new StringBuilder("=== POSTS CREATED BY " + user.getName().toUpperCase() + " ===\n\n");
+
+        if (userPosts.isEmpty()) {
+            resultText.append("No posts found for this user.");
+        } else {
+            resultText.append("Total posts: ").append(userPosts.size()).append("\n\n");
+
+            for (int i = 0; i < userPosts.size(); i++) {
+                PostManager post = userPosts.get(i);
+                resultText.append("POST #").append(i + 1).append("\n");
+                resultText.append("ID: ").append(post.getPostID()).append("\n");
+                resultText.append("Content: ").append(post.getContent()).append("\n");
+                resultText.append("Created on: ").append(formatDateString(post.getCreationDate())).append("\n");
+                resultText.append("-----------------------------------\n");
+            }
+        }
+
+        return resultText.toString();
+    }
+
+    // Builds the list of posts others shared with a user
+    public String sharedPostsReport(UserManager user) {
+        ArrayList<PostManager> sharedPosts = getPostsSharedWithUser(user);
+        StringBuilder resultText = new StringBuilder("=== POSTS SHARED WITH " + user.getName().toUpperCase() + " ===\n\n");
+
+        if (sharedPosts.isEmpty()) {
+            resultText.append("No posts shared with this user.");
+        } else {
+            resultText.append("Total shared posts: ").append(sharedPosts.size()).append("\n\n");
+
+            for (int i = 0; i < sharedPosts.size(); i++) {
+                PostManager post = sharedPosts.get(i);
+                resultText.append("POST #").append(i + 1).append("\n");
+                resultText.append("ID: ").append(post.getPostID()).append("\n");
+                resultText.append("Content: ").append(post.getContent()).append("\n");
+                resultText.append("Created by: ").append(post.getCreator().getName()).append("\n");
+                resultText.append("Created on: ").append(formatDateString(post.getCreationDate())).append("\n");
+                resultText.append("-----------------------------------\n");
+            }
+        }
+
+        return resultText.toString();
+    }
+
+    // Sums up how many posts a user created and received in one sentence
+    public String engagementSummary(UserManager user) {
+        int createdCount = countPostsByUser(user);
+        int sharedCount = countPostsSharedWithUser(user);
+
+        return nameOf(user) + " has created " + createdCount +
+               " post" + (createdCount != 1 ? "s" : "") +
+               " and has " + sharedCount +
+               " post" + (sharedCount != 1 ? "s" : "") +
+               " shared with them";
+    }
+
+    // ===== Exports =====
+
+    // Writes every user's created posts, reading one snapshot so edits made meanwhile don't tear it
+    public void writeCreatedPostsReport(PrintWriter reportWriter, ReportSnapshot snapshot) {
+        ArrayList<UserManager> sortedUserList = snapshot.usersByName();
+        reportWriter.println("Posts Created Report");
+        reportWriter.println("-------------------");
+        reportWriter.println();
+
+        for (int i = 0; i < sortedUserList.size(); i++) {
+            UserManager user = sortedUserList.get(i);
+            reportWriter.println("User: " + user.getName());
+
+            ArrayList<PostManager> userPosts = snapshot.postsBy(user);
+            reportWriter.println("Total Posts: " + userPosts.size());
+
+            if (!userPosts.isEmpty()) {
+                reportWriter.println();
+                for (int j = 0; j < userPosts.size(); j++) {
+                    PostManager post = userPosts.get(j);
+                    reportWriter.println("  Post #" + (j + 1) + ":");
+                    reportWriter.println("  - ID: " + post.getPostID());
+                    reportWriter.println("  - Content: " + post.getContent());
+                    reportWriter.println("  - Created on: " + formatDateString(post.getCreationDate()));
+                    reportWriter.println();
+                }
+            }
+
+            reportWriter.println("-----------------------------------");
+            reportWriter.println();
+        }
+    }
+
+    // Writes the posts shared with every user from one snapshot
+    public void writeSharedPostsReport(PrintWriter reportWriter, ReportSnapshot snapshot) {
+        ArrayList<UserManager> sortedUserList = snapshot.usersByName();
+        reportWriter.println("Posts Shared Report");
+        reportWriter.println("------------------");
+        reportWriter.println();
+
+        for (int i = 0; i < sortedUserList.size(); i++) {
+            UserManager user = sortedUserList.get(i);
+            reportWriter.println("User: " + user.getName());
+
+            ArrayList<PostManager> sharedPosts = snapshot.postsSharedWith(user);
+            reportWriter.println("Total Shared Posts: " + sharedPosts.size());
+
+            if (!sharedPosts.isEmpty()) {
+                reportWriter.println();
+                for (int j = 0; j < sharedPosts.size(); j++) {
+                    PostManager post = sharedPosts.get(j);
+                    reportWriter.println("  Post #" + (j + 1) + ":");
+                    reportWriter.println("  - ID: " + post.getPostID());
+                    reportWriter.println("  - Content: " + post.getContent());
+                    reportWriter.println("  - Created by: " + post.getCreator().getName());
+                    reportWriter.println("  - Created on: " + formatDateString(post.getCreationDate()));
+                    reportWriter.println();
+                }
+            }
+
+            reportWriter.println("-----------------------------------");
+            reportWriter.println();
+        }
+    }
+
+    // ===== Queries =====
+
+    // Returns the users sorted by name
+    public ArrayList<UserManager> getSortedUserList() {
+        ArrayList<UserManager> sortedUserList = new ArrayList<>();
+
+        Iterator<UserManager> iterator = users().iterator();
+        while (iterator.hasNext()) {
+            sortedUserList.add(iterator.next());
+        }
+
+        sortedUserList.sort((user1, user2) -> nameOf(user1).compareTo(nameOf(user2)));
+
+        return sortedUserList;
+    }
+
+    // Returns the posts a user created
+    public ArrayList<PostManager> getPostsByUser(UserManager user) {
+        if (pinned != null) {
+            return pinned.postsBy(user);
+        }
+        ArrayList<PostManager> userPosts = new ArrayList<>();
+
+        if (postDatabase == null || postDatabase.isEmpty()) {
+            return userPosts;
+        }
+
+        // Published posts are already on the user's timeline, newest first
+        if (postDatabase instanceof PostRegistry) {
+            for (PostManager post : user.getCreatedPosts()) {
+                if (post.getRegistry() == postDatabase) {
+                    userPosts.add(post);
+                }
+            }
+            return userPosts;
+        }
+
+        Iterator<PostManager> iterator = posts().iterator();
+        while (iterator.hasNext()) {
+            PostManager post = iterator.next();
+            if (post.getCreator() != null && post.getCreator().getUserID() == user.getUserID()) {
+                userPosts.add(post);
+            }
+        }
+
+        return userPosts;
+    }
+
+    // Returns the posts others shared with a user
+    public ArrayList<PostManager> getPostsSharedWithUser(UserManager user) {
+        if (pinned != null) {
+            return pinned.postsSharedWith(user);
+        }
+        ArrayList<PostManager> sharedPosts = new ArrayList<>();
+
+        if (postDatabase == null || postDatabase.isEmpty()) {
+            return sharedPosts;
+        }
+
+        // Published posts are already waiting in the user's inbox, newest first
+        if (postDatabase instanceof PostRegistry) {
+            for (PostManager post : user.getInbox()) {
+                if (post.getRegistry() == postDatabase) {
+                    sharedPosts.add(post);
+                }
+            }
+            return sharedPosts;
+        }
+
+        Iterator<PostManager> iterator = posts().iterator();
+        while (iterator.hasNext()) {
+            PostManager post = iterator.next();
+
+            // Skip posts created by this user (since we only want ones shared WITH them)
+            if (post.getCreator() != null && post.getCreator().getUserID() == user.getUserID()) {
+                continue;
+            }
+
+            // Check if post is shared with this user
+            if (post.isSharedWith(user)) {
+                sharedPosts.add(post);
+            }
+        }
+
+        return sharedPosts;
+    }
+
+    // Returns the single user with the most posts, or nothing when nobody posted
+    public ArrayList<UserManager> getMostActiveUserWithMostPosts() {
+        ArrayList<UserManager> result = new ArrayList<>();
+
+        if (users().isEmpty() || posts().isEmpty()) {
+            return result;
+        }
+
+        UserManager mostActiveUser = null;
+        int maxPostCount = 0;
+
+        Iterator<UserManager> iterator = users().iterator();
+        while (iterator.hasNext()) {
+            UserManager user = iterator.next();
+            int postCount = countPostsByUser(user);
+
+            if (postCount > maxPostCount) {
+                maxPostCount = postCount;
+                mostActiveUser = user;
+            }
+        }
+
+        if (mostActiveUser != null && maxPostCount > 0) {
+            result.add(mostActiveUser);
+        }
+
+        return result;
+    }
+
+    // Returns up to limit users with the most posts, most first
+    public ArrayList<UserManager> getMostActiveUsersWithMostPosts(int limit) {
+        if (userDatabase == null || users().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Keep only the top users by post count (descending) instead of sorting everyone
+        int keep = limit > 0 ? Math.min(limit, users().size()) : users().size();
+        return selectUsers(keep, (user1, user2) -> {
+            int postCount1 = countPostsByUser(user1);
+            int postCount2 = countPostsByUser(user2);
+            return Integer.compare(postCount2, postCount1); // Descending order
+        });
+    }
+
+    // Counts the posts a user created
+    public int countPostsByUser(UserManager user) {
+        if (user == null) {
+            return 0;
+        }
+        if (pinned != null) {
+            UserRecord record = pinned.recordOf(user);
+            return record == null ? 0 : record.getPostCount();
+        }
+        if (postDatabase instanceof PostRegistry) {
+            return user.getPostCount();
+        }
+
+        return getPostsByUser(user).size();
+    }
+
+    // Counts the posts others shared with a user
+    public int countPostsSharedWithUser(UserManager user) {
+        if (user == null) {
+            return 0;
+        }
+        if (pinned != null) {
+            UserRecord record = pinned.recordOf(user);
+            return record == null ? 0 : record.getReceivedCount();
+        }
+        if (postDatabase instanceof PostRegistry) {
+            return user.getReceivedPostCount();
+        }
+
+        return getPostsSharedWithUser(user).size();
+    }
+
+    // Returns every user who posted in the last three weeks, most recent first
+    public ArrayList<UserManager> getUsersActiveInLastThreeWeeks() {
+        return getUsersActiveInLastThreeWeeks(Integer.MAX_VALUE);
+    }
+
+    // Returns up to limit users who posted in the last three weeks, most recent first
+    public ArrayList<UserManager> getUsersActiveInLastThreeWeeks(int limit) {
+        if (userDatabase == null || users().isEmpty() || postDatabase == null || posts().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Calculate date 3 weeks ago
+        Calendar threeWeeksAgo = Calendar.getInstance();
+        threeWeeksAgo.add(Calendar.WEEK_OF_YEAR, -3);
+
+        // Keep the most recently active users (most recent first) while scanning
+        int keep = limit > 0 ? Math.min(limit, users().size()) : users().size();
+        TopK<UserManager> recentUsers = new TopK<>(keep, (user1, user2) -> {
+            // users without a post have the smallest time, so they sort last
+            return Long.compare(lastActivityTime(user2), lastActivityTime(user1)); // Most recent first
+        });
+        Iterator<UserManager> userIterator = users().iterator();
+        while (userIterator.hasNext()) {
+            UserManager user = userIterator.next();
+            if (hasPostedSince(user, threeWeeksAgo)) {
+                recentUsers.offer(user);
+            }
+        }
+
+        return recentUsers.toSortedList();
+    }
+
+    // Sums up a user's posts and friends
+    public String getUserEngagementMetrics(UserManager user) {
+        if (user == null) {
+            return "No user selected";
+        }
+
+        int postsCreated = countPostsByUser(user);
+        int postsReceived = countPostsSharedWithUser(user);
+        int totalFriends = countUserFriends(user);
+
+        return "User: " + nameOf(user) + "\n" +
+               "Posts created: " + postsCreated + "\n" +
+               "Posts received: " + postsReceived + "\n" +
+               "Friends: " + totalFriends;
+    }
+
+    // Counts a user's friends
+    public int countUserFriends(UserManager user) {
+        if (user == null) {
+            return 0;
+        }
+        if (pinned != null) {
+            UserRecord record = pinned.recordOf(user);
+            return record == null ? 0 : record.getFriendCount();
+        }
+
+        return user.getFriendCount();
+    }
+
+    // Checks if a user created a post after the given date
+    public boolean hasPostedSince(UserManager user, Calendar date) {
+        if (user == null || date == null) {
+            return false;
+        }
+        if (pinned != null) {
+            return lastActivityTime(user) > date.getTimeInMillis();
+        }
+        if (postDatabase instanceof PostRegistry) {
+            Calendar lastPost = user.getLastPostDate();
+            return lastPost != null && lastPost.after(date);
+        }
+
+        ArrayList<PostManager> userPosts = getPostsByUser(user);
+        for (int i = 0; i < userPosts.size(); i++) {
+            PostManager post = userPosts.get(i);
+            if (post.getCreationDate().after(date)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Returns the date of a user's newest post, or null if they have none
+    public Calendar getLastActivityDate(UserManager user) {
+        if (user == null) {
+            return null;
+        }
+        if (pinned != null) {
+            UserRecord record = pinned.recordOf(user);
+            return record == null ? null : record.getLastPostDate();
+        }
+        if (postDatabase instanceof PostRegistry) {
+            return user.getLastPostDate();
+        }
+
+        Calendar mostRecent = null;
+        ArrayList<PostManager> userPosts = getPostsByUser(user);
+
+        for (int i = 0; i < userPosts.size(); i++) {
+            PostManager post = userPosts.get(i);
+            Calendar postDate = post.getCreationDate();
+            if (mostRecent == null || postDate.after(mostRecent)) {
+                mostRecent = postDate;
+            }
+        }
+
+        return mostRecent;
+    }
+
+    // ===== Summary reports =====
+
+    // Builds the report of the users with the most posts
+    public String generateMostActiveUsersReport(int limit) {
+        ArrayList<UserManager> activeUsers = getMostActiveUsersWithMostPosts(limit);
+
+        StringBuilder report = new StringBuilder("MOST ACTIVE USERS REPORT\n");
+        report.append("-----------------------\n\n");
+
+        if (activeUsers.isEmpty()) {
+            report.append("No active users found.");
+        } else {
+            report.append("Top ").append(activeUsers.size()).append(" most active users:\n\n");
+            for (int i = 0; i < activeUsers.size(); i++) {
+                UserManager user = activeUsers.get(i);
+                int postCount = countPostsByUser(user);
+                report.append(i + 1).append(". ").append(nameOf(user)).append("\n");
+                report.append("   User ID: ").append(userIDOf(user)).append("\n");
+                report.append("   Posts: ").append(postCount).append("\n");
+                if (i < activeUsers.size() - 1) {
+                    report.append("\n");
+                }
+            }
+        }
+
+        return report.toString();
+    }
+
+    // Builds the recent activity report
+    public String generateRecentActivityReport(int limit) {
+        return recentActivityReport("RECENT ACTIVITY REPORT\n---------------------\n\n", limit);
+    }
+
+    // Builds the report of the users active in the last three weeks
+    public String generateActiveInLastThreeWeeksReport(int limit) {
+        return recentActivityReport("USERS ACTIVE IN LAST 3 WEEKS\n---------------------------\n\n", limit);
+    }
+
+    // lists the recently active users under the given heading
+    private String recentActivityReport(String heading, int limit) {
+        ArrayList<UserManager> recentUsers = getUsersActiveInLastThreeWeeks(limit);
+
+        StringBuilder report = new StringBuilder(heading);
+
+        if (recentUsers.isEmpty()) {
+            report.append("No users have been active in the last 3 weeks.");
+        } else {
+            report.append("Top ").append(recentUsers.size()).append(" recently active users:\n\n");
+            for (int i = 0; i < recentUsers.size(); i++) {
+                UserManager user = recentUsers.get(i);
+                report.append(i + 1).append(". ").append(nameOf(user)).append("\n");
+                report.append("   User ID: ").append(userIDOf(user)).append("\n");
+                report.append("   Last active: ").append(formatDateString(getLastActivityDate(user))).append("\n");
+                report.append("   Posts: ").append(countPostsByUser(user)).append("\n");
+                if (i < recentUsers.size() - 1) {
+                    report.append("\n");
+                }
+            }
+        }
+
+        return report.toString();
+    }
+
+    // Builds a user's activity report with every post they created and received
+    public String generateUserActivityReport(UserManager user) {
+        if (user == null) {
+            return "Invalid user";
+        }
+
+        // the user's own posts and inbox, so the cost follows their posts rather than everyone's
+        ArrayList<PostManager> createdPosts = getPostsByUser(user);
+        ArrayList<PostManager> sharedPosts = getPostsSharedWithUser(user);
+
+        StringBuilder resultText = new StringBuilder("=== USER ACTIVITY REPORT ===\n\n");
+        resultText.append("User: ").append(user.getName()).append(" (ID: ").append(user.getUserID()).append(")\n\n");
+
+        resultText.append("Created ").append(createdPosts.size()).append(" post").append(createdPosts.size() != 1 ? "s" : "").append("\n");
+        resultText.append("Shared ").append(sharedPosts.size()).append(" post").append(sharedPosts.size() != 1 ? "s" : "").append("\n\n");
+
+        resultText.append("Created Posts:\n");
+        for (PostManager post : createdPosts) {
+            if (post != null) {
+                resultText.append("- ").append(post.getContent()).append(" (").append(formatDateString(post.getCreationDate())).append(")\n");
+            }
+        }
+
+        resultText.append("\nShared Posts:\n");
+        for (PostManager post : sharedPosts) {
+            if (post != null) {
+                resultText.append("- ").append(post.getContent()).append(" by ").append(post.getCreator().getName())
+                    .append(" (").append(formatDateString(post.getCreationDate())).append(")\n");
+            }
+        }
+
+        return resultText.toString();
+    }
+
+    // Builds the engagement stats of every user
+    public String generateEngagementStatsReport() {
+        // each user's section is built on its own, in parallel for large networks, and joined in list order
+        return "=== ENGAGEMENT STATS REPORT ===\n\n" + userStream()
+            .filter(user -> user != null)
+            .map(user -> {
+                int postCount = countPostsByUser(user);
+                int shareCount = countPostsSharedWithUser(user);
+                return nameOf(user) + ":\n"
+                    + "- Created " + postCount + " post" + (postCount != 1 ? "s" : "") + "\n"
+                    + "- Shared " + shareCount + " post" + (shareCount != 1 ? "s" : "") + "\n\n";
+            })
+            .collect(Collectors.joining());
+    }
+
+    // Builds the engagement stats of the first limit users by name
+    public String generateEngagementStatsReport(int limit) {
+        // Only the first users by name are shown, so select them instead of sorting everyone
+        ArrayList<UserManager> sortedUsers = selectUsers(Math.max(0, Math.min(limit, users().size())),
+            (user1, user2) -> nameOf(user1).compareTo(nameOf(user2)));
+
+        StringBuilder resultText = new StringBuilder("=== ENGAGEMENT STATS REPORT ===\n\n");
+
+        for (int i = 0; i < sortedUsers.size(); i++) {
+            UserManager user = sortedUsers.get(i);
+
+            int createdCount = countPostsByUser(user);
+            int sharedCount = countPostsSharedWithUser(user);
+
+            resultText.append(nameOf(user)).append(":\n");
+            resultText.append("  - Created ").append(createdCount).append(" post");
+            if (createdCount != 1) {
+                resultText.append("s");
+            }
+            resultText.append("\n");
+            resultText.append("  - Has ").append(sharedCount).append(" post");
+            if (sharedCount != 1) {
+                resultText.append("s");
+            }
+            resultText.append(" shared with them\n");
+            resultText.append("-----------------------------------\n");
+        }
+
+        return resultText.toString();
+    }
+
+    // ===== Rankings =====
+
+    // Returns a list of users sorted by post count
+    public ArrayList<UserManager> getMostActiveUsers() {
+        ArrayList<UserManager> users = new ArrayList<>();
+        Iterator<UserManager> userIterator = users().iterator();
+        while (userIterator.hasNext()) {
+            users.add(userIterator.next());
+        }
+
+        Collections.sort(users, (u1, u2) -> {
+            int count1 = countPostsByUser(u1);
+            int count2 = countPostsByUser(u2);
+            return Integer.compare(count2, count1);
+        });
+
+        return users;
+    }
+
+    // Returns a list of users sorted by friend count
+    public ArrayList<UserManager> getMostConnectedUsers() {
+        ArrayList<UserManager> users = new ArrayList<>();
+        Iterator<UserManager> userIterator = users().iterator();
+        while (userIterator.hasNext()) {
+            users.add(userIterator.next());
+        }
+
+        Collections.sort(users, (u1, u2) -> {
+            int count1 = countUserFriends(u1);
+            int count2 = countUserFriends(u2);
+            return Integer.compare(count2, count1);
+        });
+
+        return users;
+    }
+
+    // Returns a list of users sorted by shared post count
+    public ArrayList<UserManager> getMostEngagedUsers() {
+        ArrayList<UserManager> users = new ArrayList<>();
+        Iterator<UserManager> userIterator = users().iterator();
+        while (userIterator.hasNext()) {
+            users.add(userIterator.next());
+        }
+
+        Collections.sort(users, (u1, u2) -> {
+            int count1 = countPostsSharedWithUser(u1);
+            int count2 = countPostsSharedWithUser(u2);
+            return Integer.compare(count2, count1);
+        });
+
+        return users;
+    }
+
+    // Returns a list of users who have no friends
+    public ArrayList<UserManager> getIsolatedUsers() {
+        return userStream()
+            .filter(user -> user != null && countUserFriends(user) == 0)
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Returns a list of users who have not created any posts
+    public ArrayList<UserManager> getInactiveUsers() {
+        return userStream()
+            .filter(user -> user != null && countPostsByUser(user) == 0)
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Returns a list of users who have not shared any posts
+    public ArrayList<UserManager> getUnengagedUsers() {
+        return userStream()
+            .filter(user -> user != null && countPostsSharedWithUser(user) == 0)
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Returns a list of users and their mutual friend counts with a specific user
+    public ArrayList<UserManager> getMutualFriendCounts(UserManager targetUser) {
+        if (targetUser == null) return new ArrayList<>();
+        ArrayList<UserManager> users = new ArrayList<>();
+        Iterator<UserManager> userIterator = users().iterator();
+        while (userIterator.hasNext()) {
+            UserManager user = userIterator.next();
+            if (!user.equals(targetUser)) {
+                users.add(user);
+            }
+        }
+
+        FriendshipGraph graph = friendshipGraph();
+        if (graph != null && vertexOf(graph, targetUser) >= 0) {
+            // hash the target's friends once, then count hits among the friends of every user
+            int targetVertex = vertexOf(graph, targetUser);
+            IntHashSet targetFriends = new IntHashSet(graph.degree(targetVertex));
+            graph.forEachNeighbor(targetVertex, targetFriends::add);
+            // sort keys pack the inverted count above the list position, so sorting them is
+            // a stable sort by count, highest first, without boxing
+            long[] keys = new long[users.size()];
+            for (int i = 0; i < keys.length; i++) {
+                int vertex = vertexOf(graph, users.get(i));
+                int[] count = new int[1];
+                if (vertex >= 0) {
+                    graph.forEachNeighbor(vertex, friend -> {
+                        if (targetFriends.contains(friend)) {
+                            count[0]++;
+                        }
+                    });
+                }
+                keys[i] = ((long) (Integer.MAX_VALUE - count[0]) << 32) | i;
+            }
+            Arrays.sort(keys);
+            ArrayList<UserManager> sorted = new ArrayList<>(keys.length);
+            for (long key : keys) {
+                sorted.add(users.get((int) key));
+            }
+            return sorted;
+        }
+
+        Collections.sort(users, (u1, u2) -> {
+            int count1 = countMutualFriends(u1, targetUser);
+            int count2 = countMutualFriends(u2, targetUser);
+            return Integer.compare(count2, count1);
+        });
+
+        return users;
+    }
+
+    // Returns the number of mutual friends between two users
+    public int countMutualFriends(UserManager user1, UserManager user2) {
+        if (user1 == null || user2 == null) return 0;
+        FriendshipGraph graph = friendshipGraph();
+        int vertex1 = graph == null ? -1 : vertexOf(graph, user1);
+        int vertex2 = graph == null ? -1 : vertexOf(graph, user2);
+        if (vertex1 >= 0 && vertex2 >= 0) {
+            return graph.countCommonNeighbors(vertex1, vertex2);
+        }
+        int count = 0;
+        Iterator<UserManager> friendIterator = user1.getFriends().iterator();
+        while (friendIterator.hasNext()) {
+            UserManager friend = friendIterator.next();
+            if (user2.getFriends().contains(friend)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Captures the users and posts as they are now, for a report or export to read from start to end.
+    // Registries report every change in dataVersion, so over them the last capture is handed out
+    // again until something changes.
+    public ReportSnapshot capture() {
+        if (pinned != null) {
+            return pinned;
+        }
+        if (!(userDatabase instanceof UserRegistry) || !(postDatabase instanceof PostRegistry)) {
+            return ReportSnapshot.capture(userDatabase, postDatabase);
+        }
+        long version = dataVersion();
+        if (lastCapture == null || version != lastCaptureVersion) {
+            lastCapture = ReportSnapshot.capture(userDatabase, postDatabase);
+            lastCaptureVersion = version;
+        }
+        return lastCapture;
+    }
+
+    // Name of a user, as captured when the engine is pinned
+    private String nameOf(UserManager user) {
+        UserRecord record = pinned == null ? null : pinned.recordOf(user);
+        return record == null ? user.getName() : record.getName();
+    }
+
+    // ID of a user, as captured when the engine is pinned
+    private String userIDOf(UserManager user) {
+        UserRecord record = pinned == null ? null : pinned.recordOf(user);
+        return record == null ? user.getUserID() : record.getUserID();
+    }
+
+    // Time of a user's newest post in milliseconds, Long.MIN_VALUE if they have none
+    private long lastActivityTime(UserManager user) {
+        if (pinned != null) {
+            UserRecord record = pinned.recordOf(user);
+            return record == null ? Long.MIN_VALUE : record.getLastPostTime();
+        }
+        Calendar date = getLastActivityDate(user);
+        return date == null ? Long.MIN_VALUE : date.getTimeInMillis();
+    }
+
+    // Vertex of a user in the graph the reports read
+    private int vertexOf(FriendshipGraph graph, UserManager user) {
+        if (pinned != null) {
+            UserRecord record = pinned.recordOf(user);
+            return record == null ? -1 : record.getVertex();
+        }
+        return graph.indexOf(user);
+    }
+
+    // Current snapshot of the users, reports walk this instead of the live list
+    private ListSnapshot<UserManager> users() {
+        return pinned != null ? pinned.users() : userDatabase.snapshot();
+    }
+
+    // Current snapshot of the posts
+    private ListSnapshot<PostManager> posts() {
+        return pinned != null ? pinned.posts() : postDatabase.snapshot();
+    }
+
+    // Picks the first limit users in the given order, ranking chunks of the users on the
+    // fork-join pool and merging their heaps once there are enough users to pay for splitting
+    private ArrayList<UserManager> selectUsers(int limit, Comparator<UserManager> order) {
+        ListSnapshot<UserManager> snapshot = users();
+        if (snapshot.size() < PARALLEL_THRESHOLD) {
+            return TopK.select(snapshot, limit, order);
+        }
+        return TopK.parallelSelect(snapshot.asList(), limit, order);
+    }
+
+    // Streams the users, in parallel once there are enough of them to pay for splitting
+    private Stream<UserManager> userStream() {
+        if (users().size() < PARALLEL_THRESHOLD) {
+            return users().stream();
+        }
+        // create the graph up front so the worker threads only read it
+        friendshipGraph();
+        return users().parallelStream();
+    }
+
+    // Returns the compact friendship graph behind the user list, or null for a plain list.
+    // A pinned engine reads the graph frozen with its snapshot.
+    private FriendshipGraph friendshipGraph() {
+        if (pinned != null) {
+            return pinned.friendships();
+        }
+        if (userDatabase instanceof UserRegistry) {
+            return ((UserRegistry) userDatabase).getGraph();
+        }
+        return null;
+    }
+}
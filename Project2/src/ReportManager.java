@@ -1,3 +1,4 @@
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
@@ -10,15 +11,21 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Calendar;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-// Manages report generation and analytics for the social network application
+// Shows the reports of the social network application in JavaFX dialogs.
+// The analytics and the report text come from ReportEngine, this class adds the
+// dialogs, the user navigation and observable lists for the tables.
 public class ReportManager {
     // Data structures for storing users and posts
     private CircularDoublyLinkedList<UserManager> userDatabase;
     private CircularDoublyLinkedList<PostManager> postDatabase;
+    private final ReportEngine engine;
+    // Runs the summary reports off the FX thread and keeps their results until the data changes
+    private final ReportService reportService;
     private Label selectedUserLabel;
     private int currentUserIndex = 0;
 
@@ -26,17 +33,28 @@ public class ReportManager {
     public ReportManager(CircularDoublyLinkedList<UserManager> userDatabase, CircularDoublyLinkedList<PostManager> postDatabase) {
         this.userDatabase = userDatabase;
         this.postDatabase = postDatabase;
+        this.engine = new ReportEngine(userDatabase, postDatabase);
+        this.reportService = new ReportService(engine);
     }
-    
+
     public ReportManager(CircularDoublyLinkedList<UserManager> userDatabase, CircularDoublyLinkedList<PostManager> postDatabase, Label selectedUserLabel) {
-        this.userDatabase = userDatabase;
-        this.postDatabase = postDatabase;
+        this(userDatabase, postDatabase);
         this.selectedUserLabel = selectedUserLabel;
         initializeUserDisplay();
     }
 
+    // Returns the report engine behind the dialogs
+    public ReportEngine getEngine() {
+        return engine;
+    }
+
+    // Returns the service that runs the summary reports
+    public ReportService getReportService() {
+        return reportService;
+    }
+
     // ===== Report Dialog Methods (from ReportDialogManager) =====
-    
+
     public void showNotification(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Information");
@@ -80,33 +98,11 @@ public class ReportManager {
         
         dialog.showAndWait();
     }
-    
+
     public String formatDateString(Calendar date) {
-        if (date == null) {
-            return "N/A";
-        }
-        
-        int day = date.get(Calendar.DAY_OF_MONTH);
-        int month = date.get(Calendar.MONTH) + 1;
-        int year = date.get(Calendar.YEAR);
-        
-        String dayStr;
-        if (day < 10) {
-            dayStr = "0" + day;
-        } else {
-            dayStr = String.valueOf(day);
-        }
-        
-        String monthStr;
-        if (month < 10) {
-            monthStr = "0" + month;
-        } else {
-            monthStr = String.valueOf(month);
-        }
-        
-        return dayStr + "." + monthStr + "." + year;
+        return engine.formatDateString(date);
     }
-    
+
     // ===== Report Navigation Methods (from ReportNavigationManager) =====
     
     public void initializeUserDisplay() {
@@ -157,7 +153,7 @@ public class ReportManager {
             return null;
         }
         
-        Iterator<UserManager> iterator = userDatabase.iterator();
+        Iterator<UserManager> iterator = userDatabase.snapshot().iterator();
         int count = 0;
         while (iterator.hasNext()) {
             UserManager user = iterator.next();
@@ -178,32 +174,13 @@ public class ReportManager {
     }
     
     // ===== Report Display Methods (from ReportDisplayManager) =====
-    
+
     public void showCreatedPostsByUser(UserManager user) {
         if (user == null) {
             showNotification("No user selected");
             return;
         }
-        
-        ObservableList<PostManager> userPosts = getPostsByUser(user);
-        String resultText = "=== POSTS CREATED BY " + user.getName().toUpperCase() + " ===\n\n";
-        
-        if (userPosts.isEmpty()) {
-            resultText += "No posts found for this user.";
-        } else {
-            resultText += "Total posts: " + userPosts.size() + "\n\n";
-            
-            for (int i = 0; i < userPosts.size(); i++) {
-                PostManager post = userPosts.get(i);
-                resultText += "POST #" + (i + 1) + "\n";
-                resultText += "ID: " + post.getPostID() + "\n";
-                resultText += "Content: " + post.getContent() + "\n";
-                resultText += "Created on: " + formatDateString(post.getCreationDate()) + "\n";
-                resultText += "-----------------------------------\n";
-            }
-        }
-        
-        showNotification("Posts Created", resultText);
+        showNotification("Posts Created", engine.createdPostsReport(user));
     }
 
     public void showSharedPostsWithUser(UserManager user) {
@@ -211,27 +188,7 @@ public class ReportManager {
             showNotification("No user selected");
             return;
         }
-        
-        ObservableList<PostManager> sharedPosts = getPostsSharedWithUser(user);
-        String resultText = "=== POSTS SHARED WITH " + user.getName().toUpperCase() + " ===\n\n";
-        
-        if (sharedPosts.isEmpty()) {
-            resultText += "No posts shared with this user.";
-        } else {
-            resultText += "Total shared posts: " + sharedPosts.size() + "\n\n";
-            
-            for (int i = 0; i < sharedPosts.size(); i++) {
-                PostManager post = sharedPosts.get(i);
-                resultText += "POST #" + (i + 1) + "\n";
-                resultText += "ID: " + post.getPostID() + "\n";
-                resultText += "Content: " + post.getContent() + "\n";
-                resultText += "Created by: " + post.getCreator().getName() + "\n";
-                resultText += "Created on: " + formatDateString(post.getCreationDate()) + "\n";
-                resultText += "-----------------------------------\n";
-            }
-        }
-        
-        showNotification("Posts Shared", resultText);
+        showNotification("Posts Shared", engine.sharedPostsReport(user));
     }
 
     public void showEngagementStats(UserManager user) {
@@ -239,19 +196,9 @@ public class ReportManager {
             showNotification("No user selected");
             return;
         }
-        
-        ObservableList<PostManager> createdPosts = getPostsByUser(user);
-        ObservableList<PostManager> sharedPosts = getPostsSharedWithUser(user);
-        
-        String resultText = user.getName() + " has created " + createdPosts.size() + 
-                          " post" + (createdPosts.size() != 1 ? "s" : "") + 
-                          " and has " + sharedPosts.size() + 
-                          " post" + (sharedPosts.size() != 1 ? "s" : "") + 
-                          " shared with them";
-        
-        showNotification("Engagement Stats", resultText);
+        showNotification("Engagement Stats", engine.engagementSummary(user));
     }
-    
+
     public void generateReport(String reportType, int limit) {
         switch (reportType) {
             case "Active Users":
@@ -259,666 +206,203 @@ public class ReportManager {
                     showNotification("No Posts Available", "There are no posts in the system to generate this report.");
                     return;
                 }
-                String activeUsersReport = generateMostActiveUsersReport(limit);
-                showNotification("Most Active Users Report", activeUsersReport);
+                showReport("Most Active Users Report", ReportService.Report.MOST_ACTIVE_USERS, limit);
                 break;
-                
+
             case "Users Active in Last 3 Weeks":
-                ObservableList<UserManager> recentUsers = getUsersActiveInLastThreeWeeks(limit);
-                StringBuilder recentActivityReport = new StringBuilder();
-                recentActivityReport.append("USERS ACTIVE IN LAST 3 WEEKS\n");
-                recentActivityReport.append("---------------------------\n\n");
-                
-                if (recentUsers.isEmpty()) {
-                    recentActivityReport.append("No users have been active in the last 3 weeks.");
-                } else {
-                    recentActivityReport.append("Top ").append(recentUsers.size()).append(" recently active users:\n\n");
-                    for (int i = 0; i < recentUsers.size(); i++) {
-                        UserManager user = recentUsers.get(i);
-                        recentActivityReport.append(i + 1).append(". ").append(user.getName()).append("\n");
-                        recentActivityReport.append("   User ID: ").append(user.getUserID()).append("\n");
-                        recentActivityReport.append("   Last active: ").append(formatDateString(getLastActivityDate(user))).append("\n");
-                        recentActivityReport.append("   Posts: ").append(countPostsByUser(user)).append("\n");
-                        if (i < recentUsers.size() - 1) {
-                            recentActivityReport.append("\n");
-                        }
-                    }
-                }
-                showNotification("Recent Activity Report", recentActivityReport.toString());
+                showReport("Recent Activity Report", ReportService.Report.ACTIVE_IN_LAST_THREE_WEEKS, limit);
                 break;
         }
     }
-    
+
+    // Runs a report in the background and shows it once it is ready, at once if it is cached
+    public void showReport(String title, ReportService.Report report, int limit) {
+        CompletableFuture<String> result = reportService.submit(report, limit);
+        result.whenComplete((text, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                showNotification("Error", "Failed to generate report: " + cause.getMessage());
+            } else {
+                showNotification(title, text);
+            }
+        }));
+    }
+
     public void displayEngagementStatsReport(int limit) {
-        ObservableList<UserManager> sortedUsers = getSortedUserList();
-        if (sortedUsers.isEmpty()) {
+        if (userDatabase == null || userDatabase.isEmpty()) {
             showNotification("No users available");
             return;
         }
-
-        StringBuilder resultText = new StringBuilder("=== ENGAGEMENT STATS REPORT ===\n\n");
-        int count = 0;
-        
-        for (int i = 0; i < sortedUsers.size() && count < limit; i++) {
-            UserManager user = sortedUsers.get(i);
-            
-            ObservableList<PostManager> createdPosts = getPostsByUser(user);
-            ObservableList<PostManager> sharedPosts = getPostsSharedWithUser(user);
-            
-            resultText.append(user.getName()).append(":\n");
-            resultText.append("  - Created ").append(createdPosts.size()).append(" post");
-            if (createdPosts.size() != 1) {
-                resultText.append("s");
-            }
-            resultText.append("\n");
-            resultText.append("  - Has ").append(sharedPosts.size()).append(" post");
-            if (sharedPosts.size() != 1) {
-                resultText.append("s");
-            }
-            resultText.append(" shared with them\n");
-            resultText.append("-----------------------------------\n");
-            count++;
-        }
-        
-        showNotification("Engagement Stats Report", resultText.toString());
+        showReport("Engagement Stats Report", ReportService.Report.ENGAGEMENT_STATS, limit);
     }
-    
+
     public void exportCreatedPostsReport() {
-        ObservableList<UserManager> sortedUserList = getSortedUserList();
-        
-        if (sortedUserList.isEmpty()) {
+        if (userDatabase == null || userDatabase.isEmpty()) {
             showNotification("No users available to generate report");
             return;
         }
-        
+
         FileChooser fileSelector = new FileChooser();
         fileSelector.setTitle("Save Posts Created Report");
         fileSelector.getExtensionFilters().add(
             new FileChooser.ExtensionFilter("Text Files", "*.txt"));
         fileSelector.setInitialFileName("posts_created.txt");
-        
+
         File outputFile = fileSelector.showSaveDialog(null);
         if (outputFile != null) {
+            // capture once the file is chosen and write it before returning, so no edit lands in between
+            ReportSnapshot snapshot = capture();
             try (PrintWriter reportWriter = new PrintWriter(new FileWriter(outputFile))) {
-                reportWriter.println("Posts Created Report");
-                reportWriter.println("-------------------");
-                reportWriter.println();
-                
-                for (int i = 0; i < sortedUserList.size(); i++) {
-                    UserManager user = sortedUserList.get(i);
-                    reportWriter.println("User: " + user.getName());
-                    
-                    ObservableList<PostManager> userPosts = getPostsByUser(user);
-                    reportWriter.println("Total Posts: " + userPosts.size());
-                    
-                    if (!userPosts.isEmpty()) {
-                        reportWriter.println();
-                        for (int j = 0; j < userPosts.size(); j++) {
-                            PostManager post = userPosts.get(j);
-                            reportWriter.println("  Post #" + (j + 1) + ":");
-                            reportWriter.println("  - ID: " + post.getPostID());
-                            reportWriter.println("  - Content: " + post.getContent());
-                            reportWriter.println("  - Created on: " + formatDateString(post.getCreationDate()));
-                            reportWriter.println();
-                        }
-                    }
-                    
-                    reportWriter.println("-----------------------------------");
-                    reportWriter.println();
-                }
-                
+                engine.writeCreatedPostsReport(reportWriter, snapshot);
                 showNotification("Success", "Posts created report was exported successfully to:\n" + outputFile.getAbsolutePath());
             } catch (IOException e) {
                 showNotification("Error", "Failed to export posts report: " + e.getMessage());
             }
         }
     }
-    
+
     public void exportSharedPostsReport() {
-        ObservableList<UserManager> sortedUserList = getSortedUserList();
-        
-        if (sortedUserList.isEmpty()) {
+        if (userDatabase == null || userDatabase.isEmpty()) {
             showNotification("No users available to generate report");
             return;
         }
-        
+
         FileChooser fileSelector = new FileChooser();
         fileSelector.setTitle("Save Posts Shared Report");
         fileSelector.getExtensionFilters().add(
             new FileChooser.ExtensionFilter("Text Files", "*.txt"));
         fileSelector.setInitialFileName("posts_shared.txt");
-        
+
         File outputFile = fileSelector.showSaveDialog(null);
         if (outputFile != null) {
+            ReportSnapshot snapshot = capture();
             try (PrintWriter reportWriter = new PrintWriter(new FileWriter(outputFile))) {
-                reportWriter.println("Posts Shared Report");
-                reportWriter.println("------------------");
-                reportWriter.println();
-                
-                for (int i = 0; i < sortedUserList.size(); i++) {
-                    UserManager user = sortedUserList.get(i);
-                    reportWriter.println("User: " + user.getName());
-                    
-                    ObservableList<PostManager> sharedPosts = getPostsSharedWithUser(user);
-                    reportWriter.println("Total Shared Posts: " + sharedPosts.size());
-                    
-                    if (!sharedPosts.isEmpty()) {
-                        reportWriter.println();
-                        for (int j = 0; j < sharedPosts.size(); j++) {
-                            PostManager post = sharedPosts.get(j);
-                            reportWriter.println("  Post #" + (j + 1) + ":");
-                            reportWriter.println("  - ID: " + post.getPostID());
-                            reportWriter.println("  - Content: " + post.getContent());
-                            reportWriter.println("  - Created by: " + post.getCreator().getName());
-                            reportWriter.println("  - Created on: " + formatDateString(post.getCreationDate()));
-                            reportWriter.println();
-                        }
-                    }
-                    
-                    reportWriter.println("-----------------------------------");
-                    reportWriter.println();
-                }
-                
+                engine.writeSharedPostsReport(reportWriter, snapshot);
                 showNotification("Success", "Posts shared report was exported successfully to:\n" + outputFile.getAbsolutePath());
             } catch (IOException e) {
                 showNotification("Error", "Failed to export posts report: " + e.getMessage());
             }
         }
     }
-    
-    public ObservableList<UserManager> getSortedUserList() {
-        ObservableList<UserManager> sortedUserList = FXCollections.observableArrayList();
-        
-        Iterator<UserManager> iterator = userDatabase.iterator();
-        while (iterator.hasNext()) {
-            sortedUserList.add(iterator.next());
-        }
-        
-        sortedUserList.sort((user1, user2) -> user1.getName().compareTo(user2.getName()));
-        
-        return sortedUserList;
-    }
-
-    // ===== Original ReportManager methods =====
 
     public void showReport(String title, String content) {
         showNotification(title, content);
     }
 
+    // ===== Engine results as observable lists for the tables =====
+
+    public ObservableList<UserManager> getSortedUserList() {
+        return FXCollections.observableArrayList(engine.getSortedUserList());
+    }
+
     public ObservableList<PostManager> getPostsByUser(UserManager user) {
-        ObservableList<PostManager> userPosts = FXCollections.observableArrayList();
-        
-        if (postDatabase == null || postDatabase.isEmpty()) {
-            return userPosts;
-        }
-        
-        Iterator<PostManager> iterator = postDatabase.iterator();
-        while (iterator.hasNext()) {
-            PostManager post = iterator.next();
-            if (post.getCreator() != null && post.getCreator().getUserID() == user.getUserID()) {
-                userPosts.add(post);
-            }
-        }
-        
-        return userPosts;
+        return FXCollections.observableArrayList(engine.getPostsByUser(user));
     }
-    
+
     public ObservableList<PostManager> getPostsSharedWithUser(UserManager user) {
-        ObservableList<PostManager> sharedPosts = FXCollections.observableArrayList();
-        
-        if (postDatabase == null || postDatabase.isEmpty()) {
-            return sharedPosts;
-        }
-        
-        Iterator<PostManager> iterator = postDatabase.iterator();
-        while (iterator.hasNext()) {
-            PostManager post = iterator.next();
-            
-            // Skip posts created by this user (since we only want ones shared WITH them)
-            if (post.getCreator() != null && post.getCreator().getUserID() == user.getUserID()) {
-                continue;
-            }
-            
-            // Check if post is shared with this user
-            CircularDoublyLinkedList<UserManager> sharedUsers = post.getSharedUsers();
-            if (sharedUsers != null && !sharedUsers.isEmpty()) {
-                Iterator<UserManager> sharedIterator = sharedUsers.iterator();
-                while (sharedIterator.hasNext()) {
-                    UserManager sharedUser = sharedIterator.next();
-                    if (sharedUser.getUserID() == user.getUserID()) {
-                        sharedPosts.add(post);
-                        break;
-                    }
-                }
-            }
-        }
-        
-        return sharedPosts;
+        return FXCollections.observableArrayList(engine.getPostsSharedWithUser(user));
     }
 
     public ObservableList<UserManager> getMostActiveUserWithMostPosts() {
-        ObservableList<UserManager> result = FXCollections.observableArrayList();
-        
-        if (userDatabase.isEmpty() || postDatabase.isEmpty()) {
-            return result;
-        }
-        
-        UserManager mostActiveUser = null;
-        int maxPostCount = 0;
-        
-        Iterator<UserManager> iterator = userDatabase.iterator();
-        while (iterator.hasNext()) {
-            UserManager user = iterator.next();
-            int postCount = countPostsByUser(user);
-            
-            if (postCount > maxPostCount) {
-                maxPostCount = postCount;
-                mostActiveUser = user;
-            }
-        }
-        
-        if (mostActiveUser != null && maxPostCount > 0) {
-            result.add(mostActiveUser);
-        }
-        
-        return result;
+        return FXCollections.observableArrayList(engine.getMostActiveUserWithMostPosts());
     }
-    
+
     public ObservableList<UserManager> getMostActiveUsersWithMostPosts(int limit) {
-        ObservableList<UserManager> sortedUsers = FXCollections.observableArrayList();
-        
-        if (userDatabase == null || userDatabase.isEmpty()) {
-            return sortedUsers;
-        }
-        
-        // First collect all users
-        Iterator<UserManager> iterator = userDatabase.iterator();
-        while (iterator.hasNext()) {
-            sortedUsers.add(iterator.next());
-        }
-        
-        // Sort them by post count (descending)
-        sortedUsers.sort((user1, user2) -> {
-            int postCount1 = countPostsByUser(user1);
-            int postCount2 = countPostsByUser(user2);
-            return Integer.compare(postCount2, postCount1); // Descending order
-        });
-        
-        // Limit the results
-        if (limit > 0 && limit < sortedUsers.size()) {
-            return FXCollections.observableArrayList(sortedUsers.subList(0, limit));
-        }
-        
-        return sortedUsers;
-    }
-    
-    public int countPostsByUser(UserManager user) {
-        if (user == null) {
-            return 0;
-        }
-        
-        return getPostsByUser(user).size();
+        return FXCollections.observableArrayList(engine.getMostActiveUsersWithMostPosts(limit));
     }
-    
+
     public ObservableList<UserManager> getUsersActiveInLastThreeWeeks() {
-        return getUsersActiveInLastThreeWeeks(Integer.MAX_VALUE);
+        return FXCollections.observableArrayList(engine.getUsersActiveInLastThreeWeeks());
     }
-    
+
     public ObservableList<UserManager> getUsersActiveInLastThreeWeeks(int limit) {
-        ObservableList<UserManager> activeUsers = FXCollections.observableArrayList();
-        
-        if (userDatabase == null || userDatabase.isEmpty() || postDatabase == null || postDatabase.isEmpty()) {
-            return activeUsers;
-        }
-        
-        // Calculate date 3 weeks ago
-        Calendar threeWeeksAgo = Calendar.getInstance();
-        threeWeeksAgo.add(Calendar.WEEK_OF_YEAR, -3);
-        
-        // Track users who have posted recently
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            UserManager user = userIterator.next();
-            if (hasPostedSince(user, threeWeeksAgo)) {
-                activeUsers.add(user);
-            }
-        }
-        
-        // Sort by most recent activity
-        activeUsers.sort((user1, user2) -> {
-            Calendar lastActivity1 = getLastActivityDate(user1);
-            Calendar lastActivity2 = getLastActivityDate(user2);
-            if (lastActivity1 == null) return 1;
-            if (lastActivity2 == null) return -1;
-            return lastActivity2.compareTo(lastActivity1); // Most recent first
-        });
-        
-        // Limit the results
-        if (limit > 0 && limit < activeUsers.size()) {
-            return FXCollections.observableArrayList(activeUsers.subList(0, limit));
-        }
-        
-        return activeUsers;
+        return FXCollections.observableArrayList(engine.getUsersActiveInLastThreeWeeks(limit));
     }
-    
+
+    // ===== Plain results, straight from the engine =====
+
+    public int countPostsByUser(UserManager user) {
+        return engine.countPostsByUser(user);
+    }
+
+    public int countPostsSharedWithUser(UserManager user) {
+        return engine.countPostsSharedWithUser(user);
+    }
+
     public String getUserEngagementMetrics(UserManager user) {
-        if (user == null) {
-            return "No user selected";
-        }
-        
-        int postsCreated = getPostsByUser(user).size();
-        int postsReceived = getPostsSharedWithUser(user).size();
-        int totalFriends = countUserFriends(user);
-        
-        return "User: " + user.getName() + "\n" +
-               "Posts created: " + postsCreated + "\n" +
-               "Posts received: " + postsReceived + "\n" +
-               "Friends: " + totalFriends;
+        return engine.getUserEngagementMetrics(user);
     }
-    
+
     public int countUserFriends(UserManager user) {
-        if (user == null) {
-            return 0;
-        }
-        
-        CircularDoublyLinkedList<UserManager> friends = user.getFriends();
-        if (friends == null) {
-            return 0;
-        }
-        
-        return friends.size();
+        return engine.countUserFriends(user);
     }
-    
+
     public boolean hasPostedSince(UserManager user, Calendar date) {
-        if (user == null || date == null) {
-            return false;
-        }
-        
-        ObservableList<PostManager> userPosts = getPostsByUser(user);
-        for (int i = 0; i < userPosts.size(); i++) {
-            PostManager post = userPosts.get(i);
-            if (post.getCreationDate().after(date)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return engine.hasPostedSince(user, date);
     }
-    
+
     public Calendar getLastActivityDate(UserManager user) {
-        if (user == null) {
-            return null;
-        }
-        
-        Calendar mostRecent = null;
-        ObservableList<PostManager> userPosts = getPostsByUser(user);
-        
-        for (int i = 0; i < userPosts.size(); i++) {
-            PostManager post = userPosts.get(i);
-            Calendar postDate = post.getCreationDate();
-            if (mostRecent == null || postDate.after(mostRecent)) {
-                mostRecent = postDate;
-            }
-        }
-        
-        return mostRecent;
+        return engine.getLastActivityDate(user);
     }
-    
+
     public String generateMostActiveUsersReport(int limit) {
-        ObservableList<UserManager> activeUsers = getMostActiveUsersWithMostPosts(limit);
-        
-        String report = "MOST ACTIVE USERS REPORT\n";
-        report += "-----------------------\n\n";
-        
-        if (activeUsers.isEmpty()) {
-            report += "No active users found.";
-        } else {
-            report += "Top " + activeUsers.size() + " most active users:\n\n";
-            for (int i = 0; i < activeUsers.size(); i++) {
-                UserManager user = activeUsers.get(i);
-                int postCount = countPostsByUser(user);
-                report += (i + 1) + ". " + user.getName() + "\n";
-                report += "   User ID: " + user.getUserID() + "\n";
-                report += "   Posts: " + postCount + "\n";
-                if (i < activeUsers.size() - 1) {
-                    report += "\n";
-                }
-            }
-        }
-        
-        return report;
+        return engine.generateMostActiveUsersReport(limit);
     }
-    
+
     public String generateRecentActivityReport(int limit) {
-        ObservableList<UserManager> recentUsers = getUsersActiveInLastThreeWeeks(limit);
-        
-        String report = "RECENT ACTIVITY REPORT\n";
-        report += "---------------------\n\n";
-        
-        if (recentUsers.isEmpty()) {
-            report += "No users have been active in the last 3 weeks.";
-        } else {
-            report += "Top " + recentUsers.size() + " recently active users:\n\n";
-            for (int i = 0; i < recentUsers.size(); i++) {
-                UserManager user = recentUsers.get(i);
-                report += (i + 1) + ". " + user.getName() + "\n";
-                report += "   User ID: " + user.getUserID() + "\n";
-                report += "   Last active: " + formatDateString(getLastActivityDate(user)) + "\n";
-                report += "   Posts: " + countPostsByUser(user) + "\n";
-                if (i < recentUsers.size() - 1) {
-                    report += "\n";
-                }
-            }
-        }
-        
-        return report;
+        return engine.generateRecentActivityReport(limit);
     }
 
     public String generateUserActivityReport(UserManager user) {
-        if (user == null) {
-            return "Invalid user";
-        }
-
-        String resultText = "=== USER ACTIVITY REPORT ===\n\n";
-        resultText += "User: " + user.getName() + " (ID: " + user.getUserID() + ")\n\n";
-
-        CircularDoublyLinkedList<PostManager> createdPosts = new CircularDoublyLinkedList<>();
-        CircularDoublyLinkedList<PostManager> sharedPosts = new CircularDoublyLinkedList<>();
-
-        Iterator<PostManager> iterator = postDatabase.iterator();
-        while (iterator.hasNext()) {
-            PostManager post = iterator.next();
-            if (post != null && post.getCreator().equals(user)) {
-                createdPosts.insertLast(post);
-            }
-            if (post != null && post.getSharedUsers().contains(user)) {
-                sharedPosts.insertLast(post);
-            }
-        }
-
-        resultText += "Created " + createdPosts.size() + " post" + (createdPosts.size() != 1 ? "s" : "") + "\n";
-        resultText += "Shared " + sharedPosts.size() + " post" + (sharedPosts.size() != 1 ? "s" : "") + "\n\n";
-
-        resultText += "Created Posts:\n";
-        Iterator<PostManager> createdIterator = createdPosts.iterator();
-        while (createdIterator.hasNext()) {
-            PostManager post = createdIterator.next();
-            if (post != null) {
-                resultText += "- " + post.getContent() + " (" + formatDateString(post.getCreationDate()) + ")\n";
-            }
-        }
-
-        resultText += "\nShared Posts:\n";
-        Iterator<PostManager> sharedIterator = sharedPosts.iterator();
-        while (sharedIterator.hasNext()) {
-            PostManager post = sharedIterator.next();
-            if (post != null) {
-                resultText += "- " + post.getContent() + " by " + post.getCreator().getName() + " (" + formatDateString(post.getCreationDate()) + ")\n";
-            }
-        }
-
-        return resultText;
+        return engine.generateUserActivityReport(user);
     }
 
     public String generateEngagementStatsReport() {
-        String resultText = "=== ENGAGEMENT STATS REPORT ===\n\n";
-
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            UserManager user = userIterator.next();
-            if (user != null) {
-                int postCount = 0;
-                int shareCount = 0;
-
-                Iterator<PostManager> postIterator = postDatabase.iterator();
-                while (postIterator.hasNext()) {
-                    PostManager post = postIterator.next();
-                    if (post != null) {
-                        if (post.getCreator().equals(user)) {
-                            postCount++;
-                        }
-                        if (post.getSharedUsers().contains(user)) {
-                            shareCount++;
-                        }
-                    }
-                }
-
-                resultText += user.getName() + ":\n";
-                resultText += "- Created " + postCount + " post" + (postCount != 1 ? "s" : "") + "\n";
-                resultText += "- Shared " + shareCount + " post" + (shareCount != 1 ? "s" : "") + "\n\n";
-            }
-        }
-
-        return resultText;
+        return engine.generateEngagementStatsReport();
     }
 
-    // laith amro
-    // 1230018
-    // dr. mamoun nawahda
-    // section 7
-
     // Returns a list of users sorted by post count
     public ArrayList<UserManager> getMostActiveUsers() {
-        ArrayList<UserManager> users = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            users.add(userIterator.next());
-        }
-        
-        Collections.sort(users, (u1, u2) -> {
-            int count1 = countPostsByUser(u1);
-            int count2 = countPostsByUser(u2);
-            return Integer.compare(count2, count1);
-        });
-        
-        return users;
+        return engine.getMostActiveUsers();
     }
 
     // Returns a list of users sorted by friend count
     public ArrayList<UserManager> getMostConnectedUsers() {
-        ArrayList<UserManager> users = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            users.add(userIterator.next());
-        }
-        
-        Collections.sort(users, (u1, u2) -> {
-            int count1 = u1.getFriends().size();
-            int count2 = u2.getFriends().size();
-            return Integer.compare(count2, count1);
-        });
-        
-        return users;
+        return engine.getMostConnectedUsers();
     }
 
     // Returns a list of users sorted by shared post count
     public ArrayList<UserManager> getMostEngagedUsers() {
-        ArrayList<UserManager> users = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            users.add(userIterator.next());
-        }
-        
-        Collections.sort(users, (u1, u2) -> {
-            int count1 = getPostsSharedWithUser(u1).size();
-            int count2 = getPostsSharedWithUser(u2).size();
-            return Integer.compare(count2, count1);
-        });
-        
-        return users;
+        return engine.getMostEngagedUsers();
     }
 
     // Returns a list of users who have no friends
     public ArrayList<UserManager> getIsolatedUsers() {
-        ArrayList<UserManager> isolatedUsers = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            UserManager user = userIterator.next();
-            if (user.getFriends().isEmpty()) {
-                isolatedUsers.add(user);
-            }
-        }
-        return isolatedUsers;
+        return engine.getIsolatedUsers();
     }
 
     // Returns a list of users who have not created any posts
     public ArrayList<UserManager> getInactiveUsers() {
-        ArrayList<UserManager> inactiveUsers = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            UserManager user = userIterator.next();
-            if (countPostsByUser(user) == 0) {
-                inactiveUsers.add(user);
-            }
-        }
-        return inactiveUsers;
+        return engine.getInactiveUsers();
     }
 
     // Returns a list of users who have not shared any posts
     public ArrayList<UserManager> getUnengagedUsers() {
-        ArrayList<UserManager> unengagedUsers = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            UserManager user = userIterator.next();
-            if (getPostsSharedWithUser(user).isEmpty()) {
-                unengagedUsers.add(user);
-            }
-        }
-        return unengagedUsers;
+        return engine.getUnengagedUsers();
     }
 
     // Returns a list of users and their mutual friend counts with a specific user
     public ArrayList<UserManager> getMutualFriendCounts(UserManager targetUser) {
-        if (targetUser == null) return new ArrayList<>();
-        ArrayList<UserManager> users = new ArrayList<>();
-        Iterator<UserManager> userIterator = userDatabase.iterator();
-        while (userIterator.hasNext()) {
-            UserManager user = userIterator.next();
-            if (!user.equals(targetUser)) {
-                users.add(user);
-            }
-        }
-        
-        Collections.sort(users, (u1, u2) -> {
-            int count1 = countMutualFriends(u1, targetUser);
-            int count2 = countMutualFriends(u2, targetUser);
-            return Integer.compare(count2, count1);
-        });
-        
-        return users;
+        return engine.getMutualFriendCounts(targetUser);
     }
 
     // Returns the number of mutual friends between two users
     public int countMutualFriends(UserManager user1, UserManager user2) {
-        if (user1 == null || user2 == null) return 0;
-        int count = 0;
-        Iterator<UserManager> friendIterator = user1.getFriends().iterator();
-        while (friendIterator.hasNext()) {
-            UserManager friend = friendIterator.next();
-            if (user2.getFriends().contains(friend)) {
-                count++;
-            }
-        }
-        return count;
+        return engine.countMutualFriends(user1, user2);
+    }
+
+    // Captures the users and posts as they are now, for a report or export to read from start to end
+    public ReportSnapshot capture() {
+        return engine.capture();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -255,19 +256,15 @@ public class ReportManagerUI {
 		} catch (NumberFormatException e) {
 		}
 
-		String reportText;
-
 		if (showMostPosts) {
 			if (postDatabase.isEmpty()) {
 				showNotification("No Posts Available", "There are no posts in the system to generate this report.");
 				return;
 			}
-			reportText = reportManager.generateMostActiveUsersReport(userLimit);
+			reportManager.showReport("Most Active Users", ReportService.Report.MOST_ACTIVE_USERS, userLimit);
 		} else {
-			reportText = reportManager.generateRecentActivityReport(userLimit);
+			reportManager.showReport("Recent Activity", ReportService.Report.RECENT_ACTIVITY, userLimit);
 		}
-
-		showNotification(showMostPosts ? "Most Active Users" : "Recent Activity", reportText);
 	}
 
 	public void showNotification(String message) {
@@ -315,9 +312,7 @@ public class ReportManagerUI {
 	}
 
 	public void exportCreatedPostsReport() {
-		ObservableList<UserManager> sortedUserList = getSortedUserList();
-
-		if (sortedUserList.isEmpty()) {
+		if (userDatabase == null || userDatabase.isEmpty()) {
 			showNotification("No users available to generate report");
 			return;
 		}
@@ -329,6 +324,9 @@ public class ReportManagerUI {
 
 		File outputFile = fileSelector.showSaveDialog(null);
 		if (outputFile != null) {
+			// capture once the file is chosen and write it before returning, so no edit lands in between
+			ReportSnapshot snapshot = reportManager.capture();
+			ArrayList<UserManager> sortedUserList = snapshot.usersByName();
 			try (PrintWriter reportWriter = new PrintWriter(new FileWriter(outputFile))) {
 				reportWriter.println("Posts Created Report");
 				reportWriter.println("-------------------");
@@ -338,14 +336,14 @@ public class ReportManagerUI {
 					UserManager user = sortedUserList.get(i);
 					reportWriter.println("User: " + user.getName());
 
-					ObservableList<PostManager> userPosts = reportManager.getPostsByUser(user);
+					ArrayList<PostManager> userPosts = snapshot.postsBy(user);
 					if (userPosts.isEmpty()) {
 						reportWriter.println("No posts created by this user.");
 					} else {
 						for (int j = 0; j < userPosts.size(); j++) {
 							PostManager post = userPosts.get(j);
 							String sharedWith = "";
-							CircularDoublyLinkedList<UserManager> sharedUsers = post.getSharedUsers();
+							PostAudience sharedUsers = post.getSharedUsers();
 							if (sharedUsers != null) {
 								Iterator<UserManager> iterator = sharedUsers.iterator();
 								while (iterator.hasNext()) {
@@ -374,9 +372,7 @@ public class ReportManagerUI {
 	}
 
 	public void exportSharedPostsReport() {
-		ObservableList<UserManager> sortedUserList = getSortedUserList();
-
-		if (sortedUserList.isEmpty()) {
+		if (userDatabase == null || userDatabase.isEmpty()) {
 			showNotification("No users available to generate report");
 			return;
 		}
@@ -388,6 +384,8 @@ public class ReportManagerUI {
 
 		File outputFile = fileSelector.showSaveDialog(null);
 		if (outputFile != null) {
+			ReportSnapshot snapshot = reportManager.capture();
+			ArrayList<UserManager> sortedUserList = snapshot.usersByName();
 			try (PrintWriter reportWriter = new PrintWriter(new FileWriter(outputFile))) {
 				reportWriter.println("Posts Shared With User Report");
 				reportWriter.println("---------------------------");
@@ -397,7 +395,7 @@ public class ReportManagerUI {
 					UserManager user = sortedUserList.get(i);
 					reportWriter.println("User: " + user.getName());
 
-					ObservableList<PostManager> sharedPosts = reportManager.getPostsSharedWithUser(user);
+					ArrayList<PostManager> sharedPosts = snapshot.postsSharedWith(user);
 					if (sharedPosts.isEmpty()) {
 						reportWriter.println("No posts shared with this user.");
 					} else {
@@ -482,38 +480,26 @@ public class ReportManagerUI {
 			return;
 		}
 
-		CircularDoublyLinkedList<PostManager> createdPosts = new CircularDoublyLinkedList<>();
-		CircularDoublyLinkedList<PostManager> sharedPosts = new CircularDoublyLinkedList<>();
-
-		Iterator<PostManager> iterator = postDatabase.iterator();
-		while (iterator.hasNext()) {
-			PostManager post = iterator.next();
-			if (post != null) {
-				if (post.getCreator().equals(user)) {
-					createdPosts.insertLast(post);
-				}
-				if (post.getSharedUsers().contains(user)) {
-					sharedPosts.insertLast(post);
-				}
-			}
-		}
+		// counted from the user's own posts and inbox rather than by scanning every post
+		int createdCount = reportManager.countPostsByUser(user);
+		int sharedCount = reportManager.countPostsSharedWithUser(user);
 
 		String pluralSuffixCreated;
-		if (createdPosts.size() != 1) {
+		if (createdCount != 1) {
 			pluralSuffixCreated = "s";
 		} else {
 			pluralSuffixCreated = "";
 		}
 
 		String pluralSuffixShared;
-		if (sharedPosts.size() != 1) {
+		if (sharedCount != 1) {
 			pluralSuffixShared = "s";
 		} else {
 			pluralSuffixShared = "";
 		}
 
-		String reportText = user.getName() + " has created " + createdPosts.size() + " post" + pluralSuffixCreated + 
-						  " and has " + sharedPosts.size() + " post" + pluralSuffixShared + " shared with him";
+		String reportText = user.getName() + " has created " + createdCount + " post" + pluralSuffixCreated + 
+						  " and has " + sharedCount + " post" + pluralSuffixShared + " shared with him";
 
 		showNotification("User Activity Report", reportText);
 	}
@@ -0,0 +1,104 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+// Runs summary reports on worker threads and remembers their results.
+// Results are kept per report and limit for the current data version of the engine, so asking
+// again before anything changed returns the same text at once, and asking while the same report
+// is still running joins that run instead of starting another. Any change to the users, posts or
+// friendships moves the data version on and drops every result computed before it. The recent
+// activity reports count back from today, so results are also dropped when the date changes.
+//
+// Submit from the thread that edits the lists. The snapshot is captured there and copies every
+// value these reports read, so the report then runs on a worker without touching the live users,
+// timelines or friendship graph, and its text belongs to exactly the data version it is kept under.
+public class ReportService implements AutoCloseable {
+	// Reports on large networks already spread over the fork-join pool, so a few workers are
+	// enough to keep separate requests from waiting on each other
+	private static final int DEFAULT_THREADS = 2;
+	// Results kept before the cache is emptied, each limit asked for is a separate entry
+	private static final int MAX_RESULTS = 64;
+
+	// Reports the service can run
+	public enum Report {
+		MOST_ACTIVE_USERS(ReportEngine::generateMostActiveUsersReport),
+		RECENT_ACTIVITY(ReportEngine::generateRecentActivityReport),
+		ACTIVE_IN_LAST_THREE_WEEKS(ReportEngine::generateActiveInLastThreeWeeksReport),
+		ENGAGEMENT_STATS(ReportEngine::generateEngagementStatsReport);
+
+		private final BiFunction<ReportEngine, Integer, String> builder;
+
+		Report(BiFunction<ReportEngine, Integer, String> builder) {
+			this.builder = builder;
+		}
+
+		// Builds the report text
+		String build(ReportEngine engine, int limit) {
+			return builder.apply(engine, limit);
+		}
+	}
+
+	private final ReportEngine engine;
+	private final ExecutorService workers;
+	// Finished and running reports of the current data version, by report and limit
+	private final ConcurrentHashMap<String, CompletableFuture<String>> results = new ConcurrentHashMap<>();
+	// Data version and date the kept results were computed for
+	private long resultsVersion = -1;
+	private LocalDate resultsDate;
+
+	// Creates a service that runs the engine's reports on a few worker threads
+	public ReportService(ReportEngine engine) {
+		this(engine, DEFAULT_THREADS);
+	}
+
+	// Creates a service that runs the engine's reports on the given number of worker threads
+	public ReportService(ReportEngine engine, int threads) {
+		this.engine = engine;
+		this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+			Thread thread = new Thread(runnable, "report-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// Returns the report text, from the kept results when nothing changed since it was last
+	// built, otherwise from the run already in progress or from a new run on a worker
+	public CompletableFuture<String> submit(Report report, int limit) {
+		long version = engine.dataVersion();
+		LocalDate today = LocalDate.now();
+		if (version != resultsVersion || !today.equals(resultsDate) || results.size() >= MAX_RESULTS) {
+			results.clear();
+			resultsVersion = version;
+			resultsDate = today;
+		}
+		String key = report + ":" + limit;
+		CompletableFuture<String> result = results.get(key);
+		if (result == null) {
+			ReportEngine pinned = engine.pinnedTo(engine.capture());
+			CompletableFuture<String> started = CompletableFuture.supplyAsync(() -> report.build(pinned, limit), workers);
+			results.put(key, started);
+			// a failed run is forgotten so the next request tries again
+			started.whenComplete((text, error) -> {
+				if (error != null) {
+					results.remove(key, started);
+				}
+			});
+			result = started;
+		}
+		return result;
+	}
+
+	// Stops the workers, reports still running are abandoned
+	@Override
+	public void close() {
+		workers.shutdownNow();
+	}
+}
@@ -0,0 +1,223 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+// Point-in-time view of the users and posts that a report or export reads.
+// It is captured on the thread that edits the lists and holds, besides the users and posts in
+// list order, a UserRecord of everything the reports read about each user: name, ID, posts
+// created and received, date of the newest post, number of friends and vertex in the friendship
+// graph, which is frozen with it (see FriendshipGraph.freeze). Reports that read only these can
+// run on any thread while the lists go on being edited, and give the same result as if they had
+// run at capture.
+//
+// Over a UserRegistry that owns its users and a PostRegistry, capturing copies nothing per user:
+// the registry adds records only for the users changed since its last capture, and the snapshot
+// reads each user's newest record made at or before its own. The list snapshots share their
+// arrays with earlier ones while the lists are only appended to, and the graph copies rows only
+// when they change, so a capture costs about as much as the changes since the last one.
+// Other lists get their records made at capture, for every user.
+//
+// The posts themselves are not copied: their ID, content, date and audience are read when a
+// caller gets to them, so code that prints posts runs on the editing thread right after
+// capturing, the way the exports do.
+//
+// Plain post lists have no timelines. Their posts are grouped by creator and audience member
+// at capture instead, and plain user lists have no graph.
+public class ReportSnapshot {
+	private final ListSnapshot<UserManager> users;
+	private final ListSnapshot<PostManager> posts;
+	// Published posts come from timelines that may also hold posts of other registries
+	private final boolean published;
+	// Frozen friendships, null for plain lists
+	private final FriendshipGraph friendships;
+	// Registry whose records the snapshot reads and the epoch it reads them at, or the records
+	// made at capture when the registry cannot keep them
+	private final UserRegistry registry;
+	private final long epoch;
+	private final IdentityHashMap<UserManager, UserRecord> records;
+	// Built the first time it is needed, on the reading thread
+	private volatile Set<PostManager> postSet;
+
+	// captures through the registry's records, which it keeps for users it owns
+	private ReportSnapshot(UserRegistry users, PostRegistry posts) {
+		this.users = users.snapshot();
+		this.posts = posts.snapshot();
+		this.published = true;
+		this.friendships = users.getGraph().freeze();
+		this.registry = users;
+		this.records = null;
+		this.epoch = users.capture(this);
+	}
+
+	// captures by making a record of every user now
+	private ReportSnapshot(ListSnapshot<UserManager> users, ListSnapshot<PostManager> posts, boolean published, FriendshipGraph graph) {
+		this.users = users;
+		this.posts = posts;
+		this.published = published;
+		this.friendships = graph == null ? null : graph.freeze();
+		this.registry = null;
+		this.epoch = 0;
+		this.records = new IdentityHashMap<>(users.size());
+
+		IdentityHashMap<UserManager, ArrayList<PostManager>> createdGroups = published ? null : new IdentityHashMap<>();
+		IdentityHashMap<UserManager, ArrayList<PostManager>> receivedGroups = published ? null : new IdentityHashMap<>();
+		if (!published) {
+			groupPosts(createdGroups, receivedGroups);
+		}
+		for (UserManager user : users) {
+			if (user == null || records.containsKey(user)) {
+				continue;
+			}
+			Collection<PostManager> created;
+			Collection<PostManager> received;
+			long lastPostTime = UserRecord.NO_DATE;
+			if (published) {
+				created = user.getCreatedPosts().freeze();
+				received = user.getInbox().freeze();
+				lastPostTime = timeOf(user.getLastPostDate());
+			} else {
+				ArrayList<PostManager> userPosts = createdGroups.get(user);
+				ArrayList<PostManager> sharedPosts = receivedGroups.get(user);
+				created = userPosts == null ? Collections.<PostManager>emptyList() : userPosts;
+				received = sharedPosts == null ? Collections.<PostManager>emptyList() : sharedPosts;
+				for (PostManager post : created) {
+					lastPostTime = Math.max(lastPostTime, timeOf(post.getCreationDate()));
+				}
+			}
+			records.put(user, new UserRecord(null, 0, true, user.getName(), user.getUserID(), lastPostTime,
+				user.getFriendCount(), graph == null ? -1 : graph.indexOf(user), created, received));
+		}
+	}
+
+	// Captures the users and posts as they are now, either list may be null.
+	// Call it on the thread that edits the lists.
+	public static ReportSnapshot capture(CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts) {
+		if (users instanceof UserRegistry && ((UserRegistry) users).ownsUsers() && posts instanceof PostRegistry) {
+			return new ReportSnapshot((UserRegistry) users, (PostRegistry) posts);
+		}
+		return new ReportSnapshot(
+			users == null ? new CircularDoublyLinkedList<UserManager>().snapshot() : users.snapshot(),
+			posts == null ? new CircularDoublyLinkedList<PostManager>().snapshot() : posts.snapshot(),
+			posts instanceof PostRegistry,
+			users instanceof UserRegistry ? ((UserRegistry) users).getGraph() : null);
+	}
+
+	// Returns the users
+	public ListSnapshot<UserManager> users() {
+		return users;
+	}
+
+	// Returns the posts
+	public ListSnapshot<PostManager> posts() {
+		return posts;
+	}
+
+	// Returns what the reports read about a user at capture, or null if the user was not in the list
+	UserRecord recordOf(UserManager user) {
+		if (user == null) {
+			return null;
+		}
+		return records != null ? records.get(user) : user.recordAt(registry, epoch);
+	}
+
+	// epoch the records are read at, for the registry to tell which records it still needs
+	long epoch() {
+		return epoch;
+	}
+
+	// Returns the frozen friendship graph, or null for a plain list
+	public FriendshipGraph friendships() {
+		return friendships;
+	}
+
+	// Returns the users sorted by their names at capture
+	public ArrayList<UserManager> usersByName() {
+		ArrayList<UserManager> sorted = new ArrayList<>(users.size());
+		IdentityHashMap<UserManager, String> names = new IdentityHashMap<>(users.size());
+		for (UserManager user : users) {
+			UserRecord record = recordOf(user);
+			if (record != null && record.getName() != null && names.put(user, record.getName()) == null) {
+				sorted.add(user);
+			}
+		}
+		sorted.sort((user1, user2) -> names.get(user1).compareTo(names.get(user2)));
+		return sorted;
+	}
+
+	// Returns the posts a user created
+	public ArrayList<PostManager> postsBy(UserManager user) {
+		UserRecord record = recordOf(user);
+		return record == null ? new ArrayList<>() : listed(record.getCreated());
+	}
+
+	// Returns the posts shared with a user by others
+	public ArrayList<PostManager> postsSharedWith(UserManager user) {
+		UserRecord record = recordOf(user);
+		return record == null ? new ArrayList<>() : listed(record.getReceived());
+	}
+
+	// copies a user's posts, leaving out posts on the timelines that belong to another list
+	private ArrayList<PostManager> listed(Collection<PostManager> group) {
+		if (!published) {
+			return new ArrayList<>(group);
+		}
+		Set<PostManager> inList = postSet();
+		ArrayList<PostManager> result = new ArrayList<>(group.size());
+		for (PostManager post : group) {
+			if (inList.contains(post)) {
+				result.add(post);
+			}
+		}
+		return result;
+	}
+
+	// collects the posts of the list, the first time a user's posts are asked for
+	private Set<PostManager> postSet() {
+		Set<PostManager> set = postSet;
+		if (set == null) {
+			synchronized (this) {
+				set = postSet;
+				if (set == null) {
+					set = Collections.newSetFromMap(new IdentityHashMap<>(posts.size()));
+					for (PostManager post : posts) {
+						set.add(post);
+					}
+					postSet = set;
+				}
+			}
+		}
+		return set;
+	}
+
+	// files every post of a plain list under its creator and under each member of its audience
+	private void groupPosts(IdentityHashMap<UserManager, ArrayList<PostManager>> createdGroups,
+			IdentityHashMap<UserManager, ArrayList<PostManager>> receivedGroups) {
+		for (PostManager post : posts) {
+			if (post == null) {
+				continue;
+			}
+			UserManager creator = post.getCreator();
+			if (creator != null) {
+				createdGroups.computeIfAbsent(creator, user -> new ArrayList<>()).add(post);
+			}
+			for (UserManager member : post.getSharedUsers()) {
+				if (member != creator) {
+					receivedGroups.computeIfAbsent(member, user -> new ArrayList<>()).add(post);
+				}
+			}
+		}
+	}
+
+	// reads a date as milliseconds, so no other thread ever touches the Calendar
+	private static long timeOf(Calendar date) {
+		return date == null ? UserRecord.NO_DATE : date.getTimeInMillis();
+	}
+}
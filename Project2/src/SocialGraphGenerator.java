@@ -0,0 +1,344 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Writes synthetic users, friendships and posts files in the formats FileManager reads.
+// The same seed and settings always give the same files, byte for byte.
+//
+// Friendships follow preferential attachment: users join one by one and link to earlier users,
+// favouring the ones that joined early, which are the ones that have collected the most friends.
+// Rather than keeping every edge to pick endpoints by degree, user j is picked with probability
+// proportional to j^(-1/(exponent - 1)), the expected degree of user j under preferential
+// attachment. That gives the same power-law degree distribution, P(k) ~ k^-exponent, with
+// exponent 3 being the classic Barabasi-Albert network. Every user's links are written as soon
+// as they are picked, so memory stays constant however many edges are written.
+//
+// Post counts per user are geometric around the configured mean. Dates are spread over a window
+// ending at the end date, decaying exponentially into the past with weekends a bit busier.
+public class SocialGraphGenerator {
+	// Separate random streams, so changing the post settings keeps the same users and friends
+	private static final long USER_STREAM = 0x243F6A8885A308D3L;
+	private static final long FRIEND_STREAM = 0x13198A2E03707344L;
+	private static final long POST_STREAM = 0xA4093822299F31D0L;
+
+	private static final String[] FIRST_NAMES = {
+		"Ahmad", "Lina", "Omar", "Sara", "Yousef", "Rania", "Khaled", "Maya", "Hasan", "Noor",
+		"Ali", "Dana", "Sami", "Huda", "Tariq", "Layla", "Fadi", "Reem", "Majd", "Jana"
+	};
+	private static final String[] LAST_NAMES = {
+		"Amro", "Haddad", "Khalil", "Nasser", "Saleh", "Odeh", "Barghouti", "Qasem", "Hamdan", "Darwish",
+		"Mansour", "Awad", "Shaheen", "Zaid", "Kanaan", "Jaber", "Issa", "Yaseen", "Abbas", "Hijazi"
+	};
+	private static final String[] TOPICS = {
+		"Good morning everyone", "Just finished a great book", "Coffee with friends", "Exam week again",
+		"Beautiful sunset today", "New photos from the trip", "Happy birthday to my best friend",
+		"Working on a new project", "Weekend plans anyone", "Great match last night"
+	};
+	// Relative activity from Monday to Sunday
+	private static final double[] WEEKDAY_WEIGHTS = {0.8, 0.8, 0.85, 0.85, 0.95, 1.0, 1.0};
+
+	private final long seed;
+	private int userCount = 1000;
+	private double friendsPerUser = 8;
+	private double degreeExponent = 3;
+	private double postsPerUser = 4;
+	private int days = 365;
+	private double recentDays = 60;
+	private double shareRatio = 0.5;
+	private LocalDate endDate = LocalDate.now();
+
+	// Creates a generator with the given seed and the default settings
+	public SocialGraphGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	// Sets the number of users
+	public void setUserCount(int userCount) {
+		if (userCount < 0) {
+			throw new IllegalArgumentException("User count must not be negative");
+		}
+		this.userCount = userCount;
+	}
+
+	// Sets the average number of friends per user, each friendship counts for both users
+	public void setFriendsPerUser(double friendsPerUser) {
+		if (friendsPerUser < 0) {
+			throw new IllegalArgumentException("Friends per user must not be negative");
+		}
+		this.friendsPerUser = friendsPerUser;
+	}
+
+	// Sets the exponent of the friend count distribution, above 2
+	public void setDegreeExponent(double degreeExponent) {
+		if (!(degreeExponent > 2)) {
+			throw new IllegalArgumentException("Degree exponent must be above 2");
+		}
+		this.degreeExponent = degreeExponent;
+	}
+
+	// Sets the average number of posts per user
+	public void setPostsPerUser(double postsPerUser) {
+		if (postsPerUser < 0) {
+			throw new IllegalArgumentException("Posts per user must not be negative");
+		}
+		this.postsPerUser = postsPerUser;
+	}
+
+	// Sets how many days before the end date posts may be dated
+	public void setDays(int days) {
+		if (days < 1) {
+			throw new IllegalArgumentException("Days must be at least 1");
+		}
+		this.days = days;
+	}
+
+	// Sets the mean age of a post in days, smaller values crowd the posts near the end date
+	public void setRecentDays(double recentDays) {
+		if (!(recentDays > 0)) {
+			throw new IllegalArgumentException("Recent days must be positive");
+		}
+		this.recentDays = recentDays;
+	}
+
+	// Sets the share of posts that are shared with all of their creator's friends
+	public void setShareRatio(double shareRatio) {
+		if (shareRatio < 0 || shareRatio > 1) {
+			throw new IllegalArgumentException("Share ratio must be between 0 and 1");
+		}
+		this.shareRatio = shareRatio;
+	}
+
+	// Sets the date of the newest posts
+	public void setEndDate(LocalDate endDate) {
+		this.endDate = endDate;
+	}
+
+	// ID of the user with the given number
+	static String userID(long number) {
+		return "U" + number;
+	}
+
+	// Writes the users file and returns the number of users
+	public long writeUsers(String filePath) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed ^ USER_STREAM);
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), 1 << 16);
+			for (int i = 0; i < userCount; i++) {
+				String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+				// two uniform parts make ages peak in the late twenties and thirties
+				int age = 16 + random.nextInt(25) + random.nextInt(40);
+				writer.write(userID(i));
+				writer.write(',');
+				writer.write(name);
+				writer.write(',');
+				writer.write(Integer.toString(age));
+				writer.newLine();
+			}
+			writer.flush();
+			file.commit();
+		}
+		return userCount;
+	}
+
+	// Writes the friendships file and returns the number of friendships. Each user gets a line
+	// listing the earlier users they linked to, followed by a line back from each of those users.
+	public long writeFriendships(String filePath) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed ^ FRIEND_STREAM);
+		// each friendship is made by one of its two users
+		double linksPerUser = friendsPerUser / 2;
+		int wholeLinks = (int) linksPerUser;
+		double extraLink = linksPerUser - wholeLinks;
+		// picking u^power of the earlier users favours early users by j^(-1/(exponent - 1))
+		double power = 1 / (1 - 1 / (degreeExponent - 1));
+		int[] picked = new int[wholeLinks + 1];
+		long edges = 0;
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), 1 << 16);
+			for (int i = 1; i < userCount; i++) {
+				int links = wholeLinks + (random.nextDouble() < extraLink ? 1 : 0);
+				int count = 0;
+				if (links >= i) {
+					// too few earlier users to choose from, link to all of them
+					for (int j = 0; j < i; j++) {
+						picked[count++] = j;
+					}
+				} else {
+					// a repeat pick is drawn again, giving up after a bounded number of tries
+					for (int tries = 0; count < links && tries < links * 16; tries++) {
+						int j = Math.min(i - 1, (int) (i * Math.pow(random.nextDouble(), power)));
+						if (!contains(picked, count, j)) {
+							picked[count++] = j;
+						}
+					}
+				}
+				if (count == 0) {
+					continue;
+				}
+				String user = userID(i);
+				writer.write(user);
+				for (int k = 0; k < count; k++) {
+					writer.write(',');
+					writer.write(userID(picked[k]));
+				}
+				writer.newLine();
+				// a line only befriends its first user, so every friend gets a line back
+				for (int k = 0; k < count; k++) {
+					writer.write(userID(picked[k]));
+					writer.write(',');
+					writer.write(user);
+					writer.newLine();
+				}
+				edges += count;
+			}
+			writer.flush();
+			file.commit();
+		}
+		return edges;
+	}
+
+	// Writes the posts file, each user's posts oldest first, and returns the number of posts
+	public long writePosts(String filePath) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed ^ POST_STREAM);
+		// geometric post counts, P(n) = (1 - q) q^n has mean q / (1 - q)
+		double q = postsPerUser / (1 + postsPerUser);
+		double logQ = Math.log(q);
+		// exponential ages cut off at the window, inverted from u in [0, 1)
+		double window = 1 - Math.exp(-days / recentDays);
+		long endDay = endDate.toEpochDay();
+		long postNumber = 0;
+		long[] dates = new long[16];
+		try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), 1 << 16);
+			for (int i = 0; i < userCount; i++) {
+				int count = q <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE - 8, Math.floor(Math.log(1 - random.nextDouble()) / logQ));
+				if (count > dates.length) {
+					dates = new long[Math.max(count, dates.length * 2)];
+				}
+				for (int k = 0; k < count; k++) {
+					dates[k] = endDay - postAge(random, window);
+				}
+				Arrays.sort(dates, 0, count);
+				String creator = userID(i);
+				for (int k = 0; k < count; k++) {
+					writer.write('P');
+					writer.write(Long.toString(postNumber));
+					writer.write(',');
+					writer.write(creator);
+					writer.write(',');
+					writer.write(TOPICS[random.nextInt(TOPICS.length)]);
+					writer.write(',');
+					writer.write(formatDate(LocalDate.ofEpochDay(dates[k])));
+					writer.write(',');
+					writer.write(random.nextDouble() < shareRatio ? "true" : "false");
+					writer.newLine();
+					postNumber++;
+				}
+			}
+			writer.flush();
+			file.commit();
+		}
+		return postNumber;
+	}
+
+	// days before the end date for one post, weekdays are accepted a little less often than weekends
+	private long postAge(SplittableRandom random, double window) {
+		while (true) {
+			long age = Math.min(days - 1, (long) (-recentDays * Math.log(1 - random.nextDouble() * window)));
+			DayOfWeek day = endDate.minusDays(age).getDayOfWeek();
+			if (random.nextDouble() < WEEKDAY_WEIGHTS[day.getValue() - 1]) {
+				return age;
+			}
+		}
+	}
+
+	// checks the first count picks for a user
+	private static boolean contains(int[] picked, int count, int user) {
+		for (int k = 0; k < count; k++) {
+			if (picked[k] == user) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// formats a date as DD.MM.YYYY like the posts files
+	private static String formatDate(LocalDate date) {
+		int day = date.getDayOfMonth();
+		int month = date.getMonthValue();
+		return (day < 10 ? "0" : "") + day + "." + (month < 10 ? "0" : "") + month + "." + date.getYear();
+	}
+
+	// Generates the three files from command line options
+	//
+	// usage: SocialGraphGenerator <output folder> [--seed N] [--users N] [--friends AVG]
+	//        [--exponent E] [--posts AVG] [--days N] [--recent DAYS] [--share RATIO] [--end DD.MM.YYYY]
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args.length % 2 == 0) {
+			System.err.println("usage: SocialGraphGenerator <output folder> [--seed N] [--users N] [--friends AVG]"
+				+ " [--exponent E] [--posts AVG] [--days N] [--recent DAYS] [--share RATIO] [--end DD.MM.YYYY]");
+			System.exit(2);
+		}
+		long seed = 42;
+		for (int i = 1; i < args.length; i += 2) {
+			if (args[i].equals("--seed")) {
+				seed = Long.parseLong(args[i + 1]);
+			}
+		}
+		SocialGraphGenerator generator = new SocialGraphGenerator(seed);
+		for (int i = 1; i < args.length; i += 2) {
+			String value = args[i + 1];
+			switch (args[i]) {
+				case "--seed":
+					break;
+				case "--users":
+					generator.setUserCount(Integer.parseInt(value));
+					break;
+				case "--friends":
+					generator.setFriendsPerUser(Double.parseDouble(value));
+					break;
+				case "--exponent":
+					generator.setDegreeExponent(Double.parseDouble(value));
+					break;
+				case "--posts":
+					generator.setPostsPerUser(Double.parseDouble(value));
+					break;
+				case "--days":
+					generator.setDays(Integer.parseInt(value));
+					break;
+				case "--recent":
+					generator.setRecentDays(Double.parseDouble(value));
+					break;
+				case "--share":
+					generator.setShareRatio(Double.parseDouble(value));
+					break;
+				case "--end":
+					String[] parts = value.split("\\.");
+					generator.setEndDate(LocalDate.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]), Integer.parseInt(parts[0])));
+					break;
+				default:
+					System.err.println("Unknown option " + args[i]);
+					System.exit(2);
+			}
+		}
+
+		File folder = new File(args[0]);
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException("Cannot create " + args[0]);
+		}
+		long users = generator.writeUsers(new File(folder, "users.txt").getPath());
+		long edges = generator.writeFriendships(new File(folder, "friendships.txt").getPath());
+		long posts = generator.writePosts(new File(folder, "posts.txt").getPath());
+		System.out.println("Wrote " + users + " users, " + edges + " friendships and " + posts + " posts to " + folder.getPath());
+	}
+}
@@ -0,0 +1,101 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+// Rows of a file import that are added to the lists as the import threads parse them.
+// Parsing runs on the import threads and only builds new objects, it never changes the lists.
+// The rows are applied on the thread that edits the lists, all at once or a batch at a time so
+// a UI thread can keep drawing in between, in file order so the result is the same as reading
+// the file from top to bottom. Only the rows parsed but not applied yet are held in memory.
+//
+// Cancelling the import through its progress stops both: the workers stop reading, and the next
+// batch the lists would get throws a CancellationException instead, leaving the rows added so far.
+public class StagedImport<R> {
+	private final ChunkedImport.RowFeed<R> feed;
+	private final Consumer<R> apply;
+	private final Runnable finish;
+	private final ImportProgress progress;
+	// Batch being applied and the next row in it
+	private ArrayList<R> batch;
+	private int row;
+	private long applied;
+	private boolean done;
+
+	// Applies the rows of the feed: apply adds one row to the lists and finish runs after the last
+	// row, or after the last row added before the import was cancelled through the progress,
+	// which may be null.
+	StagedImport(ChunkedImport.RowFeed<R> feed, Consumer<R> apply, Runnable finish, ImportProgress progress) {
+		this.feed = feed;
+		this.apply = apply;
+		this.finish = finish;
+		this.progress = progress;
+	}
+
+	// Returns the number of rows applied so far
+	public long applied() {
+		return applied;
+	}
+
+	// Checks if every row has been applied
+	public boolean isDone() {
+		return done;
+	}
+
+	// Applies up to max more rows among those parsed so far, without waiting for the import
+	// threads, returns true once every row is in
+	public boolean applyBatch(int max) throws IOException {
+		return apply(max, false);
+	}
+
+	// Applies every remaining row, waiting for the import threads as needed
+	public void applyAll() throws IOException {
+		apply(Long.MAX_VALUE, true);
+	}
+
+	// applies rows until max are in or, without wait, none is ready; stops the workers on failure
+	private boolean apply(long max, boolean wait) throws IOException {
+		try {
+			return applyRows(max, wait);
+		} catch (IOException | RuntimeException | Error e) {
+			feed.close();
+			throw e;
+		}
+	}
+
+	private boolean applyRows(long max, boolean wait) throws IOException {
+		long end = max == Long.MAX_VALUE ? Long.MAX_VALUE : applied + max;
+		while (!done && applied < end) {
+			if (batch == null || row == batch.size()) {
+				if (progress != null && progress.isCancelled()) {
+					// the rows already added stay, finish them as if the file ended here
+					done = true;
+					feed.close();
+					if (finish != null) {
+						finish.run();
+					}
+					throw new CancellationException("Import was cancelled");
+				}
+				batch = wait ? feed.take() : feed.poll();
+				row = 0;
+				if (batch == null) {
+					if (feed.isDone()) {
+						done = true;
+						if (finish != null) {
+							finish.run();
+						}
+					}
+					break;
+				}
+			}
+			apply.accept(batch.get(row++));
+			applied++;
+		}
+		return done;
+	}
+}
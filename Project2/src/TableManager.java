@@ -11,12 +11,13 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Calendar;
 import javafx.collections.ListChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.animation.AnimationTimer;
+import javafx.concurrent.Task;
 
 // Manages the display and interaction with data tables in the application
 public class TableManager {
@@ -34,6 +35,15 @@ public class TableManager {
     private TableView<PostManager> postTable;
     private TableView<UserManager> friendshipTable;
 
+    // Rows added to a table per frame when a large list is published
+    private static final int PUBLISH_BATCH = 10000;
+    private static final Comparator<UserManager> BY_NAME = (u1, u2) -> u1.getName().compareTo(u2.getName());
+
+    // Fill each table in the background, one per table so a newer refresh replaces an older one
+    private final TablePublisher<UserManager> userPublisher;
+    private final TablePublisher<PostManager> postPublisher;
+    private final TablePublisher<UserManager> friendshipPublisher;
+
     // Creates a new TableManager with empty lists
     public TableManager(CircularDoublyLinkedList<UserManager> users, CircularDoublyLinkedList<PostManager> posts) {
         this.users = users;
@@ -41,6 +51,9 @@ public class TableManager {
         userList = FXCollections.observableArrayList();
         postList = FXCollections.observableArrayList();
         friendshipList = FXCollections.observableArrayList();
+        userPublisher = new TablePublisher<>(userList);
+        postPublisher = new TablePublisher<>(postList);
+        friendshipPublisher = new TablePublisher<>(friendshipList);
     }
 
     // Creates and configures the user table with appropriate columns
@@ -48,14 +61,15 @@ public class TableManager {
         userTable = new TableView<>();
         
         // Configure columns for user data
+        // the data classes are plain Java, so each cell wraps the current field value
         TableColumn<UserManager, String> idColumn = new TableColumn<>("User ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("userID"));
+        idColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getUserID()));
         
         TableColumn<UserManager, String> nameColumn = new TableColumn<>("Name");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getName()));
         
         TableColumn<UserManager, String> ageColumn = new TableColumn<>("Age");
-        ageColumn.setCellValueFactory(new PropertyValueFactory<>("age"));
+        ageColumn.setCellValueFactory(cellData -> new SimpleStringProperty(String.valueOf(cellData.getValue().getAge())));
         
         // Add columns to the table
         userTable.getColumns().addAll(idColumn, nameColumn, ageColumn);
@@ -70,16 +84,16 @@ public class TableManager {
         
         // Configure columns for post data
         TableColumn<PostManager, String> idColumn = new TableColumn<>("Post ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("postID"));
+        idColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getPostID()));
         
         TableColumn<PostManager, String> contentColumn = new TableColumn<>("Content");
-        contentColumn.setCellValueFactory(new PropertyValueFactory<>("content"));
+        contentColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getContent()));
         
         TableColumn<PostManager, String> dateColumn = new TableColumn<>("Date");
-        dateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
+        dateColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getFormattedDate()));
         
         TableColumn<PostManager, String> authorColumn = new TableColumn<>("Author");
-        authorColumn.setCellValueFactory(new PropertyValueFactory<>("author"));
+        authorColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getAuthorName()));
         
         // Add columns to the table
         postTable.getColumns().addAll(idColumn, contentColumn, dateColumn, authorColumn);
@@ -109,32 +123,25 @@ public class TableManager {
         
         // Configure columns for friendship data
         TableColumn<UserManager, String> idColumn = new TableColumn<>("User ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("userID"));
+        idColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getUserID()));
         
         TableColumn<UserManager, String> nameColumn = new TableColumn<>("Name");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getName()));
         
         TableColumn<UserManager, String> friendsColumn = new TableColumn<>("Friends");
         friendsColumn.setCellValueFactory(cellData -> {
             UserManager user = cellData.getValue();
             StringBuilder friendsList = new StringBuilder();
             
-            // Get the friends list
-            CircularDoublyLinkedList<UserManager> friends = user.getFriends();
-            if (friends != null && !friends.isEmpty()) {
-                Iterator<UserManager> iterator = friends.iterator();
-                boolean first = true;
-                
-                // Use the iterator to get all friends
-                while (iterator.hasNext()) {
-                    UserManager friend = iterator.next();
-                    if (friend != null) {
-                        if (!first) {
-                            friendsList.append(", ");
-                        }
-                        friendsList.append(friend.getName());
-                        first = false;
+            // Read the friends from the graph, so scrolling the table does not build friend lists
+            boolean first = true;
+            for (UserManager friend : user.friends()) {
+                if (friend != null) {
+                    if (!first) {
+                        friendsList.append(", ");
                     }
+                    friendsList.append(friend.getName());
+                    first = false;
                 }
             }
             
@@ -151,6 +158,7 @@ public class TableManager {
     // Refreshes the user table with new data
     public void refreshUserTable(CircularDoublyLinkedList<UserManager> users) {
         this.users = users;
+        userPublisher.stop();
         userList.clear();
         
         // First collect all users
@@ -173,6 +181,7 @@ public class TableManager {
     // Refreshes the post table with new data
     public void refreshPostTable(CircularDoublyLinkedList<PostManager> posts) {
         this.posts = posts;
+        postPublisher.stop();
         postList.clear();
         Iterator<PostManager> iterator = posts.iterator();
         while (iterator.hasNext()) {
@@ -183,6 +192,7 @@ public class TableManager {
     // Refreshes the friendship table with new data
     public void refreshFriendshipTable(CircularDoublyLinkedList<UserManager> users) {
         this.users = users;
+        friendshipPublisher.stop();
         friendshipList.clear();
         
         // First collect all users
@@ -202,6 +212,55 @@ public class TableManager {
         friendshipList.addAll(sortedUsers);
     }
 
+    // Refreshes the user table without blocking the screen: the users are sorted on a background
+    // thread and then added a batch per frame, so a freshly imported file shows up gradually
+    public void publishUserTable(CircularDoublyLinkedList<UserManager> users) {
+        this.users = users;
+        userPublisher.publish(users.snapshot(), BY_NAME);
+    }
+
+    // Refreshes the post table a batch per frame, keeping the list order
+    public void publishPostTable(CircularDoublyLinkedList<PostManager> posts) {
+        this.posts = posts;
+        postPublisher.publish(posts.snapshot(), null);
+    }
+
+    // Refreshes the friendship table like publishUserTable
+    public void publishFriendshipTable(CircularDoublyLinkedList<UserManager> users) {
+        this.users = users;
+        friendshipPublisher.publish(users.snapshot(), BY_NAME);
+    }
+
+    // Starts following the user list for an import: each showNewUsers call then adds the users
+    // appended to the list since the previous call to the end of the user table, unsorted
+    public void followUsers(CircularDoublyLinkedList<UserManager> users) {
+        this.users = users;
+        userPublisher.follow(users);
+    }
+
+    // Adds the users appended since the last call to the user table
+    public void showNewUsers() {
+        userPublisher.catchUp();
+    }
+
+    // Starts following the post list for an import, like followUsers
+    public void followPosts(CircularDoublyLinkedList<PostManager> posts) {
+        this.posts = posts;
+        postPublisher.follow(posts);
+    }
+
+    // Adds the posts appended since the last call to the post table
+    public void showNewPosts() {
+        postPublisher.catchUp();
+    }
+
+    // Redraws the friends shown for the users in the friendship table
+    public void refreshFriendshipCells() {
+        if (friendshipTable != null) {
+            friendshipTable.refresh();
+        }
+    }
+
     // Returns the currently selected user from the user table
     public UserManager getSelectedUser() {
         return userTable.getSelectionModel().getSelectedItem();
@@ -257,6 +316,10 @@ public class TableManager {
     }
     
     public UserManager findUser(String searchTerm, boolean searchById) {
+        if (users instanceof UserRegistry) {
+            UserRegistry registry = (UserRegistry) users;
+            return searchById ? registry.findByID(searchTerm) : registry.findByName(searchTerm);
+        }
         Iterator<UserManager> iterator = users.iterator();
         while (iterator.hasNext()) {
             UserManager user = iterator.next();
@@ -272,6 +335,9 @@ public class TableManager {
     }
     
     public PostManager findPost(String searchTerm, boolean searchById) {
+        if (searchById && posts instanceof PostRegistry) {
+            return ((PostRegistry) posts).findByID(searchTerm);
+        }
         Iterator<PostManager> iterator = posts.iterator();
         while (iterator.hasNext()) {
             PostManager post = iterator.next();
@@ -300,4 +366,105 @@ public class TableManager {
         friendshipTable.getSelectionModel().select(user);
         friendshipTable.scrollTo(user);
     }
+
+    // Fills one table from a list snapshot: the rows are copied and sorted on a background thread,
+    // then added to the table a batch per frame. Starting a new fill or a plain refresh stops the
+    // old one, and a sort that finishes after it was replaced is thrown away.
+    // While an import adds to a list, it can instead follow the list's tail and add each new
+    // element to the end of the table as it lands.
+    private static class TablePublisher<T> {
+        private final ObservableList<T> rows;
+        private int generation;
+        private AnimationTimer timer;
+        // List being followed and the last of its nodes already in the table, null for none
+        private CircularDoublyLinkedList<T> followed;
+        private CircularDoublyLinkedList.Node<T> shownTail;
+
+        TablePublisher(ObservableList<T> rows) {
+            this.rows = rows;
+        }
+
+        // Stops a fill that is still running, or following a list
+        void stop() {
+            generation++;
+            followed = null;
+            shownTail = null;
+            if (timer != null) {
+                timer.stop();
+                timer = null;
+            }
+        }
+
+        // Remembers where the list ends now, the table keeps its rows
+        void follow(CircularDoublyLinkedList<T> list) {
+            stop();
+            followed = list;
+            shownTail = list.lastNode();
+        }
+
+        // Adds the elements linked after the remembered end of the followed list to the table
+        void catchUp() {
+            if (followed == null) {
+                return;
+            }
+            ArrayList<T> added = new ArrayList<>();
+            CircularDoublyLinkedList.Node<T> node = shownTail == null ? followed.firstNode() : followed.nextNode(shownTail);
+            while (node != null) {
+                if (node.getData() != null) {
+                    added.add(node.getData());
+                }
+                shownTail = node;
+                node = followed.nextNode(node);
+            }
+            rows.addAll(added);
+        }
+
+        // Replaces the table rows with the snapshot, sorted when an order is given
+        void publish(ListSnapshot<T> snapshot, Comparator<? super T> order) {
+            stop();
+            int current = generation;
+            Task<ArrayList<T>> sorting = new Task<>() {
+                @Override
+                protected ArrayList<T> call() {
+                    ArrayList<T> items = new ArrayList<>(snapshot.size());
+                    for (T item : snapshot) {
+                        if (item != null) {
+                            items.add(item);
+                        }
+                    }
+                    if (order != null) {
+                        items.sort(order);
+                    }
+                    return items;
+                }
+            };
+            sorting.setOnSucceeded(e -> {
+                if (current == generation) {
+                    append(sorting.getValue());
+                }
+            });
+            Thread thread = new Thread(sorting, "table-publisher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // adds the items to the emptied table a batch per frame
+        private void append(ArrayList<T> items) {
+            rows.clear();
+            timer = new AnimationTimer() {
+                private int next;
+
+                @Override
+                public void handle(long now) {
+                    int end = Math.min(items.size(), next + PUBLISH_BATCH);
+                    rows.addAll(items.subList(next, end));
+                    next = end;
+                    if (next == items.size()) {
+                        TablePublisher.this.stop();
+                    }
+                }
+            };
+            timer.start();
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,215 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Keeps the first k items of a stream in the order given by a comparator without sorting
+// the whole stream. Items are held in a bounded heap whose root is the weakest item kept,
+// so each offer costs O(log k) and memory stays O(k).
+// Items that compare equal keep the order they were offered in, like a stable sort.
+public class TopK<T> {
+	// Chunks smaller than this are not worth splitting across threads
+	private static final int MIN_PARALLEL_CHUNK = 8192;
+
+	private final Comparator<? super T> order;
+	private final int limit;
+	// Heap of kept items with the weakest at index 0, and the position each was offered at
+	private Object[] heap;
+	private long[] positions;
+	private int size;
+	private long offered;
+
+	// Creates a selector that keeps the first limit items in the given order
+	public TopK(int limit, Comparator<? super T> order) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit must not be negative");
+		}
+		this.order = order;
+		this.limit = limit;
+		// grown on demand so a huge limit over a short stream stays cheap
+		this.heap = new Object[Math.min(limit, 16)];
+		this.positions = new long[heap.length];
+	}
+
+	// Offers the next item of the stream
+	public void offer(T item) {
+		offer(item, offered++);
+	}
+
+	// Offers an item that was at the given position of the stream
+	private void offer(T item, long position) {
+		if (limit == 0) {
+			return;
+		}
+		if (size < limit) {
+			if (size == heap.length) {
+				int capacity = (int) Math.min(limit, heap.length * 2L);
+				heap = Arrays.copyOf(heap, capacity);
+				positions = Arrays.copyOf(positions, capacity);
+			}
+			heap[size] = item;
+			positions[size] = position;
+			siftUp(size++);
+		} else if (weaker(0, item, position)) {
+			heap[0] = item;
+			positions[0] = position;
+			siftDown(0);
+		}
+	}
+
+	// Offers every item of an iterable
+	public void offerAll(Iterable<? extends T> items) {
+		for (T item : items) {
+			offer(item);
+		}
+	}
+
+	// Adds the items kept by another selector, keeping their original stream positions
+	@SuppressWarnings("unchecked")
+	public void merge(TopK<? extends T> other) {
+		for (int i = 0; i < other.size; i++) {
+			offer((T) other.heap[i], other.positions[i]);
+		}
+		offered = Math.max(offered, other.offered);
+	}
+
+	// Returns the number of items kept
+	public int size() {
+		return size;
+	}
+
+	// Returns the kept items, best first
+	@SuppressWarnings("unchecked")
+	public ArrayList<T> toSortedList() {
+		Integer[] slots = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = i;
+		}
+		Arrays.sort(slots, (first, second) -> compare(first, (T) heap[second], positions[second]));
+		ArrayList<T> result = new ArrayList<>(size);
+		for (Integer slot : slots) {
+			result.add((T) heap[slot]);
+		}
+		return result;
+	}
+
+	// Returns the first limit items of an iterable in the given order
+	public static <T> ArrayList<T> select(Iterable<? extends T> items, int limit, Comparator<? super T> order) {
+		TopK<T> selector = new TopK<>(limit, order);
+		selector.offerAll(items);
+		return selector.toSortedList();
+	}
+
+	// Same as select, but splits the list into chunks that are ranked on separate threads
+	// and then merges the per-chunk heaps. The result matches select exactly.
+	public static <T> ArrayList<T> parallelSelect(List<? extends T> items, int limit, Comparator<? super T> order) {
+		if (items.size() < MIN_PARALLEL_CHUNK * 2) {
+			return select(items, limit, order);
+		}
+		int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, items.size() / MIN_PARALLEL_CHUNK));
+		int chunkSize = (items.size() + chunks - 1) / chunks;
+		return ForkJoinPool.commonPool().invoke(new ChunkTask<T>(items, 0, items.size(), chunkSize, limit, order)).toSortedList();
+	}
+
+	// ranks one range of the list, splitting it in half until it fits in a chunk
+	private static class ChunkTask<T> extends RecursiveTask<TopK<T>> {
+		private static final long serialVersionUID = 1L;
+
+		private final List<? extends T> items;
+		private final int from;
+		private final int to;
+		private final int chunkSize;
+		private final int limit;
+		private final Comparator<? super T> order;
+
+		ChunkTask(List<? extends T> items, int from, int to, int chunkSize, int limit, Comparator<? super T> order) {
+			this.items = items;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+			this.limit = limit;
+			this.order = order;
+		}
+
+		@Override
+		protected TopK<T> compute() {
+			if (to - from <= chunkSize) {
+				TopK<T> selector = new TopK<>(limit, order);
+				for (int i = from; i < to; i++) {
+					selector.offer(items.get(i), i);
+				}
+				return selector;
+			}
+			int middle = (from + to) >>> 1;
+			ChunkTask<T> left = new ChunkTask<>(items, from, middle, chunkSize, limit, order);
+			ChunkTask<T> right = new ChunkTask<>(items, middle, to, chunkSize, limit, order);
+			right.fork();
+			TopK<T> result = left.compute();
+			result.merge(right.join());
+			return result;
+		}
+	}
+
+	// compares the item at a heap slot with another item, ties going to the earlier position
+	@SuppressWarnings("unchecked")
+	private int compare(int slot, T item, long position) {
+		int result = order.compare((T) heap[slot], item);
+		return result != 0 ? result : Long.compare(positions[slot], position);
+	}
+
+	// checks if the item at a heap slot ranks after the given item
+	private boolean weaker(int slot, T item, long position) {
+		return compare(slot, item, position) > 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean weaker(int slot, int other) {
+		return compare(slot, (T) heap[other], positions[other]) > 0;
+	}
+
+	private void siftUp(int slot) {
+		while (slot > 0) {
+			int parent = (slot - 1) >>> 1;
+			if (weaker(parent, slot)) {
+				return;
+			}
+			swap(slot, parent);
+			slot = parent;
+		}
+	}
+
+	private void siftDown(int slot) {
+		while (true) {
+			int left = slot * 2 + 1;
+			if (left >= size) {
+				return;
+			}
+			int weakest = left;
+			int right = left + 1;
+			if (right < size && weaker(right, left)) {
+				weakest = right;
+			}
+			if (weaker(slot, weakest)) {
+				return;
+			}
+			swap(slot, weakest);
+			slot = weakest;
+		}
+	}
+
+	private void swap(int first, int second) {
+		Object item = heap[first];
+		heap[first] = heap[second];
+		heap[second] = item;
+		long position = positions[first];
+		positions[first] = positions[second];
+		positions[second] = position;
+	}
+}
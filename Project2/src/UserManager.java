@@ -3,38 +3,45 @@
 // dr. mamoun nawahda
 // section 7
 
-import javafx.beans.property.SimpleStringProperty;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 // Manages user data and friendships in the social network application
 public class UserManager implements Comparable<UserManager> {
+	// Source of the serial numbers below
+	private static final AtomicInteger SERIALS = new AtomicInteger();
+
 	// User identification and personal information
 	private String userID;
 	private String name;
 	private int age;
+
+	// Number that tells this user apart from every other one, fixed at creation unlike the
+	// user ID, so friendship graphs can key their vertices by it without boxing
+	private final int serial = SERIALS.getAndIncrement();
 	
-	// List of friends for this user
+	// List of friends for this user, indexed for constant time membership checks.
+	// Stays null while the friends only live in the registry's friendship graph.
 	private CircularDoublyLinkedList<UserManager> friends;
 	
-	// Properties for table display
-	private SimpleStringProperty userIDProperty;
-	private SimpleStringProperty nameProperty;
-	private SimpleStringProperty ageProperty;
-	private SimpleStringProperty friendsCountProperty;
+	// Registry that indexes this user, told about ID and name changes
+	private UserRegistry registry;
+	
+	// Published posts created by and shared with this user, newest first
+	private PostTimeline createdPosts;
+	private PostTimeline inbox;
+
+	// What the reports read about this user at each recent capture of the registry, newest first
+	private volatile UserRecord record;
 
 	// Creates a new user with the given information
 	public UserManager(String userID, String name, int age) {
 		this.userID = userID;
 		this.name = name;
 		this.age = age;
-		this.friends = new CircularDoublyLinkedList<>();
-		
-		// Initialize table display properties
-		this.userIDProperty = new SimpleStringProperty(userID);
-		this.nameProperty = new SimpleStringProperty(name);
-		this.ageProperty = new SimpleStringProperty(String.valueOf(age));
-		this.friendsCountProperty = new SimpleStringProperty("0");
 	}
 
 	// looks for a user by their id or name
@@ -42,6 +49,9 @@ public class UserManager implements Comparable<UserManager> {
 		if (users == null || value == null) {
 			return null;
 		}
+		if (users instanceof UserRegistry) {
+			return ((UserRegistry) users).search(value);
+		}
 		Iterator<UserManager> iterator = users.iterator();
 		while (iterator.hasNext()) {
 			UserManager user = iterator.next();
@@ -53,13 +63,15 @@ public class UserManager implements Comparable<UserManager> {
 	}
 
 	// manages friendships between users
+	// Both directions are added before it returns, on the thread that edits the users. Report
+	// snapshots are captured on that thread too, so none of them sees one direction without the other.
 	public static boolean addFriendship(UserManager user1, UserManager user2) {
 		if (user1 == null || user2 == null)
 			return false;
 		if (user1.isFriend(user2))
 			return false;
-		user1.getFriends().insertLast(user2);
-		user2.getFriends().insertLast(user1);
+		user1.link(user2);
+		user2.link(user1);
 		return true;
 	}
 
@@ -69,19 +81,27 @@ public class UserManager implements Comparable<UserManager> {
 			return false;
 		if (!user1.isFriend(user2))
 			return false;
-		user1.getFriends().delete(user2);
-		user2.getFriends().delete(user1);
+		user1.unlink(user2);
+		user2.unlink(user1);
 		return true;
 	}
 
+	// number fixed when the user was created, unique among the users created so far
+	int getSerial() {
+		return serial;
+	}
+
 	// basic getters and setters
 	public String getUserID() {
 		return userID;
 	}
 
 	public void setUserID(String userID) {
+		String oldID = this.userID;
 		this.userID = userID;
-		this.userIDProperty.set(userID);
+		if (registry != null) {
+			registry.userIDChanged(this, oldID);
+		}
 	}
 
 	public String getName() {
@@ -89,8 +109,11 @@ public class UserManager implements Comparable<UserManager> {
 	}
 
 	public void setName(String name) {
+		String oldName = this.name;
 		this.name = name;
-		this.nameProperty.set(name);
+		if (registry != null) {
+			registry.userNameChanged(this, oldName);
+		}
 	}
 
 	public int getAge() {
@@ -99,27 +122,163 @@ public class UserManager implements Comparable<UserManager> {
 
 	public void setAge(int age) {
 		this.age = age;
-		this.ageProperty.set(String.valueOf(age));
+		if (registry != null) {
+			registry.userAgeChanged(this);
+		}
 	}
 
+	// returns the friend list, building it from the friendship graph the first time it is needed
 	public CircularDoublyLinkedList<UserManager> getFriends() {
+		if (friends == null) {
+			FriendList list = new FriendList(this);
+			if (registry != null) {
+				list.loadFrom(registry.getGraph());
+			}
+			friends = list;
+		}
 		return friends;
 	}
 
+	// returns the friends for reading only, straight from the friendship graph while the friend
+	// list has not been built, so walking everyone's friends does not build a list per user
+	public Iterable<UserManager> friends() {
+		if (friends == null) {
+			return registry != null ? registry.getGraph().neighbors(this) : Collections.<UserManager>emptyList();
+		}
+		return friends;
+	}
+
+	// checks if the friend list has been built yet
+	boolean hasFriendList() {
+		return friends != null;
+	}
+
+	// drops a friend from the friend list if it was built, without touching the graph
+	void forgetFriend(UserManager friend) {
+		if (friends instanceof FriendList) {
+			((FriendList) friends).forget(friend);
+		} else if (friends != null) {
+			friends.delete(friend);
+		}
+	}
+
+	// drops the friend list, once the user's friendships are gone from the graph
+	void dropFriendList() {
+		friends = null;
+	}
+
+	// adds a friend to the friend list if it was built, otherwise straight to the graph
+	private void link(UserManager friend) {
+		if (friends == null && registry != null) {
+			registry.addFriendEdge(this, friend);
+		} else {
+			getFriends().insertLast(friend);
+		}
+	}
+
+	// removes a friend from the friend list if it was built, otherwise straight from the graph
+	private void unlink(UserManager friend) {
+		if (friends == null && registry != null) {
+			registry.removeFriendEdge(this, friend);
+		} else if (friends != null) {
+			friends.delete(friend);
+		}
+	}
+
+	// number of friends, read from the graph when the friend list has not been built
+	public int getFriendCount() {
+		if (friends == null) {
+			return registry != null ? registry.getGraph().degree(this) : 0;
+		}
+		return friends.size();
+	}
+
+	// returns the published posts created by this user, newest first
+	public PostTimeline getCreatedPosts() {
+		if (createdPosts == null) {
+			createdPosts = new PostTimeline(this);
+		}
+		return createdPosts;
+	}
+
+	// returns the published posts shared with this user by others, newest first
+	public PostTimeline getInbox() {
+		if (inbox == null) {
+			inbox = new PostTimeline(this);
+		}
+		return inbox;
+	}
+
+	// number of published posts created by this user
+	public int getPostCount() {
+		return createdPosts == null ? 0 : createdPosts.size();
+	}
+
+	// number of published posts others shared with this user
+	public int getReceivedPostCount() {
+		return inbox == null ? 0 : inbox.size();
+	}
+
+	// date of this user's newest published post, or null if they have none
+	public Calendar getLastPostDate() {
+		return createdPosts == null ? null : createdPosts.newestDate();
+	}
+
 	public void setFriends(CircularDoublyLinkedList<UserManager> friends) {
-		this.friends = friends;
+		// copy into an indexed list so membership checks stay constant time,
+		// clearing it first also drops the old row from the friendship graph
+		FriendList indexed = new FriendList(this);
+		indexed.clear();
+		if (friends != null) {
+			Iterator<UserManager> iterator = friends.iterator();
+			while (iterator.hasNext()) {
+				indexed.insertLast(iterator.next());
+			}
+		}
+		this.friends = indexed;
+	}
+
+	// newest record made for this user at a capture, see UserRecord
+	UserRecord getRecord() {
+		return record;
+	}
+
+	// puts a record made at a capture in front of the older ones
+	void addRecord(UserRecord newest) {
+		newest.setPrevious(record);
+		record = newest;
+	}
+
+	// returns the record a capture of the registry at the given epoch reads, or null if the
+	// user was not in the registry then; safe to call from any thread
+	UserRecord recordAt(UserRegistry registry, long epoch) {
+		for (UserRecord older = record; older != null; older = older.getPrevious()) {
+			if (older.getRegistry() == registry && older.getEpoch() <= epoch) {
+				return older.isPresent() ? older : null;
+			}
+		}
+		return null;
+	}
+
+	// registry that currently indexes this user
+	UserRegistry getRegistry() {
+		return registry;
+	}
+
+	void setRegistry(UserRegistry registry) {
+		this.registry = registry;
 	}
 
 	// manages friend list
 	public void addFriend(UserManager friend) {
 		if (friend != null && !isFriend(friend)) {
-			friends.insertLast(friend);
+			link(friend);
 		}
 	}
 
 	public void removeFriend(UserManager friend) {
-		if (friend != null && isFriend(friend)) {
-			friends.delete(friend);
+		if (friend != null) {
+			unlink(friend);
 		}
 	}
 
@@ -153,21 +312,24 @@ public class UserManager implements Comparable<UserManager> {
 	}
 
 	// checks if someone is already a friend
+	// reads the friendship graph while the friend list has not been built
 	public boolean isFriend(UserManager user) {
-		if (user == null || friends == null) return false;
-		Iterator<UserManager> iterator = friends.iterator();
-		while (iterator.hasNext()) {
-			UserManager friend = iterator.next();
-			if (friend != null && friend.equals(user)) {
-				return true;
-			}
+		if (user == null) return false;
+		if (friends != null) {
+			return friends.contains(user);
+		}
+		if (registry == null) {
+			return false;
 		}
-		return false;
+		FriendshipGraph graph = registry.getGraph();
+		int vertex = graph.indexOf(this);
+		int friend = graph.indexOf(user);
+		return vertex >= 0 && friend >= 0 && graph.hasEdge(vertex, friend);
 	}
 
 	// updates a friend's info
 	public boolean update(UserManager user, String ID, String name, String age) {
-		if (!friends.contains(user)) {
+		if (!isFriend(user)) {
 			return false;
 		}
 		user.setUserID(ID);
@@ -179,6 +341,9 @@ public class UserManager implements Comparable<UserManager> {
 	// finds a user by their ID
 	public static UserManager searchByID(CircularDoublyLinkedList<UserManager> users, String userID) {
 		if (users == null || userID == null) return null;
+		if (users instanceof UserRegistry) {
+			return ((UserRegistry) users).findByID(userID);
+		}
 		Iterator<UserManager> iterator = users.iterator();
 		while (iterator.hasNext()) {
 			UserManager user = iterator.next();
@@ -194,6 +359,9 @@ public class UserManager implements Comparable<UserManager> {
 		if (users == null || name == null) {
 			return null;
 		}
+		if (users instanceof UserRegistry) {
+			return ((UserRegistry) users).findByName(name);
+		}
 		Iterator<UserManager> iterator = users.iterator();
 		while (iterator.hasNext()) {
 			UserManager user = iterator.next();
@@ -206,7 +374,7 @@ public class UserManager implements Comparable<UserManager> {
 
 	// adds a user to the friends list
 	public void insertUser(UserManager user) {
-		friends.insertLast(user);
+		link(user);
 	}
 
 	// removes a user from the friends list
@@ -214,23 +382,13 @@ public class UserManager implements Comparable<UserManager> {
 		if (user == null) {
 			return false;
 		}
-		friends.delete(user);
+		unlink(user);
 		return true;
 	}
 
 	// checks if a user is in the friends list
 	public boolean contains(UserManager user) {
-		if (friends == null || user == null) {
-			return false;
-		}
-		Iterator<UserManager> iterator = friends.iterator();
-		while (iterator.hasNext()) {
-			UserManager friend = iterator.next();
-			if (friend != null && friend.equals(user)) {
-				return true;
-			}
-		}
-		return false;
+		return isFriend(user);
 	}
 
 	// compares two users by their names
@@ -245,10 +403,4 @@ public class UserManager implements Comparable<UserManager> {
 		if (otherName == null) return 1;
 		return thisName.compareToIgnoreCase(otherName);
 	}
-
-	// Getter methods for table display properties
-	public SimpleStringProperty userIDProperty() { return userIDProperty; }
-	public SimpleStringProperty nameProperty() { return nameProperty; }
-	public SimpleStringProperty ageProperty() { return ageProperty; }
-	public SimpleStringProperty friendsCountProperty() { return friendsCountProperty; }
 }
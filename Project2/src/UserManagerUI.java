@@ -1,7 +1,6 @@
 import java.io.File;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -103,10 +102,7 @@ public class UserManagerUI {
         
         Button uploadUsersButton = new Button("Upload Users");
         uploadUsersButton.setPrefWidth(100);
-        uploadUsersButton.setOnAction(e -> {
-            handleUserFileUpload();
-            refreshUserTable();
-        });
+        uploadUsersButton.setOnAction(e -> handleUserFileUpload());
         
         actionButtonsBox.getChildren().addAll(addUserButton, editUserButton, deleteUserButton, uploadUsersButton);
         return actionButtonsBox;
@@ -167,6 +163,17 @@ public class UserManagerUI {
         UserManager selectedUser = tableManager.getUserTable().getSelectionModel().getSelectedItem();
         
         if (dialogManager.confirmDeleteUser(selectedUser)) {
+            // a registry drops the user's friendships on both sides by itself,
+            // a plain list needs them taken out first
+            if (!(users instanceof UserRegistry)) {
+                Iterator<UserManager> friends = selectedUser.getFriends().iterator();
+                while (friends.hasNext()) {
+                    UserManager friend = friends.next();
+                    if (friend != selectedUser) {
+                        friend.getFriends().delete(selectedUser);
+                    }
+                }
+            }
             users.delete(selectedUser);
             refreshUserTable();
             showAlert(Alert.AlertType.INFORMATION, "Success", null, 
@@ -186,52 +193,37 @@ public class UserManagerUI {
         File selectedFile = fileChooser.showOpenDialog(null);
 
         if (selectedFile != null) {
-            try {
-                CircularDoublyLinkedList<UserManager> loadedUsers = fileManager.loadUsers(selectedFile.getAbsolutePath());
-                Iterator<UserManager> iterator = loadedUsers.iterator();
-                while (iterator.hasNext()) {
-                    users.add(iterator.next());
-                }
-                
-                int duplicatesRemoved = removeDuplicateUsers();
-                
-                refreshUserTable();
+            // the file is read in the background and its users are added a batch per frame,
+            // showing up at the end of the table as they land; then duplicates are dropped in
+            // one pass and the table is filled again in name order
+            tableManager.followUsers(users);
+            BackgroundImport.start("Loading Users", selectedFile,
+                    (path, progress) -> fileManager.stageUsers(path, users, ChunkedImport.defaultThreads(), progress),
+                    tableManager::showNewUsers, () -> {
+                int duplicatesRemoved = dropDuplicateUsers();
+                tableManager.publishUserTable(users);
                 
                 String successMessage = "Users loaded successfully.";
                 if (duplicatesRemoved > 0) {
                     successMessage += "\nRemoved " + duplicatesRemoved + " duplicate user(s).";
                 }
                 showAlert(Alert.AlertType.INFORMATION, "Success", null, successMessage);
-            } catch (Exception e) {
-                showAlert(Alert.AlertType.ERROR, "Error", null, "Failed to load users: " + e.getMessage());
-            }
+            });
         }
     }
     
     public int removeDuplicateUsers() {
-        List<UserManager> uniqueUsers = new ArrayList<>();
-        Iterator<UserManager> iterator = users.iterator();
-        while (iterator.hasNext()) {
-            UserManager user = iterator.next();
-            boolean isDuplicate = false;
-            for (int i = 0; i < uniqueUsers.size(); i++) {
-                if (uniqueUsers.get(i).getUserID().equals(user.getUserID())) {
-                    isDuplicate = true;
-                    break;
-                }
-            }
-            if (!isDuplicate) {
-                uniqueUsers.add(user);
-            }
-        }
-        
-        int removedCount = users.size() - uniqueUsers.size();
-        users.clear();
-        for (int i = 0; i < uniqueUsers.size(); i++) {
-            users.insertLast(uniqueUsers.get(i));
-        }
+        int duplicatesRemoved = dropDuplicateUsers();
         tableManager.refreshUserTable(users);
-        return removedCount;
+        return duplicatesRemoved;
+    }
+
+    // keeps the first user with each ID and unlinks the later ones in a single pass
+    private int dropDuplicateUsers() {
+        int sizeBefore = users.size();
+        HashSet<String> seenIDs = new HashSet<>();
+        users.removeIf(user -> !seenIDs.add(user.getUserID()));
+        return sizeBefore - users.size();
     }
 
     public void refreshUserTable() {
@@ -0,0 +1,115 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.util.Calendar;
+import java.util.Collection;
+
+// What the reports read about one user, as it was at one capture of a registry.
+// A record never changes once made. Each user keeps their records newest first, a registry adds
+// one at its next capture only for the users that changed since the last, and a snapshot reads
+// the newest record of each user made at or before its own capture (see UserManager.recordAt).
+final class UserRecord {
+	// Marks a user without a dated post
+	static final long NO_DATE = Long.MIN_VALUE;
+
+	private final UserRegistry registry;
+	private final long epoch;
+	// False once the user has left the registry
+	private final boolean present;
+	private final String name;
+	private final String userID;
+	private final long lastPostTime;
+	private final int friendCount;
+	private final int vertex;
+	// Posts the user created and received, frozen at capture
+	private final Collection<PostManager> created;
+	private final Collection<PostManager> received;
+	// Record made at the capture before, dropped once no snapshot can read it
+	private volatile UserRecord previous;
+
+	UserRecord(UserRegistry registry, long epoch, boolean present, String name, String userID, long lastPostTime,
+			int friendCount, int vertex, Collection<PostManager> created, Collection<PostManager> received) {
+		this.registry = registry;
+		this.epoch = epoch;
+		this.present = present;
+		this.name = name;
+		this.userID = userID;
+		this.lastPostTime = lastPostTime;
+		this.friendCount = friendCount;
+		this.vertex = vertex;
+		this.created = created;
+		this.received = received;
+	}
+
+	UserRegistry getRegistry() {
+		return registry;
+	}
+
+	long getEpoch() {
+		return epoch;
+	}
+
+	boolean isPresent() {
+		return present;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	String getUserID() {
+		return userID;
+	}
+
+	// number of posts the user created
+	int getPostCount() {
+		return created.size();
+	}
+
+	// number of posts others shared with the user
+	int getReceivedCount() {
+		return received.size();
+	}
+
+	// time of the newest post in milliseconds, or NO_DATE if there is none
+	long getLastPostTime() {
+		return lastPostTime;
+	}
+
+	// date of the newest post, or null if there is none
+	Calendar getLastPostDate() {
+		if (lastPostTime == NO_DATE) {
+			return null;
+		}
+		Calendar date = Calendar.getInstance();
+		date.setTimeInMillis(lastPostTime);
+		return date;
+	}
+
+	int getFriendCount() {
+		return friendCount;
+	}
+
+	// vertex in the graph frozen at capture, or -1 if the user had none
+	int getVertex() {
+		return vertex;
+	}
+
+	Collection<PostManager> getCreated() {
+		return created;
+	}
+
+	Collection<PostManager> getReceived() {
+		return received;
+	}
+
+	UserRecord getPrevious() {
+		return previous;
+	}
+
+	void setPrevious(UserRecord previous) {
+		this.previous = previous;
+	}
+}
@@ -0,0 +1,396 @@
+// laith amro
+// 1230018
+// dr. mamoun nawahda
+// section 7
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+// User list that keeps hash indexes on user ID and name in sync with its contents.
+//
+// A registry that owns its users also keeps what the reports read about them for report
+// snapshots: it notes which users changed, and each capture adds a UserRecord only for those, so
+// capturing costs as much as the changes since the last capture rather than the whole list.
+public class UserRegistry extends CircularDoublyLinkedList<UserManager> {
+	// Index from user ID to the user, which other threads can read too
+	private final ConcurrentUserStore idIndex;
+	// Index from user name to the user (or an ArrayList of users sharing the name)
+	private HashMap<String, Object> nameIndex;
+	// Whether users added here should report renames back to this registry
+	private boolean owner;
+	// Compact friendship network of the users owned by this registry
+	private FriendshipGraph graph;
+	// Operation log that records changes to the users, if one is attached
+	private OperationLog journal;
+	// Changes the list version does not count: edited users and added or removed friendships
+	private int changes;
+	// Users whose report values changed since the last capture, and the number of captures
+	private Set<UserManager> changedUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+	private long captures;
+	// Snapshots that may still read records, so older records can be dropped
+	private final ArrayList<WeakReference<ReportSnapshot>> readers = new ArrayList<>();
+
+	// Creates an empty registry that owns the users added to it
+	public UserRegistry() {
+		this(true);
+	}
+
+	private UserRegistry(boolean owner) {
+		super();
+		this.idIndex = new ConcurrentUserStore();
+		this.nameIndex = new HashMap<>();
+		this.owner = owner;
+		// lets delete find a user's node directly, by identity since user IDs can change
+		enableIndex(true);
+	}
+
+	// Returns the list itself if it is already a registry, otherwise builds a lookup-only index over it
+	public static UserRegistry indexOf(CircularDoublyLinkedList<UserManager> users) {
+		if (users instanceof UserRegistry) {
+			return (UserRegistry) users;
+		}
+		UserRegistry index = new UserRegistry(false);
+		if (users != null) {
+			Iterator<UserManager> iterator = users.iterator();
+			while (iterator.hasNext()) {
+				index.insertLast(iterator.next());
+			}
+		}
+		return index;
+	}
+
+	// finds a user by their ID, safe to call from any thread
+	public UserManager findByID(String userID) {
+		return idIndex.find(userID);
+	}
+
+	// finds a user by their name, on the thread that edits the users
+	public UserManager findByName(String name) {
+		if (name == null) {
+			return null;
+		}
+		return first(nameIndex.get(name));
+	}
+
+	// looks for a user by their id or name
+	public UserManager search(String value) {
+		UserManager user = findByID(value);
+		if (user == null) {
+			user = findByName(value);
+		}
+		return user;
+	}
+
+	// Returns the friendship graph of this registry
+	public FriendshipGraph getGraph() {
+		if (graph == null) {
+			graph = new FriendshipGraph();
+		}
+		return graph;
+	}
+
+	// Records a friend edge, keeping it only in the graph unless the user's friend list has
+	// already been built
+	void addFriendEdge(UserManager user, UserManager friend) {
+		if (user.getRegistry() == this && !user.hasFriendList()) {
+			if (getGraph().addEdge(user, friend)) {
+				changes++;
+				userChanged(user);
+				// the friend may have just been given a vertex
+				userChanged(friend);
+				if (journal != null) {
+					journal.friendAdded(user, friend);
+				}
+			}
+		} else if (!user.isFriend(friend)) {
+			user.getFriends().insertLast(friend);
+		}
+	}
+
+	// Removes a friend edge, from the graph unless the user's friend list has already been built
+	void removeFriendEdge(UserManager user, UserManager friend) {
+		if (user.getRegistry() == this && !user.hasFriendList()) {
+			if (graph != null && graph.removeEdge(user, friend)) {
+				changes++;
+				userChanged(user);
+				if (journal != null) {
+					journal.friendRemoved(user, friend);
+				}
+			}
+		} else {
+			user.getFriends().delete(friend);
+		}
+	}
+
+	// Merges pending graph changes once a bulk load is finished
+	void finishBulkLoad() {
+		if (graph != null) {
+			graph.compact();
+		}
+	}
+
+	// Returns a number that grows with every change to the users, their fields or their
+	// friendships, so cached results over the users can tell when they are out of date
+	public long changeCount() {
+		return (long) version() + changes;
+	}
+
+	// Counts a change to a user's friendships, with the friend added or removed if there is one
+	void friendshipsChanged(UserManager user, UserManager friend) {
+		changes++;
+		userChanged(user);
+		if (friend != null) {
+			userChanged(friend);
+		}
+	}
+
+	// Notes that what the reports read about a user changed, so the next capture records it
+	void userChanged(UserManager user) {
+		if (owner && user != null) {
+			changedUsers.add(user);
+		}
+	}
+
+	// Adds a record for every user changed since the last capture and returns the epoch the
+	// snapshot reads the records at, see UserManager.recordAt. Users that did not change keep
+	// their last record. Call it on the thread that edits the users.
+	long capture(ReportSnapshot reader) {
+		long epoch = ++captures;
+		FriendshipGraph friendships = getGraph();
+		for (UserManager user : changedUsers) {
+			user.addRecord(recordOf(user, epoch, friendships));
+		}
+		// records older than what the oldest snapshot still reads can go
+		long oldest = epoch;
+		Iterator<WeakReference<ReportSnapshot>> iterator = readers.iterator();
+		while (iterator.hasNext()) {
+			ReportSnapshot snapshot = iterator.next().get();
+			if (snapshot == null) {
+				iterator.remove();
+			} else {
+				oldest = Math.min(oldest, snapshot.epoch());
+			}
+		}
+		readers.add(new WeakReference<>(reader));
+		for (UserManager user : changedUsers) {
+			trimRecords(user, oldest);
+		}
+		changedUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+		return epoch;
+	}
+
+	// copies what the reports read about a user, or marks them gone if they left the list
+	private UserRecord recordOf(UserManager user, long epoch, FriendshipGraph friendships) {
+		if (indexedNode(user) == null) {
+			return new UserRecord(this, epoch, false, null, null, UserRecord.NO_DATE, 0, -1,
+				Collections.<PostManager>emptyList(), Collections.<PostManager>emptyList());
+		}
+		Calendar lastPost = user.getLastPostDate();
+		Collection<PostManager> created = user.getPostCount() == 0 ? Collections.<PostManager>emptyList() : user.getCreatedPosts().freeze();
+		Collection<PostManager> received = user.getReceivedPostCount() == 0 ? Collections.<PostManager>emptyList() : user.getInbox().freeze();
+		return new UserRecord(this, epoch, true, user.getName(), user.getUserID(),
+			lastPost == null ? UserRecord.NO_DATE : lastPost.getTimeInMillis(),
+			user.getFriendCount(), friendships.indexOf(user), created, received);
+	}
+
+	// drops a user's records older than the newest one made at or before the given epoch,
+	// unless some of them belong to another registry whose snapshots may still read them
+	private void trimRecords(UserManager user, long oldest) {
+		for (UserRecord record = user.getRecord(); record != null; record = record.getPrevious()) {
+			if (record.getRegistry() != this) {
+				return;
+			}
+		}
+		for (UserRecord record = user.getRecord(); record != null; record = record.getPrevious()) {
+			if (record.getEpoch() <= oldest) {
+				record.setPrevious(null);
+				return;
+			}
+		}
+	}
+
+	// Checks if the users added here belong to this registry, rather than it only indexing them
+	boolean ownsUsers() {
+		return owner;
+	}
+
+	// Returns the operation log attached to this registry, or null
+	OperationLog getJournal() {
+		return journal;
+	}
+
+	// Attaches an operation log that records every later change, or detaches it with null
+	void setJournal(OperationLog journal) {
+		this.journal = owner ? journal : null;
+	}
+
+	// Checks if a user with the given ID is registered
+	public boolean containsID(String userID) {
+		return findByID(userID) != null;
+	}
+
+	// Moves a user to its new key after its ID was changed
+	void userIDChanged(UserManager user, String oldID) {
+		idIndex.move(user, oldID);
+		changes++;
+		userChanged(user);
+		if (journal != null) {
+			journal.userUpdated(oldID, user);
+		}
+	}
+
+	// Moves a user to its new key after its name was changed
+	void userNameChanged(UserManager user, String oldName) {
+		removeFromIndex(nameIndex, oldName, user);
+		addToIndex(nameIndex, user.getName(), user);
+		changes++;
+		userChanged(user);
+		if (journal != null) {
+			journal.userUpdated(user.getUserID(), user);
+		}
+	}
+
+	// Records a user's new age in the operation log
+	void userAgeChanged(UserManager user) {
+		changes++;
+		if (journal != null) {
+			journal.userUpdated(user.getUserID(), user);
+		}
+	}
+
+	@Override
+	protected void linked(Node<UserManager> node) {
+		UserManager user = node.data;
+		if (user == null) {
+			return;
+		}
+		idIndex.add(user);
+		addToIndex(nameIndex, user.getName(), user);
+		userChanged(user);
+		if (owner && user.getRegistry() != this) {
+			// bring the friends along from the graph of the registry the user is leaving
+			CircularDoublyLinkedList<UserManager> friends = user.getRegistry() != null || user.hasFriendList() ? user.getFriends() : null;
+			user.setRegistry(this);
+			if (friends != null && !friends.isEmpty()) {
+				getGraph().setRow(user, friends);
+				// the friends may have just been given vertices
+				for (UserManager friend : friends) {
+					userChanged(friend);
+				}
+			}
+			if (journal != null) {
+				journal.userAdded(user, friends);
+			}
+		}
+	}
+
+	@Override
+	protected void unlinked(Node<UserManager> node) {
+		UserManager user = node.data;
+		if (user == null) {
+			return;
+		}
+		idIndex.remove(user, user.getUserID());
+		removeFromIndex(nameIndex, user.getName(), user);
+		userChanged(user);
+		if (owner && user.getRegistry() == this) {
+			// a user who leaves takes their friendships with them, on both sides
+			if (graph != null) {
+				for (int source : graph.removeVertex(user)) {
+					UserManager friend = graph.userAt(source);
+					if (friend != null && friend != user) {
+						friend.forgetFriend(user);
+						userChanged(friend);
+					}
+				}
+				changes++;
+			}
+			user.dropFriendList();
+			user.setRegistry(null);
+			if (journal != null) {
+				journal.userRemoved(user);
+			}
+		}
+	}
+
+	// Removes all users and empties both indexes
+	@Override
+	public void clear() {
+		if (owner) {
+			Iterator<UserManager> iterator = iterator();
+			while (iterator.hasNext()) {
+				UserManager user = iterator.next();
+				userChanged(user);
+				if (user != null && user.getRegistry() == this) {
+					// the friendships all go with the graph
+					user.dropFriendList();
+					user.setRegistry(null);
+				}
+			}
+		}
+		super.clear();
+		idIndex.clear();
+		nameIndex.clear();
+		graph = null;
+		if (journal != null) {
+			journal.usersCleared();
+		}
+	}
+
+	// returns the single user stored under a key, or the first of several
+	private static UserManager first(Object entry) {
+		if (entry instanceof ArrayList) {
+			return (UserManager) ((ArrayList<?>) entry).get(0);
+		}
+		return (UserManager) entry;
+	}
+
+	// adds a user under a key, turning the entry into a list when the key is shared
+	@SuppressWarnings("unchecked")
+	private static void addToIndex(HashMap<String, Object> index, String key, UserManager user) {
+		if (key == null) {
+			return;
+		}
+		Object entry = index.get(key);
+		if (entry == null) {
+			index.put(key, user);
+		} else if (entry instanceof ArrayList) {
+			((ArrayList<UserManager>) entry).add(user);
+		} else if (entry != user) {
+			ArrayList<UserManager> shared = new ArrayList<>(2);
+			shared.add((UserManager) entry);
+			shared.add(user);
+			index.put(key, shared);
+		}
+	}
+
+	// removes a user from a key, collapsing a shared entry back to a single user
+	@SuppressWarnings("unchecked")
+	private static void removeFromIndex(HashMap<String, Object> index, String key, UserManager user) {
+		if (key == null) {
+			return;
+		}
+		Object entry = index.get(key);
+		if (entry == user) {
+			index.remove(key);
+		} else if (entry instanceof ArrayList) {
+			ArrayList<UserManager> shared = (ArrayList<UserManager>) entry;
+			for (int i = 0; i < shared.size(); i++) {
+				if (shared.get(i) == user) {
+					shared.remove(i);
+					break;
+				}
+			}
+			if (shared.size() == 1) {
+				index.put(key, shared.get(0));
+			}
+		}
+	}
+}
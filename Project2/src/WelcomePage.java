@@ -33,8 +33,8 @@ public class WelcomePage {
 	// Creates a new welcome page with the given tab pane
 	public WelcomePage(TabPane tabPane) {
 		this.tabPane = tabPane;
-		this.users = new CircularDoublyLinkedList<>();
-		this.posts = new CircularDoublyLinkedList<>();
+		this.users = new UserRegistry();
+		this.posts = new PostRegistry();
 
 		welcomeContent = new VBox(20);
 		welcomeContent.setPadding(new Insets(20));